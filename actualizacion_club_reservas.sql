@@ -0,0 +1,12 @@
+-- Script para bases existentes (MySQL): ddl-auto=update agrega la columna reservas.club_id y el índice
+-- idx_reservas_club_creacion, pero no completa las reservas ya guardadas ni borra el índice anterior.
+
+-- Club de cada reserva, copiado de su cancha
+UPDATE reservas r JOIN canchas c ON c.id = r.cancha_id
+SET r.club_id = c.club_id
+WHERE r.club_id IS NULL;
+
+-- El listado del club ya no recorre las reservas cancha por cancha
+DROP INDEX idx_reservas_cancha_creacion ON reservas;
+
+ANALYZE TABLE reservas;
@@ -0,0 +1,6 @@
+-- Script para bases existentes (MySQL): Hibernate crea las columnas @Enumerated(STRING) como ENUM
+-- y ddl-auto=update no agrega valores nuevos.
+
+-- Nuevo estado de pago REVISION: pago recibido con la reserva ya cancelada o completada
+ALTER TABLE reservas MODIFY estado_pago
+    ENUM('PENDIENTE', 'PAGADO', 'FALLIDO', 'REEMBOLSADO', 'REVISION') NOT NULL;
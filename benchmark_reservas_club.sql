@@ -0,0 +1,145 @@
+-- Benchmark de la consulta de reservas por club con 1.000.000 de reservas
+-- Requiere MySQL 8.0.18+ (EXPLAIN ANALYZE). Ejecutar sobre una base de pruebas, nunca en producción.
+-- Los datos generados usan el prefijo "bench" / "Bench" y se eliminan en el paso 5.
+-- Los índices idx_reservas_cancha_rango, idx_reservas_club_creacion, idx_reservas_usuario_creacion
+-- e idx_canchas_club los crea Hibernate (ddl-auto=update) a partir de las entidades Reserva y Cancha.
+-- En una base anterior a la columna reservas.club_id, ejecutar antes actualizacion_club_reservas.sql.
+
+-- 1. Usuarios, clubes y canchas de prueba (20 clubes x 10 canchas)
+INSERT INTO usuarios (nombre, email, password, tipo, activo, fecha_registro)
+WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 20)
+SELECT CONCAT('bench club ', n), CONCAT('bench.club', n, '@reservapp.test'), 'x', 'CLUB', TRUE, NOW()
+FROM seq;
+
+INSERT INTO usuarios (nombre, email, password, tipo, activo, fecha_registro)
+VALUES ('bench jugador', 'bench.jugador@reservapp.test', 'x', 'JUGADOR', TRUE, NOW());
+
+INSERT INTO clubes (nombre, direccion, propietario_id, activo, fecha_creacion, fecha_actualizacion)
+SELECT CONCAT('Bench Club ', u.id), 'Calle de prueba 123', u.id, TRUE, NOW(), NOW()
+FROM usuarios u
+WHERE u.email LIKE 'bench.club%@reservapp.test';
+
+INSERT INTO canchas (nombre, deporte, ubicacion, precio_por_hora, disponible, club_id)
+WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 10)
+SELECT CONCAT('Bench Cancha ', cl.id, '-', seq.n), 'Fútbol 5', 'Bench', 10000, TRUE, cl.id
+FROM clubes cl CROSS JOIN seq
+WHERE cl.nombre LIKE 'Bench Club %';
+
+-- 2. 1.000.000 de reservas: 5.000 turnos de una hora consecutivos por cancha,
+--    con estados repartidos en partes iguales
+SET @jugador = (SELECT id FROM usuarios WHERE email = 'bench.jugador@reservapp.test');
+
+INSERT INTO reservas (usuario_id, cancha_id, club_id, fecha_hora_inicio, fecha_hora_fin, monto_total,
+                      estado, estado_pago, fecha_creacion)
+WITH RECURSIVE d(n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM d WHERE n < 9),
+seq AS (
+    SELECT a.n + b.n * 10 + c.n * 100 + e.n * 1000 + f.n * 10000 + g.n * 100000 AS n
+    FROM d a, d b, d c, d e, d f, d g
+),
+bc AS (
+    SELECT id, club_id, ROW_NUMBER() OVER (ORDER BY id) - 1 AS pos
+    FROM canchas
+    WHERE nombre LIKE 'Bench Cancha %'
+)
+SELECT @jugador,
+       bc.id,
+       bc.club_id,
+       TIMESTAMP('2024-01-01 08:00:00') + INTERVAL (seq.n DIV 200) HOUR,
+       TIMESTAMP('2024-01-01 09:00:00') + INTERVAL (seq.n DIV 200) HOUR,
+       10000,
+       ELT(1 + seq.n % 4, 'PENDIENTE', 'CONFIRMADA', 'CANCELADA', 'COMPLETADA'),
+       ELT(1 + seq.n % 4, 'PENDIENTE', 'PAGADO', 'REEMBOLSADO', 'PAGADO'),
+       TIMESTAMP('2023-12-01 00:00:00') + INTERVAL seq.n SECOND
+FROM seq
+JOIN bc ON bc.pos = seq.n % 200;
+
+ANALYZE TABLE reservas, canchas;
+
+SET @club = (SELECT MIN(id) FROM clubes WHERE nombre LIKE 'Bench Club %');
+SET @cancha = (SELECT MIN(id) FROM canchas WHERE club_id = @club);
+
+-- 3. Planes de ejecución (el tiempo real de cada paso figura en "actual time")
+
+-- 3.1 Primera página del listado de administración sin filtros (findPaginaReservasAdminPorClub).
+--     Plan esperado: lectura inversa de idx_reservas_club_creacion ("Index range scan ... (reverse)")
+--     que se corta en 51 filas, sin "Sort"; canchas y usuarios se leen por clave primaria.
+--     Con el filtro anterior por c.club_id (a través de canchas) ningún índice daba el orden y MySQL
+--     ordenaba (filesort) las 50.000 reservas del club para devolver 51.
+EXPLAIN ANALYZE
+SELECT r.id, r.fecha_hora_inicio, r.fecha_hora_fin, r.monto_total, r.estado, r.fecha_creacion,
+       u.nombre, u.email, c.nombre
+FROM reservas r
+JOIN canchas c ON c.id = r.cancha_id
+JOIN usuarios u ON u.id = r.usuario_id
+WHERE r.club_id = @club
+ORDER BY r.fecha_creacion DESC, r.id DESC
+LIMIT 51;
+
+-- 3.2 Misma página filtrada por estado: mismo recorrido del índice, descartando las de otro estado
+--     (3 de las 10 canchas del club tienen reservas CONFIRMADA: menos de 200 filas leídas)
+EXPLAIN ANALYZE
+SELECT r.id, r.fecha_hora_inicio, r.fecha_hora_fin, r.monto_total, r.estado, r.fecha_creacion,
+       u.nombre, u.email, c.nombre
+FROM reservas r
+JOIN canchas c ON c.id = r.cancha_id
+JOIN usuarios u ON u.id = r.usuario_id
+WHERE r.club_id = @club AND r.estado = 'CONFIRMADA'
+ORDER BY r.fecha_creacion DESC, r.id DESC
+LIMIT 51;
+
+-- 3.3 Página siguiente a partir del cursor (fecha_creacion, id) de la última fila de 3.1
+SELECT r.fecha_creacion, r.id INTO @cursor_fecha, @cursor_id
+FROM reservas r
+WHERE r.club_id = @club
+ORDER BY r.fecha_creacion DESC, r.id DESC
+LIMIT 1 OFFSET 49;
+
+EXPLAIN ANALYZE
+SELECT r.id, r.fecha_hora_inicio, r.fecha_hora_fin, r.monto_total, r.estado, r.fecha_creacion,
+       u.nombre, u.email, c.nombre
+FROM reservas r
+JOIN canchas c ON c.id = r.cancha_id
+JOIN usuarios u ON u.id = r.usuario_id
+WHERE r.club_id = @club
+  AND (r.fecha_creacion < @cursor_fecha OR (r.fecha_creacion = @cursor_fecha AND r.id < @cursor_id))
+ORDER BY r.fecha_creacion DESC, r.id DESC
+LIMIT 51;
+
+-- 3.4 Ocupación del club en una semana (findIntervalosActivosPorClubEnRango)
+EXPLAIN ANALYZE
+SELECT r.id, r.cancha_id, r.fecha_hora_inicio, r.fecha_hora_fin
+FROM reservas r
+JOIN canchas c ON c.id = r.cancha_id
+WHERE c.club_id = @club
+  AND r.fecha_hora_inicio <= '2024-03-08 00:00:00' AND r.fecha_hora_fin >= '2024-03-01 00:00:00'
+  AND r.estado IN ('CONFIRMADA', 'PENDIENTE');
+
+-- 3.5 Verificación de conflicto de una cancha (existsReservaConflicto)
+EXPLAIN ANALYZE
+SELECT COUNT(*) > 0 FROM reservas r
+WHERE r.cancha_id = @cancha
+  AND r.fecha_hora_inicio <= '2024-03-01 11:00:00' AND r.fecha_hora_fin >= '2024-03-01 10:00:00'
+  AND r.estado IN ('CONFIRMADA', 'PENDIENTE');
+
+-- 3.6 Historial del jugador (findPaginaReservasJugador), primera página
+EXPLAIN ANALYZE
+SELECT r.id, r.fecha_creacion FROM reservas r
+WHERE r.usuario_id = @jugador
+ORDER BY r.fecha_creacion DESC, r.id DESC
+LIMIT 51;
+
+-- 4. Latencia de punta a punta: ejecutar varias veces las consultas 3.1 a 3.3 sin EXPLAIN y comparar
+--    con performance_schema (requiere performance_schema habilitado)
+SELECT DIGEST_TEXT, COUNT_STAR,
+       ROUND(AVG_TIMER_WAIT / 1000000000, 2) AS promedio_ms,
+       ROUND(MAX_TIMER_WAIT / 1000000000, 2) AS maximo_ms
+FROM performance_schema.events_statements_summary_by_digest
+WHERE DIGEST_TEXT LIKE '%FROM `reservas` `r` JOIN `canchas` `c`%'
+ORDER BY AVG_TIMER_WAIT DESC
+LIMIT 10;
+
+-- 5. Limpieza de los datos de prueba
+DELETE r FROM reservas r JOIN canchas c ON c.id = r.cancha_id WHERE c.nombre LIKE 'Bench Cancha %';
+DELETE FROM canchas WHERE nombre LIKE 'Bench Cancha %';
+DELETE FROM clubes WHERE nombre LIKE 'Bench Club %';
+DELETE FROM usuarios WHERE email LIKE 'bench.%@reservapp.test';
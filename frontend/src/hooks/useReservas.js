@@ -8,6 +8,7 @@ export const useReservas = () => {
   const [reservas, setReservas] = useState([]);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState(null);
+  const [siguienteCursor, setSiguienteCursor] = useState(null);
 
   // Configuración de axios con token
   const api = axios.create({
@@ -35,6 +36,7 @@ export const useReservas = () => {
       console.log('useReservas - Respuesta recibida:', response.data);
       if (response.data.success) {
         setReservas(response.data.reservas || []);
+        setSiguienteCursor(response.data.siguienteCursor || null);
         console.log('useReservas - Reservas cargadas:', response.data.reservas);
       } else {
         setError(response.data.message || 'Error al cargar reservas');
@@ -49,6 +51,31 @@ export const useReservas = () => {
     }
   };
 
+  // Cargar la siguiente página de reservas (paginación por cursor)
+  const cargarMasReservas = async () => {
+    if (!token || !siguienteCursor) return;
+
+    setLoading(true);
+    setError(null);
+
+    try {
+      const response = await api.get('/api/reservas/mis-reservas', {
+        params: { cursor: siguienteCursor }
+      });
+      if (response.data.success) {
+        setReservas(prev => [...prev, ...(response.data.reservas || [])]);
+        setSiguienteCursor(response.data.siguienteCursor || null);
+      } else {
+        setError(response.data.message || 'Error al cargar reservas');
+      }
+    } catch (err) {
+      console.error('useReservas - Error cargando más reservas:', err);
+      setError(err.response?.data?.message || 'Error al cargar reservas');
+    } finally {
+      setLoading(false);
+    }
+  };
+
   // Cancelar reserva
   const cancelarReserva = async (reservaId) => {
     setLoading(true);
@@ -83,7 +110,9 @@ export const useReservas = () => {
     reservas,
     loading,
     error,
+    hayMasReservas: !!siguienteCursor,
     cargarReservas,
+    cargarMasReservas,
     cancelarReserva
   };
 };
\ No newline at end of file
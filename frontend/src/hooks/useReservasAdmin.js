@@ -8,6 +8,9 @@ export const useReservasAdmin = () => {
   const [reservas, setReservas] = useState([]);
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState(null);
+  const [siguienteCursor, setSiguienteCursor] = useState(null);
+  // Filtros de la última consulta (estado, desde, hasta), para pedir las páginas siguientes
+  const [filtrosActuales, setFiltrosActuales] = useState({});
 
   // Configuración de axios con token
   const api = axios.create({
@@ -18,15 +21,17 @@ export const useReservasAdmin = () => {
     }
   });
 
-  // Obtener todas las reservas (admin)
-  const getReservasAdmin = async () => {
+  // Obtener las reservas del club (admin); los filtros se aplican en el servidor
+  const getReservasAdmin = async (filtros = filtrosActuales) => {
     setLoading(true);
     setError(null);
+    setFiltrosActuales(filtros);
     
     try {
-      const response = await api.get('/api/reservas/admin/todas');
+      const response = await api.get('/api/reservas/admin/todas', { params: filtros });
       if (response.data.success) {
         setReservas(response.data.data || []);
+        setSiguienteCursor(response.data.siguienteCursor || null);
         return { success: true, data: response.data.data };
       } else {
         setError(response.data.message || 'Error al cargar reservas');
@@ -42,6 +47,35 @@ export const useReservasAdmin = () => {
     }
   };
 
+  // Obtener la siguiente página de reservas (paginación por cursor)
+  const getMasReservasAdmin = async () => {
+    if (!siguienteCursor) return { success: true, data: [] };
+
+    setLoading(true);
+    setError(null);
+
+    try {
+      const response = await api.get('/api/reservas/admin/todas', {
+        params: { ...filtrosActuales, cursor: siguienteCursor }
+      });
+      if (response.data.success) {
+        setReservas(prev => [...prev, ...(response.data.data || [])]);
+        setSiguienteCursor(response.data.siguienteCursor || null);
+        return { success: true, data: response.data.data };
+      } else {
+        setError(response.data.message || 'Error al cargar reservas');
+        return { success: false, error: response.data.message };
+      }
+    } catch (err) {
+      console.error('Error cargando más reservas:', err);
+      const errorMessage = err.response?.data?.message || 'Error al cargar reservas';
+      setError(errorMessage);
+      return { success: false, error: errorMessage };
+    } finally {
+      setLoading(false);
+    }
+  };
+
   // Confirmar reserva
   const confirmarReserva = async (reservaId) => {
     setLoading(true);
@@ -124,7 +158,9 @@ export const useReservasAdmin = () => {
     reservas,
     loading,
     error,
+    hayMasReservas: !!siguienteCursor,
     getReservasAdmin,
+    getMasReservasAdmin,
     confirmarReserva,
     completarReserva,
     cancelReserva,
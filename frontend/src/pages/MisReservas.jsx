@@ -6,7 +6,7 @@ import { useReservas } from '../hooks/useReservas';
 const MisReservas = () => {
   const { user } = useAuth();
   const navigate = useNavigate();
-  const { reservas, loading, error, cancelarReserva } = useReservas();
+  const { reservas, loading, error, cancelarReserva, hayMasReservas, cargarMasReservas } = useReservas();
   
   console.log('MisReservas - User:', user);
   console.log('MisReservas - Reservas:', reservas);
@@ -306,6 +306,19 @@ const MisReservas = () => {
             </div>
           )}
 
+          {/* Cargar más (paginación) */}
+          {hayMasReservas && (
+            <div className="mt-6 text-center">
+              <button
+                onClick={cargarMasReservas}
+                disabled={loading}
+                className="bg-gray-100 text-gray-700 px-6 py-2 rounded-md hover:bg-gray-200 transition-colors font-medium disabled:opacity-50"
+              >
+                Cargar más reservas
+              </button>
+            </div>
+          )}
+
           {/* Botón Nueva Reserva */}
           <div className="mt-8 text-center">
             <Link 
@@ -4,7 +4,7 @@ import { useReservasAdmin } from '../../hooks/useReservasAdmin';
 
 const GestionReservas = () => {
   const { user } = useAuth();
-  const { getReservasAdmin, confirmarReserva, completarReserva, cancelReserva, loading: apiLoading, error } = useReservasAdmin();
+  const { getReservasAdmin, getMasReservasAdmin, hayMasReservas, confirmarReserva, completarReserva, cancelReserva, loading: apiLoading, error } = useReservasAdmin();
   const [reservas, setReservas] = useState([]);
   const [filtros, setFiltros] = useState({
     estado: 'todas',
@@ -31,14 +31,27 @@ const GestionReservas = () => {
       .map(cancha => ({ id: cancha, nombre: cancha }))
   ];
 
+  // Estado y fecha se filtran en el servidor; cancha y búsqueda sobre las reservas ya cargadas
   useEffect(() => {
     cargarReservas();
-  }, [filtros]);
+  }, [filtros.estado, filtros.fecha]);
+
+  const filtrosServidor = () => {
+    const params = {};
+    if (filtros.estado !== 'todas') {
+      params.estado = filtros.estado.toUpperCase();
+    }
+    if (filtros.fecha) {
+      params.desde = filtros.fecha;
+      params.hasta = filtros.fecha;
+    }
+    return params;
+  };
 
   const cargarReservas = async () => {
     setLoading(true);
     try {
-      const result = await getReservasAdmin();
+      const result = await getReservasAdmin(filtrosServidor());
       if (result.success) {
         setReservas(result.data);
       } else {
@@ -53,28 +66,22 @@ const GestionReservas = () => {
     }
   };
 
+  const cargarMasReservas = async () => {
+    const result = await getMasReservasAdmin();
+    if (result.success) {
+      setReservas(prev => [...prev, ...(result.data || [])]);
+    }
+  };
+
   const filtrarReservas = () => {
     return reservas.filter(reserva => {
-      const cumpleFiltroEstado = filtros.estado === 'todas' || reserva.estado === filtros.estado;
       const cumpleFiltroCancha = filtros.cancha === 'todas' || reserva.cancha === filtros.cancha;
       
-      // Convertir fecha del filtro al formato del backend (dd/MM/yyyy)
-      let cumpleFiltroFecha = true;
-      if (filtros.fecha) {
-        const fechaFiltro = new Date(filtros.fecha);
-        const fechaFormateada = fechaFiltro.toLocaleDateString('es-ES', {
-          day: '2-digit',
-          month: '2-digit',
-          year: 'numeric'
-        });
-        cumpleFiltroFecha = reserva.fecha === fechaFormateada;
-      }
-      
       const cumpleFiltroBusqueda = !filtros.busqueda || 
         reserva.jugador.toLowerCase().includes(filtros.busqueda.toLowerCase()) ||
         reserva.email.toLowerCase().includes(filtros.busqueda.toLowerCase());
       
-      return cumpleFiltroEstado && cumpleFiltroCancha && cumpleFiltroFecha && cumpleFiltroBusqueda;
+      return cumpleFiltroCancha && cumpleFiltroBusqueda;
     });
   };
 
@@ -346,6 +353,17 @@ const GestionReservas = () => {
                 ))}
               </tbody>
             </table>
+            {hayMasReservas && (
+              <div className="p-4 text-center border-t border-gray-200">
+                <button
+                  onClick={cargarMasReservas}
+                  disabled={apiLoading}
+                  className="px-4 py-2 bg-gray-100 text-gray-700 rounded-lg hover:bg-gray-200 transition-colors disabled:opacity-50"
+                >
+                  Cargar más reservas
+                </button>
+              </div>
+            )}
           </div>
         )}
       </div>
@@ -0,0 +1,119 @@
+package com.reservapp.benchmark;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.reservapp.dto.ReservaJugadorDTO;
+import com.reservapp.entity.ConfiguracionHorario;
+import com.reservapp.entity.Reserva;
+import com.reservapp.service.HorarioCompilado;
+
+/**
+ * Datos de prueba reproducibles para los benchmarks: todo se genera con una semilla fija,
+ * así dos corridas sobre el mismo commit miden exactamente los mismos casos.
+ * Las fechas se generan relativas a mañana para caer dentro de la anticipación permitida.
+ */
+public final class DatosBenchmark {
+
+    public static final long SEMILLA = 20240101L;
+
+    private static final String[] DIAS = {
+        "1,2,3,4,5,6,7", "1,2,3,4,5", "6,7", "1,3,5", "2,4,6", "1,2,3,4,5,6"
+    };
+    private static final int[] DURACIONES = {60, 60, 60, 90, 30, 120};
+    private static final int[] APERTURAS = {8, 9, 9, 10, 7};
+    private static final int[] CIERRES = {22, 23, 23, 21, 20};
+    private static final String[] DEPORTES = {"Fútbol 5", "Pádel", "Tenis", "Básquet"};
+
+    private DatosBenchmark() {
+    }
+
+    /**
+     * Configuraciones de horario variadas, una por cancha (IDs 1..cantidad)
+     */
+    public static Map<Long, ConfiguracionHorario> configuraciones(int cantidad) {
+        Random random = new Random(SEMILLA);
+        Map<Long, ConfiguracionHorario> configuraciones = new HashMap<>();
+        for (long canchaId = 1; canchaId <= cantidad; canchaId++) {
+            ConfiguracionHorario config = new ConfiguracionHorario();
+            config.setId(canchaId);
+            config.setHoraApertura(LocalTime.of(APERTURAS[random.nextInt(APERTURAS.length)], 0));
+            config.setHoraCierre(LocalTime.of(CIERRES[random.nextInt(CIERRES.length)], 0));
+            config.setDuracionTurnoMinutos(DURACIONES[random.nextInt(DURACIONES.length)]);
+            config.setDiasDisponibles(DIAS[random.nextInt(DIAS.length)]);
+            config.setAnticipacionMinimaHoras(2);
+            config.setAnticipacionMaximaDias(30);
+            configuraciones.put(canchaId, config);
+        }
+        return configuraciones;
+    }
+
+    /**
+     * Consultas de turnos (cancha, inicio, fin) repartidas en los próximos 14 días,
+     * alineadas a la hora y con duración de 1 o 2 horas
+     */
+    public static List<Consulta> consultas(int cantidad, int canchas) {
+        Random random = new Random(SEMILLA + 1);
+        LocalDateTime manana = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).plusDays(1);
+        List<Consulta> consultas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            LocalDateTime inicio = manana.plusDays(random.nextInt(14)).plusHours(6 + random.nextInt(16));
+            consultas.add(new Consulta(1L + random.nextInt(canchas), inicio, inicio.plusHours(1 + random.nextInt(2))));
+        }
+        return consultas;
+    }
+
+    /**
+     * Configuraciones guardadas de las canchas de un deporte, como las agrupa CalendarioMaestroService
+     */
+    public static List<HorarioCompilado> canchasConfiguradas(int cantidad) {
+        List<HorarioCompilado> horarios = new ArrayList<>(cantidad);
+        for (ConfiguracionHorario config : configuraciones(cantidad).values()) {
+            horarios.add(new HorarioCompilado(config));
+        }
+        return horarios;
+    }
+
+    /**
+     * Página de reservas del jugador, como la devuelve la proyección de /mis-reservas
+     */
+    public static List<ReservaJugadorDTO> reservasJugador(int cantidad) {
+        Random random = new Random(SEMILLA + 2);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 8, 0);
+        Reserva.EstadoReserva[] estados = Reserva.EstadoReserva.values();
+        Reserva.EstadoPago[] estadosPago = Reserva.EstadoPago.values();
+        List<ReservaJugadorDTO> reservas = new ArrayList<>(cantidad);
+        for (long i = 1; i <= cantidad; i++) {
+            LocalDateTime inicio = base.plusHours(random.nextInt(24 * 90));
+            long canchaId = 1 + random.nextInt(50);
+            reservas.add(new ReservaJugadorDTO(i, canchaId, "Cancha " + canchaId,
+                    inicio, inicio.plusHours(1), 10000.0 + random.nextInt(5) * 1000,
+                    estados[random.nextInt(estados.length)], estadosPago[random.nextInt(estadosPago.length)],
+                    base.minusDays(1).plusMinutes(i), "pi_" + i, "cs_" + i,
+                    "Jugador Benchmark", "jugador@reservapp.test",
+                    DEPORTES[random.nextInt(DEPORTES.length)], "Calle " + canchaId, 10000.0));
+        }
+        return reservas;
+    }
+
+    /**
+     * Turno consultado en una cancha
+     */
+    public static final class Consulta {
+        public final Long canchaId;
+        public final LocalDateTime inicio;
+        public final LocalDateTime fin;
+
+        Consulta(Long canchaId, LocalDateTime inicio, LocalDateTime fin) {
+            this.canchaId = canchaId;
+            this.inicio = inicio;
+            this.fin = fin;
+        }
+    }
+}
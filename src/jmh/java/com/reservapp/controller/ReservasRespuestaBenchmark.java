@@ -0,0 +1,62 @@
+package com.reservapp.controller;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.reservapp.benchmark.DatosBenchmark;
+import com.reservapp.dto.ReservaJugadorDTO;
+
+/**
+ * Armado y serialización de la respuesta de /api/reservas/mis-reservas.
+ * La conversión reserva → mapa del controlador se reemplazó por la proyección
+ * {@link ReservaJugadorDTO}, así que se mide lo que hoy cuesta por petición:
+ * pasar una página de DTOs a JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ReservasRespuestaBenchmark {
+
+    @Param({"50", "200"})
+    private int reservas;
+
+    private ObjectMapper objectMapper;
+    private List<ReservaJugadorDTO> pagina;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        pagina = DatosBenchmark.reservasJugador(reservas);
+    }
+
+    @Benchmark
+    public byte[] serializarMisReservas() throws Exception {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("reservas", pagina);
+        response.put("total", pagina.size());
+        response.put("siguienteCursor", pagina.get(pagina.size() - 1).getCursor().codificar());
+        response.put("hayMas", true);
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
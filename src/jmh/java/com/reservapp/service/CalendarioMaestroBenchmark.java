@@ -0,0 +1,49 @@
+package com.reservapp.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.reservapp.benchmark.DatosBenchmark;
+
+/**
+ * Cálculo de la configuración típica (moda) de las canchas de un deporte
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class CalendarioMaestroBenchmark {
+
+    @Param({"10", "200"})
+    private int canchas;
+
+    private CalendarioMaestroService servicio;
+    private List<HorarioCompilado> canchasConfiguradas;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        servicio = new CalendarioMaestroService();
+        canchasConfiguradas = DatosBenchmark.canchasConfiguradas(canchas);
+    }
+
+    @Benchmark
+    public Map<String, Object> calcularValoresTipicos() {
+        return servicio.calcularValoresTipicos(canchasConfiguradas);
+    }
+}
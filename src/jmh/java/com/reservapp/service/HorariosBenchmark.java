@@ -0,0 +1,113 @@
+package com.reservapp.service;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.reservapp.benchmark.DatosBenchmark;
+import com.reservapp.entity.ConfiguracionHorario;
+import com.reservapp.repository.ConfiguracionHorarioRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Validación de turnos y generación de horarios disponibles, con la caché de horarios
+ * compilados ya cargada (el caso de todas las peticiones salvo la primera de cada cancha).
+ * Cada operación recorre el lote completo de consultas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class HorariosBenchmark {
+
+    private static final int CANCHAS = 200;
+
+    @Param({"1000"})
+    private int consultas;
+
+    private ConfiguracionHorarioService servicio;
+    private Map<Long, ConfiguracionHorario> configuraciones;
+    private List<DatosBenchmark.Consulta> lote;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        configuraciones = DatosBenchmark.configuraciones(CANCHAS);
+        lote = DatosBenchmark.consultas(consultas, CANCHAS);
+
+        servicio = new ConfiguracionHorarioService(10_000, 60, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(servicio, "configuracionHorarioRepository", repositorio(configuraciones));
+        for (long canchaId = 1; canchaId <= CANCHAS; canchaId++) {
+            servicio.getHorarioCompilado(canchaId);
+        }
+    }
+
+    @Benchmark
+    public void validarHorario(Blackhole bh) {
+        for (DatosBenchmark.Consulta consulta : lote) {
+            bh.consume(servicio.validarHorario(consulta.canchaId, consulta.inicio, consulta.fin));
+        }
+    }
+
+    @Benchmark
+    public void getHorariosDisponibles(Blackhole bh) {
+        for (DatosBenchmark.Consulta consulta : lote) {
+            bh.consume(servicio.getHorariosDisponibles(consulta.canchaId, consulta.inicio));
+        }
+    }
+
+    @Benchmark
+    public void esDiaDisponibleEntidad(Blackhole bh) {
+        for (DatosBenchmark.Consulta consulta : lote) {
+            ConfiguracionHorario config = configuraciones.get(consulta.canchaId);
+            bh.consume(config.esDiaDisponible(consulta.inicio.getDayOfWeek().getValue()));
+        }
+    }
+
+    @Benchmark
+    public void esDiaDisponibleCompilado(Blackhole bh) {
+        for (DatosBenchmark.Consulta consulta : lote) {
+            HorarioCompilado horario = servicio.resolverHorario(consulta.canchaId);
+            bh.consume(horario.esDiaDisponible(consulta.inicio.getDayOfWeek().getValue()));
+        }
+    }
+
+    @Benchmark
+    public void compilarHorario(Blackhole bh) {
+        for (ConfiguracionHorario config : configuraciones.values()) {
+            bh.consume(new HorarioCompilado(config));
+        }
+    }
+
+    // Repositorio en memoria: solo responde findByCanchaId, que es lo que usa la caché
+    private static ConfiguracionHorarioRepository repositorio(Map<Long, ConfiguracionHorario> configuraciones) {
+        return (ConfiguracionHorarioRepository) Proxy.newProxyInstance(
+                ConfiguracionHorarioRepository.class.getClassLoader(),
+                new Class<?>[] {ConfiguracionHorarioRepository.class},
+                (proxy, metodo, args) -> {
+                    if (metodo.getName().equals("findByCanchaId")) {
+                        return Optional.ofNullable(configuraciones.get((Long) args[0]));
+                    }
+                    throw new UnsupportedOperationException(metodo.getName());
+                });
+    }
+}
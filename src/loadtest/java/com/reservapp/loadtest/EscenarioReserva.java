@@ -0,0 +1,205 @@
+package com.reservapp.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stripe.Stripe;
+
+/**
+ * Recorrido de un jugador: explorar clubes y canchas → consultar disponibilidad → reservar →
+ * pagar (webhook de Stripe firmado) → esperar la confirmación de la reserva.
+ * Cada paso registra su latencia por endpoint; un turno ya tomado por otro jugador
+ * cuenta como rechazo, no como error.
+ */
+public class EscenarioReserva {
+
+    private static final long ESPERA_CONFIRMACION_MS = 10_000;
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String secretoWebhook;
+    private final GeneradorDatos.Datos datos;
+    private final Map<String, EstadisticasEndpoint> estadisticas;
+    private final AtomicLong reservasConfirmadas;
+    private final AtomicLong reservasRechazadas;
+
+    public EscenarioReserva(HttpClient http, ObjectMapper objectMapper, String baseUrl, String secretoWebhook,
+                            GeneradorDatos.Datos datos, Map<String, EstadisticasEndpoint> estadisticas,
+                            AtomicLong reservasConfirmadas, AtomicLong reservasRechazadas) {
+        this.http = http;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.secretoWebhook = secretoWebhook;
+        this.datos = datos;
+        this.estadisticas = estadisticas;
+        this.reservasConfirmadas = reservasConfirmadas;
+        this.reservasRechazadas = reservasRechazadas;
+    }
+
+    public static Map<String, EstadisticasEndpoint> nuevasEstadisticas() {
+        return new ConcurrentHashMap<>();
+    }
+
+    public String login(String email, String password) throws Exception {
+        JsonNode respuesta = enviar("POST /api/auth/login", "POST", "/api/auth/login", null,
+                objectMapper.writeValueAsString(Map.of("email", email, "password", password)));
+        return respuesta.path("token").asText();
+    }
+
+    /**
+     * Ejecuta el recorrido completo una vez con el token del jugador
+     */
+    public void ejecutar(String token, Random random) throws Exception {
+        int club = random.nextInt(datos.clubIds.size());
+        Long clubId = datos.clubIds.get(club);
+
+        // Explorar
+        enviar("GET /api/clubes", "GET", "/api/clubes", null, null);
+        enviar("GET /api/canchas/club/{id}", "GET", "/api/canchas/club/" + clubId, null, null);
+
+        // Disponibilidad de la próxima semana
+        LocalDate desde = LocalDate.now().plusDays(1);
+        JsonNode disponibilidad = enviar("GET /api/calendario-maestro/club/{id}/disponibilidad", "GET",
+                "/api/calendario-maestro/club/" + clubId + "/disponibilidad?desde=" + desde + "&dias=7", token, null);
+        List<String[]> turnosLibres = turnosLibres(disponibilidad.path("data"), desde);
+        if (turnosLibres.isEmpty()) {
+            reservasRechazadas.incrementAndGet();
+            return;
+        }
+
+        // Reservar un turno libre al azar
+        String[] turno = turnosLibres.get(random.nextInt(turnosLibres.size()));
+        JsonNode reserva = enviar("POST /api/reservas", "POST", "/api/reservas", token,
+                objectMapper.writeValueAsString(Map.of("canchaId", Long.valueOf(turno[0]),
+                        "fechaInicio", turno[1], "fechaFin", turno[2])));
+        if (!reserva.path("success").asBoolean()) {
+            reservasRechazadas.incrementAndGet();
+            return;
+        }
+        long reservaId = reserva.path("reserva").path("id").asLong();
+
+        // Pagar: Stripe avisa por webhook
+        String evento = eventoPagoExitoso(reservaId);
+        enviarWebhook(evento);
+
+        // Confirmar: la reserva pasa a CONFIRMADA cuando el procesador aplica el evento
+        long inicio = System.nanoTime();
+        long limite = System.currentTimeMillis() + ESPERA_CONFIRMACION_MS;
+        while (System.currentTimeMillis() < limite) {
+            JsonNode actual = enviar("GET /api/reservas/{id}", "GET", "/api/reservas/" + reservaId, token, null);
+            if ("CONFIRMADA".equals(actual.path("reserva").path("estado").asText())) {
+                estadisticas.computeIfAbsent("pago -> confirmacion", k -> new EstadisticasEndpoint())
+                        .registrar((System.nanoTime() - inicio) / 1000, true);
+                reservasConfirmadas.incrementAndGet();
+                return;
+            }
+            Thread.sleep(50);
+        }
+        estadisticas.computeIfAbsent("pago -> confirmacion", k -> new EstadisticasEndpoint())
+                .registrar((System.nanoTime() - inicio) / 1000, false);
+    }
+
+    // Turnos libres de la grilla: [canchaId, inicio, fin]
+    private List<String[]> turnosLibres(JsonNode grilla, LocalDate desde) {
+        List<String[]> libres = new ArrayList<>();
+        for (JsonNode cancha : grilla.path("canchas")) {
+            if (!cancha.hasNonNull("horaApertura")) {
+                continue;
+            }
+            LocalTime apertura = LocalTime.parse(cancha.path("horaApertura").asText());
+            int duracion = cancha.path("duracionTurnoMinutos").asInt();
+            JsonNode dias = cancha.path("disponibilidad");
+            for (int d = 0; d < dias.size(); d++) {
+                String dia = dias.get(d).asText();
+                for (int t = 0; t < dia.length(); t++) {
+                    if (dia.charAt(t) == '1') {
+                        var inicio = desde.plusDays(d).atTime(apertura).plusMinutes((long) t * duracion);
+                        libres.add(new String[] {cancha.path("canchaId").asText(),
+                                inicio.toString(), inicio.plusMinutes(duracion).toString()});
+                    }
+                }
+            }
+        }
+        return libres;
+    }
+
+    private String eventoPagoExitoso(long reservaId) throws Exception {
+        String paymentIntentId = "pi_carga_" + UUID.randomUUID().toString().replace("-", "");
+        Map<String, Object> paymentIntent = Map.of(
+                "id", paymentIntentId,
+                "object", "payment_intent",
+                "status", "succeeded",
+                "amount", 1000000,
+                "currency", "usd",
+                "metadata", Map.of("reserva_id", String.valueOf(reservaId)));
+        return objectMapper.writeValueAsString(Map.of(
+                "id", "evt_carga_" + UUID.randomUUID().toString().replace("-", ""),
+                "object", "event",
+                "api_version", Stripe.API_VERSION,
+                "created", System.currentTimeMillis() / 1000,
+                "type", "payment_intent.succeeded",
+                "livemode", false,
+                "data", Map.of("object", paymentIntent)));
+    }
+
+    // Misma firma que Stripe: HMAC-SHA256 de "timestamp.payload" con el secreto del webhook
+    private void enviarWebhook(String payload) throws Exception {
+        long timestamp = System.currentTimeMillis() / 1000;
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secretoWebhook.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String firma = HexFormat.of().formatHex(
+                mac.doFinal((timestamp + "." + payload).getBytes(StandardCharsets.UTF_8)));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/pagos/webhook"))
+                .header("Content-Type", "application/json")
+                .header("Stripe-Signature", "t=" + timestamp + ",v1=" + firma)
+                .POST(HttpRequest.BodyPublishers.ofString(payload))
+                .build();
+        medir("POST /api/pagos/webhook", request);
+    }
+
+    private JsonNode enviar(String endpoint, String metodo, String ruta, String token, String cuerpo) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + ruta));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        if (cuerpo != null) {
+            builder.header("Content-Type", "application/json")
+                    .method(metodo, HttpRequest.BodyPublishers.ofString(cuerpo));
+        } else {
+            builder.method(metodo, HttpRequest.BodyPublishers.noBody());
+        }
+        String respuesta = medir(endpoint, builder.build());
+        return respuesta.isEmpty() ? objectMapper.createObjectNode() : objectMapper.readTree(respuesta);
+    }
+
+    private String medir(String endpoint, HttpRequest request) throws Exception {
+        long inicio = System.nanoTime();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        long micros = (System.nanoTime() - inicio) / 1000;
+        // Un 400 al reservar es un turno ya tomado: se mide, pero no es un error del servidor
+        boolean exito = response.statusCode() < 400
+                || (response.statusCode() == 400 && endpoint.equals("POST /api/reservas"));
+        estadisticas.computeIfAbsent(endpoint, k -> new EstadisticasEndpoint()).registrar(micros, exito);
+        return response.body();
+    }
+}
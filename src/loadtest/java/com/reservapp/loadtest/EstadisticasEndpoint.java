@@ -0,0 +1,45 @@
+package com.reservapp.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencias registradas de un endpoint. Guarda todas las muestras (en microsegundos)
+ * para calcular percentiles exactos al final de la prueba.
+ */
+public class EstadisticasEndpoint {
+
+    private long[] muestras = new long[1024];
+    private int cantidad;
+    private int errores;
+
+    public synchronized void registrar(long microsegundos, boolean exito) {
+        if (cantidad == muestras.length) {
+            muestras = Arrays.copyOf(muestras, cantidad * 2);
+        }
+        muestras[cantidad++] = microsegundos;
+        if (!exito) {
+            errores++;
+        }
+    }
+
+    public synchronized int getCantidad() {
+        return cantidad;
+    }
+
+    public synchronized int getErrores() {
+        return errores;
+    }
+
+    /**
+     * Percentil (0..100) en milisegundos, por el método del rango más cercano
+     */
+    public synchronized double percentilMs(double percentil) {
+        if (cantidad == 0) {
+            return 0;
+        }
+        long[] ordenadas = Arrays.copyOf(muestras, cantidad);
+        Arrays.sort(ordenadas);
+        int indice = (int) Math.ceil(percentil / 100.0 * cantidad) - 1;
+        return ordenadas[Math.max(0, Math.min(indice, cantidad - 1))] / 1000.0;
+    }
+}
@@ -0,0 +1,142 @@
+package com.reservapp.loadtest;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Genera el conjunto de datos de la prueba de carga directamente por JDBC, en lotes:
+ * clubes (cada uno con su propietario), canchas, jugadores y un historial de reservas pasadas.
+ * Las reservas históricas terminan antes de hoy, así no bloquean los turnos que reserva la prueba.
+ * Con la misma semilla se generan siempre los mismos datos.
+ */
+public class GeneradorDatos {
+
+    private static final String[] DEPORTES = {"Fútbol 5", "Pádel", "Tenis", "Básquet"};
+    private static final String[] ESTADOS = {"CONFIRMADA", "COMPLETADA", "COMPLETADA", "CANCELADA"};
+    private static final int LOTE = 1000;
+
+    private final JdbcTemplate jdbc;
+    private final String passwordCodificada;
+    private final Random random;
+
+    public GeneradorDatos(JdbcTemplate jdbc, String passwordCodificada, long semilla) {
+        this.jdbc = jdbc;
+        this.passwordCodificada = passwordCodificada;
+        this.random = new Random(semilla);
+    }
+
+    /**
+     * Datos generados que necesitan los escenarios
+     */
+    public static class Datos {
+        public final List<Long> clubIds = new ArrayList<>();
+        public final List<List<Long>> canchasPorClub = new ArrayList<>();
+        public final List<String> jugadores = new ArrayList<>();
+    }
+
+    public Datos generar(int clubes, int canchasPorClub, int jugadores, int reservas) {
+        Datos datos = new Datos();
+        long usuarioId = 1;
+        long canchaId = 1;
+
+        List<Object[]> usuarios = new ArrayList<>();
+        List<Object[]> filasClubes = new ArrayList<>();
+        List<Object[]> canchas = new ArrayList<>();
+        List<Object[]> configuraciones = new ArrayList<>();
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+
+        for (long clubId = 1; clubId <= clubes; clubId++) {
+            usuarios.add(new Object[] {usuarioId, "Club " + clubId, "club" + clubId + "@carga.test",
+                    passwordCodificada, "CLUB", ahora, true});
+            filasClubes.add(new Object[] {clubId, "Club de carga " + clubId, "Calle " + clubId,
+                    usuarioId, true, ahora, ahora});
+            usuarioId++;
+
+            List<Long> idsCanchas = new ArrayList<>();
+            for (int i = 0; i < canchasPorClub; i++) {
+                canchas.add(new Object[] {canchaId, "Cancha " + clubId + "-" + (i + 1),
+                        DEPORTES[random.nextInt(DEPORTES.length)], "Calle " + clubId,
+                        8000.0 + random.nextInt(8) * 1000, true, clubId});
+                // La mitad de las canchas tiene configuración propia; el resto usa la de por defecto
+                if (random.nextBoolean()) {
+                    configuraciones.add(new Object[] {canchaId, canchaId, LocalTime.of(8 + random.nextInt(3), 0),
+                            LocalTime.of(21 + random.nextInt(3), 0), 60, "1,2,3,4,5,6,7", 1, 30});
+                }
+                idsCanchas.add(canchaId++);
+            }
+            datos.clubIds.add(clubId);
+            datos.canchasPorClub.add(idsCanchas);
+        }
+
+        long primerJugador = usuarioId;
+        for (int i = 1; i <= jugadores; i++) {
+            String email = "jugador" + i + "@carga.test";
+            usuarios.add(new Object[] {usuarioId++, "Jugador " + i, email, passwordCodificada, "JUGADOR", ahora, true});
+            datos.jugadores.add(email);
+        }
+
+        insertar("INSERT INTO usuarios (id, nombre, email, password, tipo, fecha_registro, activo) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", usuarios);
+        insertar("INSERT INTO clubes (id, nombre, direccion, propietario_id, activo, fecha_creacion, " +
+                "fecha_actualizacion) VALUES (?, ?, ?, ?, ?, ?, ?)", filasClubes);
+        insertar("INSERT INTO canchas (id, nombre, deporte, ubicacion, precio_por_hora, disponible, club_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", canchas);
+        insertar("INSERT INTO configuracion_horarios (id, cancha_id, hora_apertura, hora_cierre, " +
+                "duracion_turno_minutos, dias_disponibles, anticipacion_minima_horas, anticipacion_maxima_dias) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", configuraciones);
+
+        generarReservas(reservas, canchaId - 1, canchasPorClub, primerJugador, jugadores);
+
+        reiniciarIdentidad("usuarios", usuarioId);
+        reiniciarIdentidad("clubes", clubes + 1L);
+        reiniciarIdentidad("canchas", canchaId);
+        reiniciarIdentidad("configuracion_horarios", canchaId);
+        reiniciarIdentidad("reservas", reservas + 1L);
+        return datos;
+    }
+
+    // Turnos de una hora en horas pares de los últimos 365 días, sin solaparse dentro de una cancha
+    private void generarReservas(int reservas, long canchas, int canchasPorClub, long primerJugador, int jugadores) {
+        LocalDateTime hoy = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+        String sql = "INSERT INTO reservas (id, usuario_id, cancha_id, club_id, fecha_hora_inicio, fecha_hora_fin, " +
+                "monto_total, estado, estado_pago, fecha_creacion) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        List<Object[]> lote = new ArrayList<>(LOTE);
+        for (long id = 1; id <= reservas; id++) {
+            long posicion = id - 1;
+            long canchaId = 1 + posicion % canchas;
+            long turno = posicion / canchas;
+            LocalDateTime inicio = hoy.minusDays(1 + turno / 7 % 365).plusHours(8 + 2 * (turno % 7));
+            String estado = ESTADOS[random.nextInt(ESTADOS.length)];
+            lote.add(new Object[] {id, primerJugador + random.nextInt(jugadores), canchaId,
+                    1 + (canchaId - 1) / canchasPorClub,
+                    Timestamp.valueOf(inicio), Timestamp.valueOf(inicio.plusHours(1)), 10000.0, estado,
+                    "CANCELADA".equals(estado) ? "REEMBOLSADO" : "PAGADO",
+                    Timestamp.valueOf(inicio.minusDays(1 + random.nextInt(10)))});
+            if (lote.size() == LOTE) {
+                jdbc.batchUpdate(sql, lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            jdbc.batchUpdate(sql, lote);
+        }
+    }
+
+    private void insertar(String sql, List<Object[]> filas) {
+        for (int desde = 0; desde < filas.size(); desde += LOTE) {
+            jdbc.batchUpdate(sql, filas.subList(desde, Math.min(desde + LOTE, filas.size())));
+        }
+    }
+
+    // Los IDs se insertaron explícitamente: la identidad sigue desde el siguiente libre
+    private void reiniciarIdentidad(String tabla, long siguiente) {
+        jdbc.execute("ALTER TABLE " + tabla + " ALTER COLUMN id RESTART WITH " + siguiente);
+    }
+}
@@ -0,0 +1,153 @@
+package com.reservapp.loadtest;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.reservapp.ReservappApplication;
+
+/**
+ * Prueba de carga de punta a punta de un nodo.
+ *
+ * Levanta la aplicación con el perfil {@code loadtest} (H2 en memoria en modo MySQL),
+ * genera los datos y lanza usuarios virtuales que repiten {@link EscenarioReserva} durante
+ * el tiempo indicado. Al final informa, por endpoint, cantidad, errores, throughput y
+ * latencias p50/p99, y las reservas confirmadas por segundo.
+ *
+ * Ejecutar con: mvn -P loadtest verify -Dcarga.args="usuarios=50 segundos=60"
+ * Parámetros (clave=valor): clubes, canchas (por club), jugadores, reservas (historial),
+ * usuarios (virtuales, concurrentes), segundos, calentamiento (segundos), semilla.
+ */
+public class PruebaCarga {
+
+    private static final String PASSWORD = "carga123";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> parametros = parametros(args);
+        int clubes = entero(parametros, "clubes", 20);
+        int canchas = entero(parametros, "canchas", 10);
+        int jugadores = entero(parametros, "jugadores", 500);
+        int reservas = entero(parametros, "reservas", 100_000);
+        int usuarios = entero(parametros, "usuarios", 50);
+        int segundos = entero(parametros, "segundos", 60);
+        int calentamiento = entero(parametros, "calentamiento", 10);
+        long semilla = entero(parametros, "semilla", 42);
+
+        if (reservas > (long) clubes * canchas * 7 * 365) {
+            throw new IllegalArgumentException("Demasiadas reservas para el historial de un año de las canchas generadas");
+        }
+
+        SpringApplication aplicacion = new SpringApplication(ReservappApplication.class);
+        aplicacion.setAdditionalProfiles("loadtest");
+        ConfigurableApplicationContext contexto = aplicacion.run();
+        try {
+            String baseUrl = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+            String secretoWebhook = contexto.getEnvironment().getProperty("stripe.webhook.secret");
+
+            long inicioDatos = System.currentTimeMillis();
+            GeneradorDatos.Datos datos = new GeneradorDatos(contexto.getBean(JdbcTemplate.class),
+                    contexto.getBean(PasswordEncoder.class).encode(PASSWORD), semilla)
+                    .generar(clubes, canchas, jugadores, reservas);
+            System.out.printf("Datos: %d clubes, %d canchas, %d jugadores, %d reservas (%d ms)%n",
+                    clubes, clubes * canchas, jugadores, reservas, System.currentTimeMillis() - inicioDatos);
+
+            ejecutar(baseUrl, secretoWebhook, datos, usuarios, calentamiento, segundos, semilla);
+        } finally {
+            SpringApplication.exit(contexto);
+        }
+    }
+
+    private static void ejecutar(String baseUrl, String secretoWebhook, GeneradorDatos.Datos datos,
+                                 int usuarios, int calentamiento, int segundos, long semilla) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+        // El calentamiento usa sus propias estadísticas, que se descartan
+        if (calentamiento > 0) {
+            correr(http, objectMapper, baseUrl, secretoWebhook, datos, usuarios, calentamiento, semilla,
+                    EscenarioReserva.nuevasEstadisticas(), new AtomicLong(), new AtomicLong());
+        }
+
+        Map<String, EstadisticasEndpoint> estadisticas = EscenarioReserva.nuevasEstadisticas();
+        AtomicLong confirmadas = new AtomicLong();
+        AtomicLong rechazadas = new AtomicLong();
+        long inicio = System.nanoTime();
+        correr(http, objectMapper, baseUrl, secretoWebhook, datos, usuarios, segundos, semilla + 1,
+                estadisticas, confirmadas, rechazadas);
+        double duracion = (System.nanoTime() - inicio) / 1e9;
+
+        informar(estadisticas, duracion, usuarios, confirmadas.get(), rechazadas.get());
+    }
+
+    private static void correr(HttpClient http, ObjectMapper objectMapper, String baseUrl, String secretoWebhook,
+                               GeneradorDatos.Datos datos, int usuarios, int segundos, long semilla,
+                               Map<String, EstadisticasEndpoint> estadisticas,
+                               AtomicLong confirmadas, AtomicLong rechazadas) throws Exception {
+        EscenarioReserva escenario = new EscenarioReserva(http, objectMapper, baseUrl, secretoWebhook,
+                datos, estadisticas, confirmadas, rechazadas);
+        long fin = System.currentTimeMillis() + segundos * 1000L;
+        ExecutorService pool = Executors.newFixedThreadPool(usuarios);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int u = 0; u < usuarios; u++) {
+            String email = datos.jugadores.get(u % datos.jugadores.size());
+            Random random = new Random(semilla * 31 + u);
+            tareas.add(pool.submit(() -> {
+                String token = escenario.login(email, PASSWORD);
+                while (System.currentTimeMillis() < fin) {
+                    escenario.ejecutar(token, random);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    private static void informar(Map<String, EstadisticasEndpoint> estadisticas, double duracion, int usuarios,
+                                 long confirmadas, long rechazadas) {
+        System.out.printf("%nResultados: %d usuarios virtuales, %.1f s%n", usuarios, duracion);
+        System.out.printf("%-55s %9s %8s %9s %9s %9s%n", "Endpoint", "Pedidos", "Errores", "Pedidos/s", "p50 ms", "p99 ms");
+        for (Map.Entry<String, EstadisticasEndpoint> entrada : new TreeMap<>(estadisticas).entrySet()) {
+            EstadisticasEndpoint e = entrada.getValue();
+            System.out.printf("%-55s %9d %8d %9.1f %9.2f %9.2f%n", entrada.getKey(), e.getCantidad(),
+                    e.getErrores(), e.getCantidad() / duracion, e.percentilMs(50), e.percentilMs(99));
+        }
+        System.out.printf("%nReservas confirmadas: %d (%.1f por segundo), rechazadas por turno ocupado: %d%n",
+                confirmadas, confirmadas / duracion, rechazadas);
+    }
+
+    private static Map<String, String> parametros(String[] args) {
+        Map<String, String> parametros = new HashMap<>();
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual > 0) {
+                parametros.put(arg.substring(0, igual), arg.substring(igual + 1));
+            }
+        }
+        return parametros;
+    }
+
+    private static int entero(Map<String, String> parametros, String clave, int defecto) {
+        return parametros.containsKey(clave) ? Integer.parseInt(parametros.get(clave)) : defecto;
+    }
+}
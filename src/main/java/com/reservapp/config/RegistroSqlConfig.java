@@ -0,0 +1,56 @@
+package com.reservapp.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registro de SQL en reemplazo de spring.jpa.show-sql: en lugar de imprimir cada sentencia
+ * por consola, se registra una de cada {@code reservapp.logging.sql.muestreo} en el logger
+ * {@code com.reservapp.sql} (nivel DEBUG). Las consultas lentas las registra Hibernate en
+ * {@code org.hibernate.SQL_SLOW} según {@code LOG_QUERIES_SLOWER_THAN_MS}.
+ */
+@Configuration
+public class RegistroSqlConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer muestreoSql(@Value("${reservapp.logging.sql.muestreo:0}") int muestreo) {
+        return propiedades -> {
+            if (muestreo > 0) {
+                propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, new MuestreoSql(muestreo));
+            }
+        };
+    }
+
+    /**
+     * Registra una de cada N sentencias; no modifica el SQL
+     */
+    static class MuestreoSql implements StatementInspector {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final Logger log = LoggerFactory.getLogger("com.reservapp.sql");
+
+        private final int muestreo;
+        private final AtomicLong sentencias = new AtomicLong();
+
+        MuestreoSql(int muestreo) {
+            this.muestreo = muestreo;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            if (log.isDebugEnabled() && sentencias.incrementAndGet() % muestreo == 0) {
+                log.debug("SQL (1 de cada {}): {}", muestreo, sql);
+            }
+            return sql;
+        }
+    }
+}
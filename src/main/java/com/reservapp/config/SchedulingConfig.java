@@ -0,0 +1,17 @@
+package com.reservapp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Tareas programadas de la aplicación, cada una con su propio hilo del planificador
+ * (spring.task.scheduling.pool.size):
+ * - ProcesadorEventosStripe: aplica los eventos de webhook pendientes
+ * - ExpiradorReservasPendientes: cancela las reservas pendientes vencidas
+ * - CatalogoCanchas: recarga el catálogo de canchas
+ * - IndiceBusquedaClubes: reconstruye el índice de búsqueda de clubes
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,5 +1,7 @@
 package com.reservapp.config;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -29,12 +31,17 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // La petición original ya fue autorizada; el despacho asíncrono solo escribe la respuesta
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/canchas/**").permitAll()
                 .requestMatchers("/api/clubes/**", "/api/reservas/**").permitAll()
                 .requestMatchers("/api/perfil-jugador/**").permitAll()
                 .requestMatchers("/api/favoritos/**").permitAll()
                 .requestMatchers("/api/reservas/**").permitAll()
+                .requestMatchers("/api/pagos/webhook").permitAll()
+                // Actuator escucha en un puerto de gestión aparte (management.server.port)
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
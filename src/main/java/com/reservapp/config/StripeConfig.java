@@ -2,18 +2,47 @@ package com.reservapp.config;
 
 import com.stripe.Stripe;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import jakarta.annotation.PostConstruct;
 
+import java.util.concurrent.ThreadPoolExecutor;
+
 @Configuration
 public class StripeConfig {
 
     @Value("${stripe.api.key}")
     private String stripeApiKey;
 
+    @Value("${reservapp.stripe.cliente.connect-timeout-ms:3000}")
+    private int connectTimeoutMs;
+
+    @Value("${reservapp.stripe.cliente.read-timeout-ms:8000}")
+    private int readTimeoutMs;
+
     @PostConstruct
     public void init() {
         Stripe.apiKey = stripeApiKey;
+        Stripe.setConnectTimeout(connectTimeoutMs);
+        Stripe.setReadTimeout(readTimeoutMs);
+    }
+
+    /**
+     * Pool dedicado a las llamadas HTTP a Stripe, separado de los hilos de Tomcat.
+     * No tiene cola: si todos los hilos están ocupados la llamada se rechaza (bulkhead)
+     * en lugar de acumular espera.
+     */
+    @Bean(name = "stripeClienteExecutor")
+    public ThreadPoolTaskExecutor stripeClienteExecutor(
+            @Value("${reservapp.stripe.cliente.concurrencia-maxima:20}") int concurrenciaMaxima) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrenciaMaxima);
+        executor.setMaxPoolSize(concurrenciaMaxima);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("stripe-cliente-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
     }
-}
\ No newline at end of file
+}
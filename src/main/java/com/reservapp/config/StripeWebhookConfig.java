@@ -0,0 +1,31 @@
+package com.reservapp.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class StripeWebhookConfig {
+
+    /**
+     * Pool acotado que aplica los eventos de webhook de Stripe. Si se llena, el hilo
+     * del planificador procesa la partición él mismo en lugar de descartarla.
+     */
+    @Bean(name = "stripeWebhookExecutor")
+    public ThreadPoolTaskExecutor stripeWebhookExecutor(
+            @Value("${reservapp.stripe.webhook.hilos:4}") int hilos,
+            @Value("${reservapp.stripe.webhook.capacidad-cola:16}") int capacidadCola) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(capacidadCola);
+        executor.setThreadNamePrefix("stripe-webhook-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
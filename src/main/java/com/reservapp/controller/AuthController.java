@@ -16,6 +16,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.reservapp.entity.Usuario;
 import com.reservapp.security.JwtUtil;
+import com.reservapp.security.UsuarioAutenticado;
 import com.reservapp.service.UsuarioService;
 
 import jakarta.validation.Valid;
@@ -106,12 +107,12 @@ public class AuthController {
     }
 
     @GetMapping("/me")
-    public ResponseEntity<?> me(@AuthenticationPrincipal String email) {
-        if (email == null) {
+    public ResponseEntity<?> me(@AuthenticationPrincipal UsuarioAutenticado principal) {
+        if (principal == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success", false, "message", "No autenticado"));
         }
         
-        Optional<Usuario> usuarioOpt = usuarioService.findByEmail(email);
+        Optional<Usuario> usuarioOpt = usuarioService.findByEmail(principal.getEmail());
         if (usuarioOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success", false, "message", "Usuario no encontrado"));
         }
@@ -1,8 +1,9 @@
 package com.reservapp.controller;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -10,11 +11,8 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import com.reservapp.security.UsuarioAutenticado;
 import com.reservapp.service.CalendarioMaestroService;
-import com.reservapp.service.ClubService;
-import com.reservapp.service.UsuarioService;
-import com.reservapp.entity.Club;
-import com.reservapp.entity.Usuario;
 
 @RestController
 @RequestMapping("/api/calendario-maestro")
@@ -23,12 +21,6 @@ public class CalendarioMaestroController {
     @Autowired
     private CalendarioMaestroService calendarioMaestroService;
     
-    @Autowired
-    private ClubService clubService;
-    
-    @Autowired
-    private UsuarioService usuarioService;
-    
     /**
      * Obtiene el calendario maestro completo del club (canchas agrupadas por deporte)
      */
@@ -36,15 +28,11 @@ public class CalendarioMaestroController {
     @PreAuthorize("hasAuthority('CLUB')")
     public ResponseEntity<Map<String, Object>> getCalendarioMaestro(
             @PathVariable Long clubId,
-            @AuthenticationPrincipal String email) {
+            @AuthenticationPrincipal UsuarioAutenticado principal) {
         
         try {
             // Verificar que el club pertenece al usuario autenticado
-            Usuario usuario = usuarioService.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-            
-            Optional<Club> clubUsuario = clubService.obtenerClubPorPropietario(usuario);
-            if (clubUsuario.isEmpty() || !clubUsuario.get().getId().equals(clubId)) {
+            if (!clubId.equals(principal.getClubId())) {
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("error", "No tienes permisos para acceder a este club");
                 return ResponseEntity.status(403).body(errorResponse);
@@ -73,15 +61,11 @@ public class CalendarioMaestroController {
     @PreAuthorize("hasAuthority('CLUB')")
     public ResponseEntity<Map<String, Object>> getConfiguracionesPorDeporte(
             @PathVariable Long clubId,
-            @AuthenticationPrincipal String email) {
+            @AuthenticationPrincipal UsuarioAutenticado principal) {
         
         try {
             // Verificar que el club pertenece al usuario autenticado
-            Usuario usuario = usuarioService.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-            
-            Optional<Club> clubUsuario = clubService.obtenerClubPorPropietario(usuario);
-            if (clubUsuario.isEmpty() || !clubUsuario.get().getId().equals(clubId)) {
+            if (!clubId.equals(principal.getClubId())) {
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("error", "No tienes permisos para acceder a este club");
                 return ResponseEntity.status(403).body(errorResponse);
@@ -110,15 +94,11 @@ public class CalendarioMaestroController {
     @PreAuthorize("hasAuthority('CLUB')")
     public ResponseEntity<Map<String, Object>> getEstadisticasCalendario(
             @PathVariable Long clubId,
-            @AuthenticationPrincipal String email) {
+            @AuthenticationPrincipal UsuarioAutenticado principal) {
         
         try {
             // Verificar que el club pertenece al usuario autenticado
-            Usuario usuario = usuarioService.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-            
-            Optional<Club> clubUsuario = clubService.obtenerClubPorPropietario(usuario);
-            if (clubUsuario.isEmpty() || !clubUsuario.get().getId().equals(clubId)) {
+            if (!clubId.equals(principal.getClubId())) {
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("error", "No tienes permisos para acceder a este club");
                 return ResponseEntity.status(403).body(errorResponse);
@@ -140,4 +120,38 @@ public class CalendarioMaestroController {
             return ResponseEntity.status(500).body(errorResponse);
         }
     }
+    
+    /**
+     * Obtiene la grilla de disponibilidad (libre/ocupado por turno) de todas las canchas
+     * de un club para un rango de días, en una sola llamada
+     */
+    @GetMapping("/club/{clubId}/disponibilidad")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> getDisponibilidadClub(
+            @PathVariable Long clubId,
+            @RequestParam String desde,
+            @RequestParam(defaultValue = "7") int dias) {
+        
+        try {
+            Map<String, Object> disponibilidad = calendarioMaestroService.getDisponibilidadPorClub(
+                clubId, LocalDate.parse(desde), dias);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", disponibilidad);
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "Error al obtener la disponibilidad: " + e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
 }
\ No newline at end of file
@@ -17,6 +17,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.reservapp.dto.CanchaResponseDTO;
+import com.reservapp.dto.CanchaResumenDTO;
 import com.reservapp.dto.CreateCanchaRequest;
 import com.reservapp.dto.UpdateCanchaRequest;
 import com.reservapp.entity.Cancha;
@@ -37,22 +39,22 @@ public class CanchaController {
 
     // Endpoints públicos
     @GetMapping
-    public ResponseEntity<List<Cancha>> getAllCanchas() {
+    public ResponseEntity<List<CanchaResponseDTO>> getAllCanchas() {
         return ResponseEntity.ok(canchaService.getAllCanchas());
     }
 
     @GetMapping("/disponibles")
-    public ResponseEntity<List<Cancha>> getCanchasDisponibles() {
+    public ResponseEntity<List<CanchaResponseDTO>> getCanchasDisponibles() {
         return ResponseEntity.ok(canchaService.getCanchasDisponibles());
     }
 
     @GetMapping("/deporte/{deporte}")
-    public ResponseEntity<List<Cancha>> getCanchasByDeporte(@PathVariable String deporte) {
+    public ResponseEntity<List<CanchaResponseDTO>> getCanchasByDeporte(@PathVariable String deporte) {
         return ResponseEntity.ok(canchaService.getCanchasByDeporte(deporte));
     }
 
     @GetMapping("/deporte/{deporte}/disponibles")
-    public ResponseEntity<List<Cancha>> getCanchasDisponiblesByDeporte(@PathVariable String deporte) {
+    public ResponseEntity<List<CanchaResponseDTO>> getCanchasDisponiblesByDeporte(@PathVariable String deporte) {
         return ResponseEntity.ok(canchaService.getCanchasDisponiblesByDeporte(deporte));
     }
 
@@ -61,23 +63,24 @@ public class CanchaController {
         return ResponseEntity.ok(canchaService.getDeportesDisponibles());
     }
 
+    // Vista resumida; el detalle de cada cancha se obtiene con /{id}
     @GetMapping("/club/{clubId}")
-    public ResponseEntity<List<Cancha>> getCanchasByClub(@PathVariable Long clubId) {
-        return ResponseEntity.ok(canchaService.getCanchasByClub(clubId));
+    public ResponseEntity<List<CanchaResumenDTO>> getCanchasByClub(@PathVariable Long clubId) {
+        return ResponseEntity.ok(canchaService.getResumenCanchasByClub(clubId));
     }
 
     // Endpoints de administración (deben ir antes que /{id})
     @PreAuthorize("hasAuthority('CLUB')")
     @GetMapping("/admin")
-    public ResponseEntity<List<Cancha>> getAllCanchasAdmin() {
+    public ResponseEntity<List<CanchaResponseDTO>> getAllCanchasAdmin() {
         return ResponseEntity.ok(canchaService.getAllCanchas());
     }
 
     @PreAuthorize("hasAuthority('CLUB')")
     @PostMapping("/admin")
-    public ResponseEntity<Cancha> createCanchaAdmin(@Valid @RequestBody CreateCanchaRequest request) {
+    public ResponseEntity<CanchaResponseDTO> createCanchaAdmin(@Valid @RequestBody CreateCanchaRequest request) {
         try {
-            Cancha nuevaCancha = canchaService.createCanchaFromDTO(request);
+            CanchaResponseDTO nuevaCancha = canchaService.createCanchaFromDTO(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(nuevaCancha);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
@@ -86,7 +89,7 @@ public class CanchaController {
 
     @PreAuthorize("hasAuthority('CLUB')")
     @PutMapping("/admin/{id}")
-    public ResponseEntity<Cancha> updateCanchaAdmin(@PathVariable Long id, @Valid @RequestBody UpdateCanchaRequest request) {
+    public ResponseEntity<CanchaResponseDTO> updateCanchaAdmin(@PathVariable Long id, @Valid @RequestBody UpdateCanchaRequest request) {
         return canchaService.updateCanchaFromDTO(id, request)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -103,14 +106,14 @@ public class CanchaController {
 
     // Endpoints con parámetros (deben ir después de los específicos)
     @GetMapping("/{id}")
-    public ResponseEntity<Cancha> getCanchaById(@PathVariable Long id) {
-        return canchaService.getCanchaById(id)
+    public ResponseEntity<CanchaResponseDTO> getCanchaById(@PathVariable Long id) {
+        return canchaService.getCanchaDTOById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PatchMapping("/{id}/toggle-disponibilidad")
-    public ResponseEntity<Cancha> toggleDisponibilidad(@PathVariable Long id) {
+    public ResponseEntity<CanchaResponseDTO> toggleDisponibilidad(@PathVariable Long id) {
         return canchaService.toggleDisponibilidad(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -118,13 +121,13 @@ public class CanchaController {
 
     // Endpoints públicos (mantener compatibilidad)
     @PostMapping
-    public ResponseEntity<Cancha> createCancha(@Valid @RequestBody Cancha cancha) {
-        Cancha nuevaCancha = canchaService.createCancha(cancha);
+    public ResponseEntity<CanchaResponseDTO> createCancha(@Valid @RequestBody Cancha cancha) {
+        CanchaResponseDTO nuevaCancha = canchaService.createCancha(cancha);
         return ResponseEntity.status(HttpStatus.CREATED).body(nuevaCancha);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Cancha> updateCancha(@PathVariable Long id, @Valid @RequestBody Cancha cancha) {
+    public ResponseEntity<CanchaResponseDTO> updateCancha(@PathVariable Long id, @Valid @RequestBody Cancha cancha) {
         return canchaService.updateCancha(id, cancha)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -8,8 +8,7 @@ import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,10 +21,12 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.reservapp.dto.ClubResponseDTO;
+import com.reservapp.dto.ClubResumenDTO;
 import com.reservapp.dto.CreateClubRequest;
 import com.reservapp.dto.UpdateClubRequest;
 import com.reservapp.entity.Club;
 import com.reservapp.entity.Usuario;
+import com.reservapp.security.UsuarioAutenticado;
 import com.reservapp.service.ClubService;
 import com.reservapp.service.UsuarioService;
 
@@ -45,9 +46,9 @@ public class ClubController {
      * Obtener todos los clubes activos
      */
     @GetMapping
-    public ResponseEntity<List<Club>> getClubes() {
+    public ResponseEntity<List<ClubResumenDTO>> getClubes() {
         try {
-            List<Club> clubes = clubService.obtenerClubesActivos();
+            List<ClubResumenDTO> clubes = clubService.obtenerClubesActivos();
             return ResponseEntity.ok(clubes);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -82,7 +83,7 @@ public class ClubController {
             club.setPoliticasCancelacion(request.getPoliticasCancelacion());
             club.setReglasGenerales(request.getReglasGenerales());
 
-            Club clubCreado = clubService.crearClub(club);
+            ClubResponseDTO clubCreado = clubService.crearClub(club);
 
             response.put("success", true);
             response.put("message", "Club creado exitosamente");
@@ -105,22 +106,18 @@ public class ClubController {
      * Obtener club del usuario autenticado
      */
     @GetMapping("/mi-club")
-    public ResponseEntity<Map<String, Object>> getMiClub() {
+    public ResponseEntity<Map<String, Object>> getMiClub(@AuthenticationPrincipal UsuarioAutenticado principal) {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            String email = auth.getName();
-            
-            Usuario usuario = usuarioService.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-
-            Optional<Club> club = clubService.obtenerClubPorPropietario(usuario);
+            // El club del propietario ya viene resuelto en el principal
+            Optional<ClubResponseDTO> club = principal.getClubId() != null
+                ? clubService.obtenerClubDTOPorId(principal.getClubId())
+                : Optional.empty();
             
             if (club.isPresent()) {
-                ClubResponseDTO clubDTO = new ClubResponseDTO(club.get());
                 response.put("success", true);
-                response.put("club", clubDTO);
+                response.put("club", club.get());
                 return ResponseEntity.ok(response);
             } else {
                 response.put("success", false);
@@ -142,7 +139,7 @@ public class ClubController {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            Optional<Club> club = clubService.obtenerClubPorId(id);
+            Optional<ClubResponseDTO> club = clubService.obtenerClubDTOPorId(id);
             
             if (club.isPresent()) {
                 response.put("success", true);
@@ -181,7 +178,7 @@ public class ClubController {
             clubActualizado.setPoliticasCancelacion(request.getPoliticasCancelacion());
             clubActualizado.setReglasGenerales(request.getReglasGenerales());
 
-            Club club = clubService.actualizarClub(id, clubActualizado);
+            ClubResponseDTO club = clubService.actualizarClub(id, clubActualizado);
 
             response.put("success", true);
             response.put("message", "Club actualizado exitosamente");
@@ -212,7 +209,7 @@ public class ClubController {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            Club club = clubService.transferirPropiedad(id, nuevoPropietarioId);
+            ClubResponseDTO club = clubService.transferirPropiedad(id, nuevoPropietarioId);
 
             response.put("success", true);
             response.put("message", "Propiedad transferida exitosamente");
@@ -269,7 +266,7 @@ public class ClubController {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            Club club = clubService.reactivarClub(id);
+            ClubResponseDTO club = clubService.reactivarClub(id);
 
             response.put("success", true);
             response.put("message", "Club reactivado exitosamente");
@@ -289,20 +286,22 @@ public class ClubController {
     }
 
     /**
-     * Buscar clubes por nombre
+     * Buscar clubes por texto libre (q) y/o por nombre, ciudad, deporte y servicio, combinables.
+     * Sin criterios devuelve todos los clubes activos.
      */
     @GetMapping("/buscar")
-    public ResponseEntity<List<Club>> buscarClubes(@RequestParam(required = false) String nombre,
-                                                   @RequestParam(required = false) String ciudad) {
+    public ResponseEntity<List<ClubResumenDTO>> buscarClubes(@RequestParam(required = false) String q,
+                                                   @RequestParam(required = false) String nombre,
+                                                   @RequestParam(required = false) String ciudad,
+                                                   @RequestParam(required = false) String deporte,
+                                                   @RequestParam(required = false) String servicio) {
         try {
-            List<Club> clubes;
+            List<ClubResumenDTO> clubes;
             
-            if (nombre != null && !nombre.trim().isEmpty()) {
-                clubes = clubService.buscarClubsPorNombre(nombre.trim());
-            } else if (ciudad != null && !ciudad.trim().isEmpty()) {
-                clubes = clubService.buscarClubsPorCiudad(ciudad.trim());
-            } else {
+            if (esVacio(q) && esVacio(nombre) && esVacio(ciudad) && esVacio(deporte) && esVacio(servicio)) {
                 clubes = clubService.obtenerClubesActivos();
+            } else {
+                clubes = clubService.buscarClubes(q, nombre, ciudad, deporte, servicio);
             }
             
             return ResponseEntity.ok(clubes);
@@ -331,4 +330,8 @@ public class ClubController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
+
+    private static boolean esVacio(String valor) {
+        return valor == null || valor.trim().isEmpty();
+    }
 }
\ No newline at end of file
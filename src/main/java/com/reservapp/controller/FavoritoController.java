@@ -1,11 +1,12 @@
 package com.reservapp.controller;
 
-import com.reservapp.entity.Favorito;
+import com.reservapp.dto.FavoritoResponseDTO;
 import com.reservapp.service.FavoritoService;
-import com.reservapp.service.UsuarioService;
-import com.reservapp.security.JwtUtil;
+import com.reservapp.security.UsuarioAutenticado;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -19,22 +20,16 @@ public class FavoritoController {
     @Autowired
     private FavoritoService favoritoService;
     
-    @Autowired
-    private UsuarioService usuarioService;
-    
-    @Autowired
-    private JwtUtil jwtUtil;
-    
     /**
      * Obtener favoritos del usuario autenticado
      */
+    @PreAuthorize("isAuthenticated()")
     @GetMapping("/mis-favoritos")
-    public ResponseEntity<?> obtenerMisFavoritos(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> obtenerMisFavoritos(@AuthenticationPrincipal UsuarioAutenticado principal) {
         try {
-            String email = jwtUtil.getEmailFromToken(token.replace("Bearer ", ""));
-            Long usuarioId = usuarioService.getUsuarioIdByEmail(email);
+            Long usuarioId = principal.getUserId();
             
-            List<Favorito> favoritos = favoritoService.obtenerFavoritos(usuarioId);
+            List<FavoritoResponseDTO> favoritos = favoritoService.obtenerFavoritos(usuarioId);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -53,16 +48,16 @@ public class FavoritoController {
     /**
      * Agregar cancha a favoritos
      */
+    @PreAuthorize("isAuthenticated()")
     @PostMapping("/agregar")
-    public ResponseEntity<?> agregarFavorito(@RequestHeader("Authorization") String token,
+    public ResponseEntity<?> agregarFavorito(@AuthenticationPrincipal UsuarioAutenticado principal,
                                             @RequestBody Map<String, Object> request) {
         try {
-            String email = jwtUtil.getEmailFromToken(token.replace("Bearer ", ""));
-            Long usuarioId = usuarioService.getUsuarioIdByEmail(email);
+            Long usuarioId = principal.getUserId();
             Long canchaId = Long.valueOf(request.get("canchaId").toString());
             String notas = (String) request.get("notas");
             
-            Favorito favorito = favoritoService.agregarFavorito(usuarioId, canchaId, notas);
+            FavoritoResponseDTO favorito = favoritoService.agregarFavorito(usuarioId, canchaId, notas);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -81,12 +76,12 @@ public class FavoritoController {
     /**
      * Remover cancha de favoritos
      */
+    @PreAuthorize("isAuthenticated()")
     @DeleteMapping("/remover/{canchaId}")
-    public ResponseEntity<?> removerFavorito(@RequestHeader("Authorization") String token,
+    public ResponseEntity<?> removerFavorito(@AuthenticationPrincipal UsuarioAutenticado principal,
                                             @PathVariable Long canchaId) {
         try {
-            String email = jwtUtil.getEmailFromToken(token.replace("Bearer ", ""));
-            Long usuarioId = usuarioService.getUsuarioIdByEmail(email);
+            Long usuarioId = principal.getUserId();
             
             favoritoService.removerFavorito(usuarioId, canchaId);
             
@@ -106,12 +101,12 @@ public class FavoritoController {
     /**
      * Verificar si una cancha es favorita
      */
+    @PreAuthorize("isAuthenticated()")
     @GetMapping("/verificar/{canchaId}")
-    public ResponseEntity<?> verificarFavorito(@RequestHeader("Authorization") String token,
+    public ResponseEntity<?> verificarFavorito(@AuthenticationPrincipal UsuarioAutenticado principal,
                                               @PathVariable Long canchaId) {
         try {
-            String email = jwtUtil.getEmailFromToken(token.replace("Bearer ", ""));
-            Long usuarioId = usuarioService.getUsuarioIdByEmail(email);
+            Long usuarioId = principal.getUserId();
             
             boolean esFavorito = favoritoService.esFavorito(usuarioId, canchaId);
             
@@ -131,11 +126,11 @@ public class FavoritoController {
     /**
      * Contar favoritos del usuario
      */
+    @PreAuthorize("isAuthenticated()")
     @GetMapping("/contar")
-    public ResponseEntity<?> contarFavoritos(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> contarFavoritos(@AuthenticationPrincipal UsuarioAutenticado principal) {
         try {
-            String email = jwtUtil.getEmailFromToken(token.replace("Bearer ", ""));
-            Long usuarioId = usuarioService.getUsuarioIdByEmail(email);
+            Long usuarioId = principal.getUserId();
             
             Long total = favoritoService.contarFavoritos(usuarioId);
             
@@ -155,16 +150,16 @@ public class FavoritoController {
     /**
      * Actualizar notas de un favorito
      */
+    @PreAuthorize("isAuthenticated()")
     @PutMapping("/actualizar-notas/{canchaId}")
-    public ResponseEntity<?> actualizarNotas(@RequestHeader("Authorization") String token,
+    public ResponseEntity<?> actualizarNotas(@AuthenticationPrincipal UsuarioAutenticado principal,
                                             @PathVariable Long canchaId,
                                             @RequestBody Map<String, Object> request) {
         try {
-            String email = jwtUtil.getEmailFromToken(token.replace("Bearer ", ""));
-            Long usuarioId = usuarioService.getUsuarioIdByEmail(email);
+            Long usuarioId = principal.getUserId();
             String notas = (String) request.get("notas");
             
-            Favorito favorito = favoritoService.actualizarNotas(usuarioId, canchaId, notas);
+            FavoritoResponseDTO favorito = favoritoService.actualizarNotas(usuarioId, canchaId, notas);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -1,11 +1,12 @@
 package com.reservapp.controller;
 
 import com.reservapp.entity.Reserva;
+import com.reservapp.exception.StripeNoDisponibleException;
 import com.reservapp.repository.ReservaRepository;
 import com.reservapp.service.StripeService;
+import com.reservapp.service.WebhookStripeService;
+import com.stripe.exception.SignatureVerificationException;
 import com.stripe.exception.StripeException;
-import com.stripe.model.PaymentIntent;
-import com.stripe.model.checkout.Session;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,6 +14,8 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/pagos")
@@ -24,29 +27,27 @@ public class PagoController {
     @Autowired
     private ReservaRepository reservaRepository;
 
+    @Autowired
+    private WebhookStripeService webhookStripeService;
+
     /**
      * Crea un Payment Intent para una reserva
      */
     @PostMapping("/create-payment-intent")
-    public ResponseEntity<?> createPaymentIntent(@RequestBody Map<String, Object> request) {
+    public CompletableFuture<ResponseEntity<?>> createPaymentIntent(@RequestBody Map<String, Object> request) {
         try {
             Long reservaId = Long.valueOf(request.get("reservaId").toString());
             
-            Reserva reserva = reservaRepository.findById(reservaId)
+            Reserva reserva = reservaRepository.findConCanchaById(reservaId)
                     .orElseThrow(() -> new RuntimeException("Reserva no encontrada"));
 
-            PaymentIntent paymentIntent = stripeService.createPaymentIntent(reserva);
+            return stripeService.createPaymentIntent(reserva)
+                    .<ResponseEntity<?>>thenApply(paymentIntent ->
+                            ResponseEntity.ok(stripeService.createPaymentResponse(paymentIntent)))
+                    .exceptionally(e -> respuestaError(e, "Error al crear el pago: "));
             
-            return ResponseEntity.ok(stripeService.createPaymentResponse(paymentIntent));
-            
-        } catch (StripeException e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Error al crear el pago: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         } catch (Exception e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Error interno: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            return CompletableFuture.completedFuture(respuestaError(e, "Error al crear el pago: "));
         }
     }
 
@@ -54,32 +55,27 @@ public class PagoController {
      * Crea una sesión de Checkout
      */
     @PostMapping("/create-checkout-session")
-    public ResponseEntity<?> createCheckoutSession(@RequestBody Map<String, Object> request) {
+    public CompletableFuture<ResponseEntity<?>> createCheckoutSession(@RequestBody Map<String, Object> request) {
         try {
             Long reservaId = Long.valueOf(request.get("reservaId").toString());
             String successUrl = request.get("successUrl").toString();
             String cancelUrl = request.get("cancelUrl").toString();
             
-            Reserva reserva = reservaRepository.findById(reservaId)
+            Reserva reserva = reservaRepository.findConCanchaById(reservaId)
                     .orElseThrow(() -> new RuntimeException("Reserva no encontrada"));
 
-            Session session = stripeService.createCheckoutSession(reserva, successUrl, cancelUrl);
+            return stripeService.createCheckoutSession(reserva, successUrl, cancelUrl)
+                    .<ResponseEntity<?>>thenApply(session -> {
+                        Map<String, Object> response = new HashMap<>();
+                        response.put("sessionId", session.getId());
+                        response.put("url", session.getUrl());
+                        response.put("publishableKey", stripeService.getPublishableKey());
+                        return ResponseEntity.ok(response);
+                    })
+                    .exceptionally(e -> respuestaError(e, "Error al crear la sesión de pago: "));
             
-            Map<String, Object> response = new HashMap<>();
-            response.put("sessionId", session.getId());
-            response.put("url", session.getUrl());
-            response.put("publishableKey", stripeService.getPublishableKey());
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (StripeException e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Error al crear la sesión de pago: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         } catch (Exception e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Error interno: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            return CompletableFuture.completedFuture(respuestaError(e, "Error al crear la sesión de pago: "));
         }
     }
 
@@ -87,54 +83,50 @@ public class PagoController {
      * Confirma el pago después de completar el Payment Intent
      */
     @PostMapping("/confirm-payment")
-    public ResponseEntity<?> confirmPayment(@RequestBody Map<String, String> request) {
-        try {
-            String paymentIntentId = request.get("paymentIntentId");
-            
-            stripeService.confirmarPago(paymentIntentId);
-            
-            Map<String, String> response = new HashMap<>();
-            response.put("status", "success");
-            response.put("message", "Pago confirmado exitosamente");
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (StripeException e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Error al confirmar el pago: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-        } catch (Exception e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Error interno: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
-        }
+    public CompletableFuture<ResponseEntity<?>> confirmPayment(@RequestBody Map<String, String> request) {
+        String paymentIntentId = request.get("paymentIntentId");
+
+        return stripeService.confirmarPago(paymentIntentId)
+                .<ResponseEntity<?>>thenApply(sinValor -> pagoConfirmado())
+                .exceptionally(e -> respuestaError(e, "Error al confirmar el pago: "));
     }
 
     /**
      * Confirma el pago desde una sesión de checkout
      */
     @PostMapping("/confirm-checkout")
-    public ResponseEntity<?> confirmCheckout(@RequestBody Map<String, String> request) {
-        try {
-            String sessionId = request.get("sessionId");
-            
-            stripeService.confirmarPagoDesdeSession(sessionId);
-            
-            Map<String, String> response = new HashMap<>();
-            response.put("status", "success");
-            response.put("message", "Pago confirmado exitosamente");
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (StripeException e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Error al confirmar el pago: " + e.getMessage());
+    public CompletableFuture<ResponseEntity<?>> confirmCheckout(@RequestBody Map<String, String> request) {
+        String sessionId = request.get("sessionId");
+
+        return stripeService.confirmarPagoDesdeSession(sessionId)
+                .<ResponseEntity<?>>thenApply(sinValor -> pagoConfirmado())
+                .exceptionally(e -> respuestaError(e, "Error al confirmar el pago: "));
+    }
+
+    private ResponseEntity<?> pagoConfirmado() {
+        Map<String, String> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("message", "Pago confirmado exitosamente");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Traduce el error de una llamada a Stripe: 503 si Stripe no está disponible,
+     * 400 si Stripe rechazó la operación y 500 en cualquier otro caso
+     */
+    private ResponseEntity<?> respuestaError(Throwable e, String mensajeStripe) {
+        Throwable causa = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        Map<String, String> error = new HashMap<>();
+        if (causa instanceof StripeNoDisponibleException) {
+            error.put("error", causa.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+        }
+        if (causa instanceof StripeException) {
+            error.put("error", mensajeStripe + causa.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
-        } catch (Exception e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Error interno: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
+        error.put("error", "Error interno: " + causa.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
 
     /**
@@ -148,13 +140,17 @@ public class PagoController {
     }
 
     /**
-     * Webhook para recibir eventos de Stripe
+     * Webhook para recibir eventos de Stripe: verifica la firma y encola el evento.
+     * Los reenvíos de un evento ya recibido se responden con 200 sin volver a encolarlo.
      */
     @PostMapping("/webhook")
     public ResponseEntity<String> handleStripeWebhook(@RequestBody String payload, 
                                                      @RequestHeader("Stripe-Signature") String sigHeader) {
-        // TODO: Implementar verificación de webhook y manejo de eventos
-        // Por ahora retornamos 200 para evitar que Stripe reintente
-        return ResponseEntity.ok("Webhook received");
+        try {
+            boolean nuevo = webhookStripeService.recibirEvento(payload, sigHeader);
+            return ResponseEntity.ok(nuevo ? "Webhook received" : "Webhook already received");
+        } catch (SignatureVerificationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Firma de webhook inválida");
+        }
     }
 }
\ No newline at end of file
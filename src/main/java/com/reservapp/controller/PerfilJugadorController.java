@@ -7,20 +7,21 @@ import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.reservapp.dto.PerfilJugadorResponseDTO;
 import com.reservapp.entity.PerfilJugador;
-import com.reservapp.security.JwtUtil;
+import com.reservapp.security.UsuarioAutenticado;
 import com.reservapp.service.PerfilJugadorService;
-import com.reservapp.service.UsuarioService;
 
 @RestController
 @RequestMapping("/api/perfil-jugador")
@@ -29,20 +30,15 @@ public class PerfilJugadorController {
     @Autowired
     private PerfilJugadorService perfilJugadorService;
 
-    @Autowired
-    private UsuarioService usuarioService;
-
-    @Autowired
-    private JwtUtil jwtUtil;
-
     /**
      * Obtener perfil del jugador actual
      */
+    @PreAuthorize("isAuthenticated()")
     @GetMapping("/mi-perfil")
-    public ResponseEntity<?> obtenerMiPerfil(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> obtenerMiPerfil(@AuthenticationPrincipal UsuarioAutenticado principal) {
         try {
-            String email = jwtUtil.getEmailFromToken(token.replace("Bearer ", ""));
-            Optional<PerfilJugador> perfil = perfilJugadorService.obtenerPerfilPorEmail(email);
+            String email = principal.getEmail();
+            Optional<PerfilJugadorResponseDTO> perfil = perfilJugadorService.obtenerPerfilPorEmail(email);
             
             Map<String, Object> response = new HashMap<>();
             if (perfil.isPresent()) {
@@ -65,14 +61,14 @@ public class PerfilJugadorController {
     /**
      * Crear o actualizar perfil
      */
+    @PreAuthorize("isAuthenticated()")
     @PostMapping("/guardar")
-    public ResponseEntity<?> guardarPerfil(@RequestHeader("Authorization") String token, 
+    public ResponseEntity<?> guardarPerfil(@AuthenticationPrincipal UsuarioAutenticado principal, 
                                           @RequestBody PerfilJugador perfilData) {
         try {
-            String email = jwtUtil.getEmailFromToken(token.replace("Bearer ", ""));
-            Long usuarioId = usuarioService.getUsuarioIdByEmail(email);
+            Long usuarioId = principal.getUserId();
             
-            PerfilJugador perfil = perfilJugadorService.crearOActualizarPerfil(usuarioId, perfilData);
+            PerfilJugadorResponseDTO perfil = perfilJugadorService.crearOActualizarPerfil(usuarioId, perfilData);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -91,12 +87,12 @@ public class PerfilJugadorController {
     /**
      * Agregar deporte al perfil
      */
+    @PreAuthorize("isAuthenticated()")
     @PostMapping("/deportes/agregar")
-    public ResponseEntity<?> agregarDeporte(@RequestHeader("Authorization") String token,
+    public ResponseEntity<?> agregarDeporte(@AuthenticationPrincipal UsuarioAutenticado principal,
                                            @RequestBody Map<String, Object> request) {
         try {
-            String email = jwtUtil.getEmailFromToken(token.replace("Bearer ", ""));
-            Long usuarioId = usuarioService.getUsuarioIdByEmail(email);
+            Long usuarioId = principal.getUserId();
             
             String deporte = (String) request.get("deporte");
             Double puntuacion = Double.valueOf(request.get("puntuacion").toString());
@@ -104,7 +100,7 @@ public class PerfilJugadorController {
             Integer anosExperiencia = Integer.valueOf(request.get("anosExperiencia").toString());
             String nivel = (String) request.get("nivel");
             
-            PerfilJugador perfil = perfilJugadorService.agregarDeporte(usuarioId, deporte, puntuacion, 
+            PerfilJugadorResponseDTO perfil = perfilJugadorService.agregarDeporte(usuarioId, deporte, puntuacion, 
                                                                       posicion, anosExperiencia, nivel);
             
             Map<String, Object> response = new HashMap<>();
@@ -124,16 +120,16 @@ public class PerfilJugadorController {
     /**
      * Actualizar puntuación de un deporte
      */
+    @PreAuthorize("isAuthenticated()")
     @PutMapping("/deportes/{deporte}/puntuacion")
-    public ResponseEntity<?> actualizarPuntuacionDeporte(@RequestHeader("Authorization") String token,
+    public ResponseEntity<?> actualizarPuntuacionDeporte(@AuthenticationPrincipal UsuarioAutenticado principal,
                                                         @PathVariable String deporte,
                                                         @RequestBody Map<String, Object> request) {
         try {
-            String email = jwtUtil.getEmailFromToken(token.replace("Bearer ", ""));
-            Long usuarioId = usuarioService.getUsuarioIdByEmail(email);
+            Long usuarioId = principal.getUserId();
             
             Double nuevaPuntuacion = Double.valueOf(request.get("puntuacion").toString());
-            PerfilJugador perfil = perfilJugadorService.actualizarPuntuacionDeporte(usuarioId, deporte, nuevaPuntuacion);
+            PerfilJugadorResponseDTO perfil = perfilJugadorService.actualizarPuntuacionDeporte(usuarioId, deporte, nuevaPuntuacion);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -152,13 +148,13 @@ public class PerfilJugadorController {
     /**
      * Actualizar deporte completo
      */
+    @PreAuthorize("isAuthenticated()")
     @PutMapping("/deportes/{deporte}")
-    public ResponseEntity<?> actualizarDeporte(@RequestHeader("Authorization") String token,
+    public ResponseEntity<?> actualizarDeporte(@AuthenticationPrincipal UsuarioAutenticado principal,
                                               @PathVariable String deporte,
                                               @RequestBody Map<String, Object> request) {
         try {
-            String email = jwtUtil.getEmailFromToken(token.replace("Bearer ", ""));
-            Long usuarioId = usuarioService.getUsuarioIdByEmail(email);
+            Long usuarioId = principal.getUserId();
             
             String nuevoDeporte = (String) request.get("deporte");
             Double puntuacion = Double.valueOf(request.get("puntuacion").toString());
@@ -166,7 +162,7 @@ public class PerfilJugadorController {
             Integer anosExperiencia = Integer.valueOf(request.get("anosExperiencia").toString());
             String nivel = (String) request.get("nivel");
             
-            PerfilJugador perfil = perfilJugadorService.actualizarDeporte(
+            PerfilJugadorResponseDTO perfil = perfilJugadorService.actualizarDeporte(
                 usuarioId, deporte, nuevoDeporte, puntuacion, posicion, anosExperiencia, nivel);
             
             Map<String, Object> response = new HashMap<>();
@@ -186,14 +182,14 @@ public class PerfilJugadorController {
     /**
      * Eliminar deporte
      */
+    @PreAuthorize("isAuthenticated()")
     @DeleteMapping("/deportes/{deporte}")
-    public ResponseEntity<?> eliminarDeporte(@RequestHeader("Authorization") String token,
+    public ResponseEntity<?> eliminarDeporte(@AuthenticationPrincipal UsuarioAutenticado principal,
                                             @PathVariable String deporte) {
         try {
-            String email = jwtUtil.getEmailFromToken(token.replace("Bearer ", ""));
-            Long usuarioId = usuarioService.getUsuarioIdByEmail(email);
+            Long usuarioId = principal.getUserId();
             
-            PerfilJugador perfil = perfilJugadorService.eliminarDeporte(usuarioId, deporte);
+            PerfilJugadorResponseDTO perfil = perfilJugadorService.eliminarDeporte(usuarioId, deporte);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -212,15 +208,15 @@ public class PerfilJugadorController {
     /**
      * Agregar adjetivo al perfil
      */
+    @PreAuthorize("isAuthenticated()")
     @PostMapping("/adjetivos/agregar")
-    public ResponseEntity<?> agregarAdjetivo(@RequestHeader("Authorization") String token,
+    public ResponseEntity<?> agregarAdjetivo(@AuthenticationPrincipal UsuarioAutenticado principal,
                                             @RequestBody Map<String, Object> request) {
         try {
-            String email = jwtUtil.getEmailFromToken(token.replace("Bearer ", ""));
-            Long usuarioId = usuarioService.getUsuarioIdByEmail(email);
+            Long usuarioId = principal.getUserId();
             
             String adjetivo = (String) request.get("adjetivo");
-            PerfilJugador perfil = perfilJugadorService.agregarAdjetivo(usuarioId, adjetivo);
+            PerfilJugadorResponseDTO perfil = perfilJugadorService.agregarAdjetivo(usuarioId, adjetivo);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -239,14 +235,14 @@ public class PerfilJugadorController {
     /**
      * Remover adjetivo del perfil
      */
+    @PreAuthorize("isAuthenticated()")
     @DeleteMapping("/adjetivos/{adjetivo}")
-    public ResponseEntity<?> removerAdjetivo(@RequestHeader("Authorization") String token,
+    public ResponseEntity<?> removerAdjetivo(@AuthenticationPrincipal UsuarioAutenticado principal,
                                             @PathVariable String adjetivo) {
         try {
-            String email = jwtUtil.getEmailFromToken(token.replace("Bearer ", ""));
-            Long usuarioId = usuarioService.getUsuarioIdByEmail(email);
+            Long usuarioId = principal.getUserId();
             
-            PerfilJugador perfil = perfilJugadorService.removerAdjetivo(usuarioId, adjetivo);
+            PerfilJugadorResponseDTO perfil = perfilJugadorService.removerAdjetivo(usuarioId, adjetivo);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -268,7 +264,7 @@ public class PerfilJugadorController {
     @GetMapping("/buscar/deporte/{deporte}")
     public ResponseEntity<?> buscarPorDeporte(@PathVariable String deporte) {
         try {
-            List<PerfilJugador> jugadores = perfilJugadorService.buscarPorDeporte(deporte);
+            List<PerfilJugadorResponseDTO> jugadores = perfilJugadorService.buscarPorDeporte(deporte);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -290,7 +286,7 @@ public class PerfilJugadorController {
     @GetMapping("/buscar/adjetivo/{adjetivo}")
     public ResponseEntity<?> buscarPorAdjetivo(@PathVariable String adjetivo) {
         try {
-            List<PerfilJugador> jugadores = perfilJugadorService.buscarPorAdjetivo(adjetivo);
+            List<PerfilJugadorResponseDTO> jugadores = perfilJugadorService.buscarPorAdjetivo(adjetivo);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -312,7 +308,7 @@ public class PerfilJugadorController {
     @GetMapping("/top/rating")
     public ResponseEntity<?> obtenerTopJugadoresPorRating() {
         try {
-            List<PerfilJugador> jugadores = perfilJugadorService.obtenerTopJugadoresPorRating();
+            List<PerfilJugadorResponseDTO> jugadores = perfilJugadorService.obtenerTopJugadoresPorRating();
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -1,24 +1,24 @@
 package com.reservapp.controller;
 
+import com.reservapp.dto.PaginaReservas;
+import com.reservapp.dto.ReservaAdminDTO;
+import com.reservapp.dto.ReservaJugadorDTO;
 import com.reservapp.entity.Reserva;
+import com.reservapp.security.UsuarioAutenticado;
 import com.reservapp.service.ReservaService;
 import com.reservapp.service.StripeService;
-import com.reservapp.service.UsuarioService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/reservas")
@@ -30,9 +30,6 @@ public class ReservaController {
     @Autowired
     private StripeService stripeService;
 
-    @Autowired
-    private UsuarioService usuarioService;
-
     // DTOs para las peticiones
     public static class CreateReservaRequest {
         private Long canchaId;
@@ -49,55 +46,38 @@ public class ReservaController {
     }
 
     /**
-     * Obtiene las reservas del usuario autenticado
-     */
-    @PreAuthorize("isAuthenticated()")
-    @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getReservas() {
-        try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            String email = auth.getName();
-            
-            Long usuarioId = usuarioService.getUsuarioIdByEmail(email);
-            
-            List<Reserva> reservas = reservaService.getReservasByUsuario(usuarioId);
-            
-            List<Map<String, Object>> response = reservas.stream()
-                    .map(this::convertirReservaAMap)
-                    .collect(Collectors.toList());
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
-    }
-
-    /**
-     * Obtiene las reservas del usuario autenticado (endpoint específico)
+     * Obtiene las reservas del usuario autenticado (endpoint específico), paginadas por cursor.
+     * Filtros opcionales: estado y rango de fechas (yyyy-MM-dd) sobre el inicio de la reserva
      */
     @PreAuthorize("isAuthenticated()")
     @GetMapping("/mis-reservas")
-    public ResponseEntity<Map<String, Object>> getMisReservas() {
+    public ResponseEntity<Map<String, Object>> getMisReservas(
+            @AuthenticationPrincipal UsuarioAutenticado principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            String email = auth.getName();
-            
-            Long usuarioId = usuarioService.getUsuarioIdByEmail(email);
+            Long usuarioId = principal.getUserId();
             
-            List<Reserva> reservas = reservaService.getReservasByUsuario(usuarioId);
-            
-            List<Map<String, Object>> reservasResponse = reservas.stream()
-                    .map(this::convertirReservaAMap)
-                    .collect(Collectors.toList());
+            PaginaReservas<ReservaJugadorDTO> pagina = reservaService.getPaginaReservasJugador(
+                usuarioId, cursor, limite, estado, desde, hasta);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("reservas", reservasResponse);
-            response.put("total", reservasResponse.size());
+            response.put("reservas", pagina.getReservas());
+            response.put("total", pagina.getReservas().size());
+            response.put("siguienteCursor", pagina.getSiguienteCursor());
+            response.put("hayMas", pagina.isHayMas());
             
             return ResponseEntity.ok(response);
             
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
             response.put("success", false);
@@ -111,12 +91,10 @@ public class ReservaController {
      */
     @PreAuthorize("isAuthenticated()")
     @PostMapping
-    public ResponseEntity<Map<String, Object>> createReserva(@RequestBody CreateReservaRequest request) {
+    public ResponseEntity<Map<String, Object>> createReserva(@RequestBody CreateReservaRequest request,
+                                                             @AuthenticationPrincipal UsuarioAutenticado principal) {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            String email = auth.getName();
-            
-            Long usuarioId = usuarioService.getUsuarioIdByEmail(email);
+            Long usuarioId = principal.getUserId();
             
             // Parsear las fechas
             LocalDateTime fechaInicio = LocalDateTime.parse(request.getFechaInicio());
@@ -128,7 +106,7 @@ public class ReservaController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Reserva creada exitosamente. Procede al pago.");
-            response.put("reserva", convertirReservaAMap(reserva));
+            response.put("reserva", ReservaJugadorDTO.desde(reserva));
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
             
@@ -147,12 +125,12 @@ public class ReservaController {
     @GetMapping("/{id}")
     public ResponseEntity<Map<String, Object>> getReservaById(@PathVariable Long id) {
         try {
-            Reserva reserva = reservaService.getReservaById(id)
+            ReservaJugadorDTO reserva = reservaService.getReservaJugadorById(id)
                     .orElseThrow(() -> new RuntimeException("Reserva no encontrada"));
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("reserva", convertirReservaAMap(reserva));
+            response.put("reserva", reserva);
             
             return ResponseEntity.ok(response);
             
@@ -169,12 +147,10 @@ public class ReservaController {
      */
     @PreAuthorize("isAuthenticated()")
     @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> cancelarReserva(@PathVariable Long id) {
+    public ResponseEntity<Map<String, Object>> cancelarReserva(@PathVariable Long id,
+                                                               @AuthenticationPrincipal UsuarioAutenticado principal) {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            String email = auth.getName();
-            
-            Long usuarioId = usuarioService.getUsuarioIdByEmail(email);
+            Long usuarioId = principal.getUserId();
             
             reservaService.cancelarReserva(id, usuarioId);
             
@@ -239,19 +215,20 @@ public class ReservaController {
     }
 
     /**
-     * Obtiene todas las reservas del club del administrador autenticado
+     * Obtiene las reservas del club del administrador autenticado, paginadas por cursor
      */
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/admin/todas")
-    public ResponseEntity<Map<String, Object>> getAllReservasAdmin() {
+    public ResponseEntity<Map<String, Object>> getAllReservasAdmin(
+            @AuthenticationPrincipal UsuarioAutenticado principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            String email = auth.getName();
-            
-            Long usuarioId = usuarioService.getUsuarioIdByEmail(email);
-            
-            // Obtener el club del administrador
-            Long clubId = usuarioService.getClubIdByUsuarioId(usuarioId);
+            // Club del administrador, ya resuelto en el principal
+            Long clubId = principal.getClubId();
             if (clubId == null) {
                 Map<String, Object> error = new HashMap<>();
                 error.put("success", false);
@@ -259,19 +236,23 @@ public class ReservaController {
                 return ResponseEntity.badRequest().body(error);
             }
             
-            List<Reserva> reservas = reservaService.getReservasByClub(clubId);
-            
-            List<Map<String, Object>> reservasData = reservas.stream()
-                    .map(this::convertirReservaAMapAdmin)
-                    .collect(Collectors.toList());
+            PaginaReservas<ReservaAdminDTO> pagina = reservaService.getPaginaReservasAdminPorClub(
+                clubId, cursor, limite, estado, desde, hasta);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("data", reservasData);
-            response.put("total", reservasData.size());
+            response.put("data", pagina.getReservas());
+            response.put("total", pagina.getReservas().size());
+            response.put("siguienteCursor", pagina.getSiguienteCursor());
+            response.put("hayMas", pagina.isHayMas());
             
             return ResponseEntity.ok(response);
             
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
         } catch (Exception e) {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
@@ -308,83 +289,4 @@ public class ReservaController {
             return ResponseEntity.badRequest().body(error);
         }
     }
-
-    /**
-     * Convierte una entidad Reserva a Map para la respuesta JSON
-     */
-    private Map<String, Object> convertirReservaAMap(Reserva reserva) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", reserva.getId());
-        map.put("canchaId", reserva.getCancha().getId());
-        map.put("canchaNombre", reserva.getCancha().getNombre());
-        map.put("fechaInicio", reserva.getFechaHoraInicio().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        map.put("fechaFin", reserva.getFechaHoraFin().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        map.put("montoTotal", reserva.getMontoTotal());
-        map.put("estado", reserva.getEstado().toString());
-        map.put("estadoPago", reserva.getEstadoPago().toString());
-        map.put("fechaCreacion", reserva.getFechaCreacion().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        map.put("stripePaymentIntentId", reserva.getStripePaymentIntentId());
-        map.put("stripeSessionId", reserva.getStripeSessionId());
-        
-        // Información del usuario
-        map.put("usuarioNombre", reserva.getUsuario().getNombre());
-        map.put("usuarioEmail", reserva.getUsuario().getEmail());
-        
-        // Información de la cancha
-        map.put("canchaDeporte", reserva.getCancha().getDeporte());
-        map.put("canchaUbicacion", reserva.getCancha().getUbicacion());
-        map.put("canchaPrecioPorHora", reserva.getCancha().getPrecioPorHora());
-        
-        return map;
-    }
-
-    /**
-     * Convierte una entidad Reserva a Map para administradores con información adicional
-     */
-    private Map<String, Object> convertirReservaAMapAdmin(Reserva reserva) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", reserva.getId());
-        
-        // Información del jugador
-        map.put("jugador", reserva.getUsuario().getNombre());
-        map.put("email", reserva.getUsuario().getEmail());
-        map.put("telefono", reserva.getUsuario().getTelefono() != null ? reserva.getUsuario().getTelefono() : "");
-        
-        // Información de la cancha
-        map.put("cancha", reserva.getCancha().getNombre());
-        map.put("canchaId", reserva.getCancha().getId());
-        
-        // Información de fecha y hora
-        LocalDateTime inicio = reserva.getFechaHoraInicio();
-        LocalDateTime fin = reserva.getFechaHoraFin();
-        map.put("fecha", inicio.toLocalDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-        map.put("horaInicio", inicio.toLocalTime().format(DateTimeFormatter.ofPattern("HH:mm")));
-        map.put("horaFin", fin.toLocalTime().format(DateTimeFormatter.ofPattern("HH:mm")));
-        
-        // Calcular duración en minutos
-        long duracionMinutos = ChronoUnit.MINUTES.between(inicio, fin);
-        map.put("duracion", duracionMinutos);
-        
-        // Información financiera
-        map.put("precio", reserva.getMontoTotal());
-        
-        // Estado
-        String estado = reserva.getEstado().toString().toLowerCase();
-        map.put("estado", estado);
-        
-        // Fecha de reserva (cuándo se hizo la reserva)
-        map.put("fechaReserva", reserva.getFechaCreacion().toLocalDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-        
-        // Método de pago (basado en si tiene stripe info)
-        String metodoPago = "Efectivo";
-        if (reserva.getStripePaymentIntentId() != null || reserva.getStripeSessionId() != null) {
-            metodoPago = "Tarjeta de crédito";
-        }
-        map.put("metodoPago", metodoPago);
-        
-        // Observaciones (por ahora vacío, se puede agregar campo en el futuro)
-        map.put("observaciones", "");
-        
-        return map;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.reservapp.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.reservapp.entity.Cancha;
+
+/**
+ * Vista de una cancha para las respuestas de la API.
+ * Se construye dentro de la transacción que la carga (copia las imágenes), así se puede
+ * serializar sin sesión de JPA abierta.
+ */
+public class CanchaResponseDTO {
+    private final Long id;
+    private final String nombre;
+    private final String descripcion;
+    private final String deporte;
+    private final String ubicacion;
+    private final Double precioPorHora;
+    private final String horario;
+    private final List<String> imagenes;
+    private final Boolean disponible;
+    private final Long clubId;
+
+    public CanchaResponseDTO(Cancha cancha) {
+        this.id = cancha.getId();
+        this.nombre = cancha.getNombre();
+        this.descripcion = cancha.getDescripcion();
+        this.deporte = cancha.getDeporte();
+        this.ubicacion = cancha.getUbicacion();
+        this.precioPorHora = cancha.getPrecioPorHora();
+        this.horario = cancha.getHorario();
+        this.imagenes = cancha.getImagenes() != null
+                ? Collections.unmodifiableList(new ArrayList<>(cancha.getImagenes()))
+                : null;
+        this.disponible = cancha.getDisponible();
+        // El ID de un proxy perezoso se lee sin inicializarlo
+        this.clubId = cancha.getClub() != null ? cancha.getClub().getId() : null;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getNombre() { return nombre; }
+    public String getDescripcion() { return descripcion; }
+    public String getDeporte() { return deporte; }
+    public String getUbicacion() { return ubicacion; }
+    public Double getPrecioPorHora() { return precioPorHora; }
+    public String getHorario() { return horario; }
+    public List<String> getImagenes() { return imagenes; }
+    public Boolean getDisponible() { return disponible; }
+    public Long getClubId() { return clubId; }
+}
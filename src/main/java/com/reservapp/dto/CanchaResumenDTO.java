@@ -0,0 +1,39 @@
+package com.reservapp.dto;
+
+/**
+ * Vista resumida de una cancha para los listados: sin descripción y con una sola imagen
+ * como miniatura. El detalle completo se obtiene con {@code GET /api/canchas/{id}}.
+ */
+public class CanchaResumenDTO {
+    private final Long id;
+    private final String nombre;
+    private final String deporte;
+    private final String ubicacion;
+    private final Double precioPorHora;
+    private final String imagen;
+    private final Boolean disponible;
+    private final Long clubId;
+
+    public CanchaResumenDTO(CanchaResponseDTO cancha) {
+        this.id = cancha.getId();
+        this.nombre = cancha.getNombre();
+        this.deporte = cancha.getDeporte();
+        this.ubicacion = cancha.getUbicacion();
+        this.precioPorHora = cancha.getPrecioPorHora();
+        this.imagen = cancha.getImagenes() != null && !cancha.getImagenes().isEmpty()
+                ? cancha.getImagenes().get(0)
+                : null;
+        this.disponible = cancha.getDisponible();
+        this.clubId = cancha.getClubId();
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getNombre() { return nombre; }
+    public String getDeporte() { return deporte; }
+    public String getUbicacion() { return ubicacion; }
+    public Double getPrecioPorHora() { return precioPorHora; }
+    public String getImagen() { return imagen; }
+    public Boolean getDisponible() { return disponible; }
+    public Long getClubId() { return clubId; }
+}
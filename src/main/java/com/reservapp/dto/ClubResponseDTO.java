@@ -1,6 +1,7 @@
 package com.reservapp.dto;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import com.reservapp.entity.Club;
@@ -35,7 +36,8 @@ public class ClubResponseDTO {
         this.email = club.getEmail();
         this.sitioWeb = club.getSitioWeb();
         this.horarioAtencion = club.getHorarioAtencion();
-        this.servicios = club.getServicios();
+        // Copia la colección perezosa: el DTO se serializa fuera de la transacción
+        this.servicios = club.getServicios() != null ? new ArrayList<>(club.getServicios()) : null;
         this.politicasCancelacion = club.getPoliticasCancelacion();
         this.reglasGenerales = club.getReglasGenerales();
         this.activo = club.getActivo();
@@ -0,0 +1,35 @@
+package com.reservapp.dto;
+
+import java.util.List;
+
+/**
+ * Vista resumida de un club para los listados y la búsqueda.
+ * Solo lleva columnas cortas y datos agregados de sus canchas (deportes, precio mínimo y una
+ * miniatura); el detalle completo se obtiene con {@code GET /api/clubes/{id}}.
+ */
+public class ClubResumenDTO {
+    private final Long id;
+    private final String nombre;
+    private final String direccion;
+    private final List<String> deportes;
+    private final Double precioMinimo;
+    private final String imagen;
+
+    public ClubResumenDTO(Long id, String nombre, String direccion, List<String> deportes,
+                          Double precioMinimo, String imagen) {
+        this.id = id;
+        this.nombre = nombre;
+        this.direccion = direccion;
+        this.deportes = List.copyOf(deportes);
+        this.precioMinimo = precioMinimo;
+        this.imagen = imagen;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getNombre() { return nombre; }
+    public String getDireccion() { return direccion; }
+    public List<String> getDeportes() { return deportes; }
+    public Double getPrecioMinimo() { return precioMinimo; }
+    public String getImagen() { return imagen; }
+}
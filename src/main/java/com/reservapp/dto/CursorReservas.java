@@ -0,0 +1,48 @@
+package com.reservapp.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición dentro de un listado de reservas ordenado por (fechaCreacion DESC, id DESC).
+ * Se expone al cliente como un texto opaco en Base64 URL-safe.
+ */
+public final class CursorReservas {
+    private final LocalDateTime fechaCreacion;
+    private final Long id;
+
+    public CursorReservas(LocalDateTime fechaCreacion, Long id) {
+        this.fechaCreacion = fechaCreacion;
+        this.id = id;
+    }
+
+    /**
+     * Codifica el cursor para devolverlo en la respuesta
+     */
+    public String codificar() {
+        String valor = fechaCreacion + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente; null o vacío significa primera página
+     */
+    public static CursorReservas decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf('|');
+            return new CursorReservas(LocalDateTime.parse(valor.substring(0, separador)),
+                    Long.parseLong(valor.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido");
+        }
+    }
+
+    public LocalDateTime getFechaCreacion() { return fechaCreacion; }
+    public Long getId() { return id; }
+}
@@ -0,0 +1,28 @@
+package com.reservapp.dto;
+
+import java.time.LocalDateTime;
+
+import com.reservapp.entity.Favorito;
+
+/**
+ * Vista de un favorito con su cancha, construida dentro de la transacción que lo carga
+ */
+public class FavoritoResponseDTO {
+    private final Long id;
+    private final CanchaResponseDTO cancha;
+    private final LocalDateTime fechaAgregado;
+    private final String notas;
+
+    public FavoritoResponseDTO(Favorito favorito) {
+        this.id = favorito.getId();
+        this.cancha = new CanchaResponseDTO(favorito.getCancha());
+        this.fechaAgregado = favorito.getFechaAgregado();
+        this.notas = favorito.getNotas();
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public CanchaResponseDTO getCancha() { return cancha; }
+    public LocalDateTime getFechaAgregado() { return fechaAgregado; }
+    public String getNotas() { return notas; }
+}
@@ -0,0 +1,21 @@
+package com.reservapp.dto;
+
+import java.util.List;
+
+/**
+ * Página de un listado de reservas paginado por cursor.
+ * {@code siguienteCursor} es null cuando no hay más resultados.
+ */
+public class PaginaReservas<T> {
+    private final List<T> reservas;
+    private final String siguienteCursor;
+
+    public PaginaReservas(List<T> reservas, String siguienteCursor) {
+        this.reservas = reservas;
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public List<T> getReservas() { return reservas; }
+    public String getSiguienteCursor() { return siguienteCursor; }
+    public boolean isHayMas() { return siguienteCursor != null; }
+}
@@ -0,0 +1,66 @@
+package com.reservapp.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.reservapp.entity.DeporteJugador;
+import com.reservapp.entity.PerfilJugador;
+
+/**
+ * Vista del perfil de un jugador. Se construye dentro de la transacción que lo carga
+ * (copia deportes y adjetivos), así se puede serializar sin sesión de JPA abierta.
+ */
+public class PerfilJugadorResponseDTO {
+    private final Long id;
+    private final LocalDate fechaNacimiento;
+    private final Integer altura;
+    private final Integer peso;
+    private final List<DeporteJugador> deportes;
+    private final List<String> adjetivos;
+    private final Double ratingPromedio;
+    private final Integer partidosJugados;
+    private final Integer partidosGanados;
+    private final Integer partidosEmpatados;
+    private final Integer partidosPerdidos;
+    private final LocalDateTime fechaActualizacion;
+    private final int edad;
+    private final double porcentajeVictoria;
+    private final DeporteJugador deporteFavorito;
+
+    public PerfilJugadorResponseDTO(PerfilJugador perfil) {
+        this.id = perfil.getId();
+        this.fechaNacimiento = perfil.getFechaNacimiento();
+        this.altura = perfil.getAltura();
+        this.peso = perfil.getPeso();
+        this.deportes = perfil.getDeportes() != null ? new ArrayList<>(perfil.getDeportes()) : null;
+        this.adjetivos = perfil.getAdjetivos() != null ? new ArrayList<>(perfil.getAdjetivos()) : null;
+        this.ratingPromedio = perfil.getRatingPromedio();
+        this.partidosJugados = perfil.getPartidosJugados();
+        this.partidosGanados = perfil.getPartidosGanados();
+        this.partidosEmpatados = perfil.getPartidosEmpatados();
+        this.partidosPerdidos = perfil.getPartidosPerdidos();
+        this.fechaActualizacion = perfil.getFechaActualizacion();
+        this.edad = perfil.getEdad();
+        this.porcentajeVictoria = perfil.getPorcentajeVictoria();
+        this.deporteFavorito = perfil.getDeporteFavorito();
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public LocalDate getFechaNacimiento() { return fechaNacimiento; }
+    public Integer getAltura() { return altura; }
+    public Integer getPeso() { return peso; }
+    public List<DeporteJugador> getDeportes() { return deportes; }
+    public List<String> getAdjetivos() { return adjetivos; }
+    public Double getRatingPromedio() { return ratingPromedio; }
+    public Integer getPartidosJugados() { return partidosJugados; }
+    public Integer getPartidosGanados() { return partidosGanados; }
+    public Integer getPartidosEmpatados() { return partidosEmpatados; }
+    public Integer getPartidosPerdidos() { return partidosPerdidos; }
+    public LocalDateTime getFechaActualizacion() { return fechaActualizacion; }
+    public int getEdad() { return edad; }
+    public double getPorcentajeVictoria() { return porcentajeVictoria; }
+    public DeporteJugador getDeporteFavorito() { return deporteFavorito; }
+}
@@ -0,0 +1,81 @@
+package com.reservapp.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.reservapp.entity.Reserva;
+
+/**
+ * Vista de una reserva para el administrador del club (listado de reservas del club).
+ * Se construye directamente desde la consulta JPQL, sin cargar las entidades asociadas.
+ */
+public class ReservaAdminDTO {
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final Long id;
+    private final String jugador;
+    private final String email;
+    private final String telefono;
+    private final String cancha;
+    private final Long canchaId;
+    private final String fecha;
+    private final String horaInicio;
+    private final String horaFin;
+    private final long duracion;
+    private final Double precio;
+    private final String estado;
+    private final String fechaReserva;
+    private final String metodoPago;
+    private final String observaciones;
+    private final CursorReservas cursor;
+
+    // Constructor usado por la proyección de ReservaRepository
+    public ReservaAdminDTO(Long id, String jugador, String email, String telefono,
+                           String cancha, Long canchaId,
+                           LocalDateTime inicio, LocalDateTime fin, Double precio,
+                           Reserva.EstadoReserva estado, LocalDateTime fechaCreacion,
+                           String stripePaymentIntentId, String stripeSessionId) {
+        this.id = id;
+        this.jugador = jugador;
+        this.email = email;
+        this.telefono = telefono != null ? telefono : "";
+        this.cancha = cancha;
+        this.canchaId = canchaId;
+        this.fecha = inicio.toLocalDate().format(FORMATO_FECHA);
+        this.horaInicio = inicio.toLocalTime().format(FORMATO_HORA);
+        this.horaFin = fin.toLocalTime().format(FORMATO_HORA);
+        this.duracion = ChronoUnit.MINUTES.between(inicio, fin);
+        this.precio = precio;
+        this.estado = estado.toString().toLowerCase();
+        this.fechaReserva = fechaCreacion.toLocalDate().format(FORMATO_FECHA);
+        // Método de pago (basado en si tiene información de Stripe)
+        this.metodoPago = stripePaymentIntentId != null || stripeSessionId != null ? "Tarjeta de crédito" : "Efectivo";
+        // Observaciones (por ahora vacío, se puede agregar campo en el futuro)
+        this.observaciones = "";
+        this.cursor = new CursorReservas(fechaCreacion, id);
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getJugador() { return jugador; }
+    public String getEmail() { return email; }
+    public String getTelefono() { return telefono; }
+    public String getCancha() { return cancha; }
+    public Long getCanchaId() { return canchaId; }
+    public String getFecha() { return fecha; }
+    public String getHoraInicio() { return horaInicio; }
+    public String getHoraFin() { return horaFin; }
+    public long getDuracion() { return duracion; }
+    public Double getPrecio() { return precio; }
+    public String getEstado() { return estado; }
+    public String getFechaReserva() { return fechaReserva; }
+    public String getMetodoPago() { return metodoPago; }
+    public String getObservaciones() { return observaciones; }
+
+    // Posición de esta fila para la paginación por cursor (no se serializa)
+    @JsonIgnore
+    public CursorReservas getCursor() { return cursor; }
+}
@@ -0,0 +1,101 @@
+package com.reservapp.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.reservapp.entity.Reserva;
+
+/**
+ * Vista de una reserva para el jugador (listado de "mis reservas" y detalle).
+ * Se construye directamente desde la consulta JPQL, sin cargar las entidades asociadas.
+ */
+public class ReservaJugadorDTO {
+    private final Long id;
+    private final Long canchaId;
+    private final String canchaNombre;
+    private final String fechaInicio;
+    private final String fechaFin;
+    private final Double montoTotal;
+    private final String estado;
+    private final String estadoPago;
+    private final String fechaCreacion;
+    private final String stripePaymentIntentId;
+    private final String stripeSessionId;
+    private final String usuarioNombre;
+    private final String usuarioEmail;
+    private final String canchaDeporte;
+    private final String canchaUbicacion;
+    private final Double canchaPrecioPorHora;
+    private final CursorReservas cursor;
+
+    // Constructor usado por la proyección de ReservaRepository
+    public ReservaJugadorDTO(Long id, Long canchaId, String canchaNombre,
+                             LocalDateTime fechaHoraInicio, LocalDateTime fechaHoraFin, Double montoTotal,
+                             Reserva.EstadoReserva estado, Reserva.EstadoPago estadoPago, LocalDateTime fechaCreacion,
+                             String stripePaymentIntentId, String stripeSessionId,
+                             String usuarioNombre, String usuarioEmail,
+                             String canchaDeporte, String canchaUbicacion, Double canchaPrecioPorHora) {
+        this.id = id;
+        this.canchaId = canchaId;
+        this.canchaNombre = canchaNombre;
+        this.fechaInicio = fechaHoraInicio.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        this.fechaFin = fechaHoraFin.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        this.montoTotal = montoTotal;
+        this.estado = estado.toString();
+        this.estadoPago = estadoPago.toString();
+        this.fechaCreacion = fechaCreacion.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        this.stripePaymentIntentId = stripePaymentIntentId;
+        this.stripeSessionId = stripeSessionId;
+        this.usuarioNombre = usuarioNombre;
+        this.usuarioEmail = usuarioEmail;
+        this.canchaDeporte = canchaDeporte;
+        this.canchaUbicacion = canchaUbicacion;
+        this.canchaPrecioPorHora = canchaPrecioPorHora;
+        this.cursor = new CursorReservas(fechaCreacion, id);
+    }
+
+    // Construye el DTO desde una entidad ya cargada (por ejemplo, recién creada)
+    public static ReservaJugadorDTO desde(Reserva reserva) {
+        return new ReservaJugadorDTO(
+            reserva.getId(),
+            reserva.getCancha().getId(),
+            reserva.getCancha().getNombre(),
+            reserva.getFechaHoraInicio(),
+            reserva.getFechaHoraFin(),
+            reserva.getMontoTotal(),
+            reserva.getEstado(),
+            reserva.getEstadoPago(),
+            reserva.getFechaCreacion(),
+            reserva.getStripePaymentIntentId(),
+            reserva.getStripeSessionId(),
+            reserva.getUsuario().getNombre(),
+            reserva.getUsuario().getEmail(),
+            reserva.getCancha().getDeporte(),
+            reserva.getCancha().getUbicacion(),
+            reserva.getCancha().getPrecioPorHora()
+        );
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public Long getCanchaId() { return canchaId; }
+    public String getCanchaNombre() { return canchaNombre; }
+    public String getFechaInicio() { return fechaInicio; }
+    public String getFechaFin() { return fechaFin; }
+    public Double getMontoTotal() { return montoTotal; }
+    public String getEstado() { return estado; }
+    public String getEstadoPago() { return estadoPago; }
+    public String getFechaCreacion() { return fechaCreacion; }
+    public String getStripePaymentIntentId() { return stripePaymentIntentId; }
+    public String getStripeSessionId() { return stripeSessionId; }
+    public String getUsuarioNombre() { return usuarioNombre; }
+    public String getUsuarioEmail() { return usuarioEmail; }
+    public String getCanchaDeporte() { return canchaDeporte; }
+    public String getCanchaUbicacion() { return canchaUbicacion; }
+    public Double getCanchaPrecioPorHora() { return canchaPrecioPorHora; }
+
+    // Posición de esta fila para la paginación por cursor (no se serializa)
+    @JsonIgnore
+    public CursorReservas getCursor() { return cursor; }
+}
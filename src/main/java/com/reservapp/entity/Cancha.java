@@ -2,6 +2,8 @@ package com.reservapp.entity;
 
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
@@ -14,6 +16,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
@@ -24,7 +27,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 @Entity
-@Table(name = "canchas")
+@Table(name = "canchas", indexes = @Index(name = "idx_canchas_club", columnList = "club_id"))
 public class Cancha {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -58,7 +61,9 @@ public class Cancha {
     @Column
     private String horario;
 
+    // Si no se cargan con la consulta, se inicializan de a lotes (IN) en lugar de una consulta por cancha
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "cancha_imagenes", joinColumns = @JoinColumn(name = "cancha_id"))
     @Column(name = "image_url")
     private List<String> imagenes;
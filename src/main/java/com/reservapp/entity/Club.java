@@ -3,6 +3,8 @@ package com.reservapp.entity;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.CascadeType;
@@ -62,6 +64,7 @@ public class Club {
 
     // Servicios disponibles en el club
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "club_servicios", joinColumns = @JoinColumn(name = "club_id"))
     @Column(name = "servicio")
     private List<String> servicios;
@@ -131,7 +131,14 @@ public class ConfiguracionHorario {
 
     // Métodos de utilidad
     public boolean esDiaDisponible(int diaSemana) {
-        return diasDisponibles != null && diasDisponibles.contains(String.valueOf(diaSemana));
+        // Comparar por valor y no por subcadena ("12" no habilita el 1 ni el 2)
+        String dia = String.valueOf(diaSemana);
+        for (String disponible : getDiasDisponiblesArray()) {
+            if (disponible.trim().equals(dia)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public String[] getDiasDisponiblesArray() {
@@ -0,0 +1,117 @@
+package com.reservapp.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Evento de webhook de Stripe recibido y pendiente de aplicar (bandeja de entrada).
+ * La clave es el ID del evento de Stripe, lo que hace idempotentes los reenvíos.
+ */
+@Entity
+@Table(name = "stripe_eventos", indexes = {
+    @Index(name = "idx_stripe_eventos_estado_recepcion", columnList = "estado, fecha_recepcion"),
+    @Index(name = "idx_stripe_eventos_reclamado_por", columnList = "reclamado_por")
+})
+public class EventoStripe {
+
+    @Id
+    @Column(length = 255)
+    private String id;
+
+    @Column(nullable = false)
+    private String tipo;
+
+    // Datos extraídos del objeto del evento para aplicarlo sin volver a parsear el payload
+    @Column
+    private Long reservaId;
+
+    @Column
+    private String paymentIntentId;
+
+    @Column
+    private String sessionId;
+
+    @Column
+    private String estadoObjeto;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EstadoEvento estado = EstadoEvento.PENDIENTE;
+
+    @Column(nullable = false)
+    private Integer intentos = 0;
+
+    @Column(length = 500)
+    private String ultimoError;
+
+    @Column(name = "fecha_recepcion", nullable = false)
+    private LocalDateTime fechaRecepcion = LocalDateTime.now();
+
+    @Column
+    private LocalDateTime fechaProcesado;
+
+    // Reclamo del procesador que tomó el evento: ninguna otra instancia lo toma hasta que vence
+    @Column(name = "reclamado_por", length = 36)
+    private String reclamadoPor;
+
+    @Column
+    private LocalDateTime reclamadoHasta;
+
+    public enum EstadoEvento {
+        PENDIENTE, PROCESADO, IGNORADO, FALLIDO
+    }
+
+    public EventoStripe() {}
+
+    public EventoStripe(String id, String tipo, String payload) {
+        this.id = id;
+        this.tipo = tipo;
+        this.payload = payload;
+    }
+
+    // Getters y Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getTipo() { return tipo; }
+    public void setTipo(String tipo) { this.tipo = tipo; }
+
+    public Long getReservaId() { return reservaId; }
+    public void setReservaId(Long reservaId) { this.reservaId = reservaId; }
+
+    public String getPaymentIntentId() { return paymentIntentId; }
+    public void setPaymentIntentId(String paymentIntentId) { this.paymentIntentId = paymentIntentId; }
+
+    public String getSessionId() { return sessionId; }
+    public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+
+    public String getEstadoObjeto() { return estadoObjeto; }
+    public void setEstadoObjeto(String estadoObjeto) { this.estadoObjeto = estadoObjeto; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public EstadoEvento getEstado() { return estado; }
+    public void setEstado(EstadoEvento estado) { this.estado = estado; }
+
+    public Integer getIntentos() { return intentos; }
+    public void setIntentos(Integer intentos) { this.intentos = intentos; }
+
+    public String getUltimoError() { return ultimoError; }
+    public void setUltimoError(String ultimoError) { this.ultimoError = ultimoError; }
+
+    public LocalDateTime getFechaRecepcion() { return fechaRecepcion; }
+    public void setFechaRecepcion(LocalDateTime fechaRecepcion) { this.fechaRecepcion = fechaRecepcion; }
+
+    public LocalDateTime getFechaProcesado() { return fechaProcesado; }
+    public void setFechaProcesado(LocalDateTime fechaProcesado) { this.fechaProcesado = fechaProcesado; }
+
+    public String getReclamadoPor() { return reclamadoPor; }
+    public void setReclamadoPor(String reclamadoPor) { this.reclamadoPor = reclamadoPor; }
+
+    public LocalDateTime getReclamadoHasta() { return reclamadoHasta; }
+    public void setReclamadoHasta(LocalDateTime reclamadoHasta) { this.reclamadoHasta = reclamadoHasta; }
+}
@@ -2,10 +2,22 @@ package com.reservapp.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reservas")
+@Table(name = "reservas", indexes = {
+    // Verificación de conflictos y ocupación por cancha en un rango de fechas
+    @Index(name = "idx_reservas_cancha_rango", columnList = "cancha_id, fecha_hora_inicio, fecha_hora_fin, estado"),
+    // Listado de administración del club paginado por (fecha_creacion, id), en el orden del índice
+    @Index(name = "idx_reservas_club_creacion", columnList = "club_id, fecha_creacion, id"),
+    // Historial del jugador paginado por (fecha_creacion, id)
+    @Index(name = "idx_reservas_usuario_creacion", columnList = "usuario_id, fecha_creacion, id"),
+    // Búsqueda de reservas pendientes vencidas
+    @Index(name = "idx_reservas_estado_creacion", columnList = "estado, fecha_creacion"),
+    // Reservas vencidas cuyo pago en Stripe todavía hay que cerrar
+    @Index(name = "idx_reservas_cierre_stripe", columnList = "cierre_stripe_pendiente")
+})
 public class Reserva {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -21,6 +33,11 @@ public class Reserva {
     @JoinColumn(name = "cancha_id", nullable = false)
     private Cancha cancha;
 
+    // Club de la cancha, copiado para listar las reservas del club sin pasar por canchas.
+    // Se completa al asignar la cancha (las canchas no cambian de club)
+    @Column(name = "club_id")
+    private Long clubId;
+
     @NotNull
     @Column(nullable = false)
     private LocalDateTime fechaHoraInicio;
@@ -47,6 +64,12 @@ public class Reserva {
     @Column
     private String stripeSessionId;
 
+    // La sesión o el PaymentIntent no se pudo cerrar al vencer la reserva; se reintenta en el próximo ciclo.
+    // Con valor por defecto en la base, para los INSERT de los scripts que no lo incluyen
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean cierreStripePendiente = false;
+
     @Column(nullable = false)
     private LocalDateTime fechaCreacion = LocalDateTime.now();
 
@@ -58,8 +81,9 @@ public class Reserva {
         PENDIENTE, CONFIRMADA, CANCELADA, COMPLETADA
     }
 
+    // REVISION: pago recibido cuando la reserva ya estaba cancelada o completada; se reembolsa a mano
     public enum EstadoPago {
-        PENDIENTE, PAGADO, FALLIDO, REEMBOLSADO
+        PENDIENTE, PAGADO, FALLIDO, REEMBOLSADO, REVISION
     }
 
     // Constructors
@@ -68,7 +92,7 @@ public class Reserva {
     public Reserva(Usuario usuario, Cancha cancha, LocalDateTime fechaHoraInicio, 
                    LocalDateTime fechaHoraFin, Double montoTotal) {
         this.usuario = usuario;
-        this.cancha = cancha;
+        setCancha(cancha);
         this.fechaHoraInicio = fechaHoraInicio;
         this.fechaHoraFin = fechaHoraFin;
         this.montoTotal = montoTotal;
@@ -82,7 +106,12 @@ public class Reserva {
     public void setUsuario(Usuario usuario) { this.usuario = usuario; }
 
     public Cancha getCancha() { return cancha; }
-    public void setCancha(Cancha cancha) { this.cancha = cancha; }
+    public void setCancha(Cancha cancha) {
+        this.cancha = cancha;
+        this.clubId = cancha != null && cancha.getClub() != null ? cancha.getClub().getId() : null;
+    }
+
+    public Long getClubId() { return clubId; }
 
     public LocalDateTime getFechaHoraInicio() { return fechaHoraInicio; }
     public void setFechaHoraInicio(LocalDateTime fechaHoraInicio) { this.fechaHoraInicio = fechaHoraInicio; }
@@ -105,6 +134,9 @@ public class Reserva {
     public String getStripeSessionId() { return stripeSessionId; }
     public void setStripeSessionId(String stripeSessionId) { this.stripeSessionId = stripeSessionId; }
 
+    public boolean isCierreStripePendiente() { return cierreStripePendiente; }
+    public void setCierreStripePendiente(boolean cierreStripePendiente) { this.cierreStripePendiente = cierreStripePendiente; }
+
     public LocalDateTime getFechaCreacion() { return fechaCreacion; }
     public void setFechaCreacion(LocalDateTime fechaCreacion) { this.fechaCreacion = fechaCreacion; }
 
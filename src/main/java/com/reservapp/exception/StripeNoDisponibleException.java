@@ -0,0 +1,18 @@
+package com.reservapp.exception;
+
+/**
+ * Stripe no puede atender la llamada: el circuito está abierto, no hay cupo en el pool
+ * de llamadas o la respuesta no llegó a tiempo.
+ */
+public class StripeNoDisponibleException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public StripeNoDisponibleException(String message) {
+        super(message);
+    }
+
+    public StripeNoDisponibleException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,17 +1,58 @@
 package com.reservapp.repository;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.reservapp.entity.Cancha;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface CanchaRepository extends JpaRepository<Cancha, Long> {
-    List<Cancha> findByDeporte(String deporte);
-    List<Cancha> findByDisponibleTrue();
-    List<Cancha> findByDeporteAndDisponibleTrue(String deporte);
+    // Los listados que se serializan completos cargan las imágenes en la misma consulta.
+    // La configuración es el lado inverso de un uno a uno, que Hibernate no puede dejar
+    // perezoso: si no se trae con el join se consulta cancha por cancha
+    @EntityGraph(attributePaths = {"imagenes", "configuracionHorario"})
     List<Cancha> findByClubId(Long clubId);
+
+    @EntityGraph(attributePaths = {"club", "imagenes", "configuracionHorario"})
     List<Cancha> findByClubPropietarioId(Long propietarioId);
+
+    // Catálogo completo con las imágenes en la misma consulta (ver CatalogoCanchas); la
+    // configuración se trae por el mismo motivo que en findByClubId
+    @Query("SELECT DISTINCT c FROM Cancha c LEFT JOIN FETCH c.imagenes " +
+           "LEFT JOIN FETCH c.configuracionHorario ORDER BY c.id")
+    List<Cancha> findAllConImagenes();
+
+    @Query("SELECT DISTINCT c.deporte FROM Cancha c ORDER BY c.deporte")
+    List<String> findDeportesDistintos();
+
+    // Nombre y deporte de las canchas, para el índice de búsqueda de clubes
+    @Query("SELECT c.club.id AS clubId, c.nombre AS nombre, c.deporte AS deporte FROM Cancha c")
+    List<TextoCancha> findTextos();
+
+    @Query("SELECT c.club.id AS clubId, c.nombre AS nombre, c.deporte AS deporte FROM Cancha c WHERE c.club.id = :clubId")
+    List<TextoCancha> findTextosPorClubId(@Param("clubId") Long clubId);
+
+    @Query("SELECT c FROM Cancha c WHERE NOT EXISTS " +
+           "(SELECT h.id FROM ConfiguracionHorario h WHERE h.cancha = c)")
+    List<Cancha> findSinConfiguracionHorario();
+
+    // Bloquea la fila de la cancha (SELECT ... FOR UPDATE) durante la creación de una reserva
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cancha c WHERE c.id = :id")
+    Optional<Cancha> findByIdParaReserva(@Param("id") Long id);
+
+    interface TextoCancha {
+        Long getClubId();
+        String getNombre();
+        String getDeporte();
+    }
 }
\ No newline at end of file
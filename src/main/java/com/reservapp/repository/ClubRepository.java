@@ -3,6 +3,7 @@ package com.reservapp.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,16 +21,19 @@ public interface ClubRepository extends JpaRepository<Club, Long> {
     // Buscar club por propietario ID
     Optional<Club> findByPropietarioId(Long propietarioId);
     
-    // Buscar clubes activos
-    List<Club> findByActivoTrue();
+    // Resúmenes de los clubes activos para los listados: solo columnas cortas, sin cargar las
+    // columnas TEXT, el propietario ni las colecciones
+    @Query(SELECT_RESUMEN + "WHERE c.activo = true ORDER BY c.id")
+    List<ClubResumen> findResumenActivos();
     
-    // Buscar clubes por nombre (búsqueda parcial, case insensitive)
-    @Query("SELECT c FROM Club c WHERE LOWER(c.nombre) LIKE LOWER(CONCAT('%', :nombre, '%')) AND c.activo = true")
-    List<Club> findByNombreContainingIgnoreCaseAndActivoTrue(@Param("nombre") String nombre);
+    // Clubes activos con sus servicios, para cargar el índice de búsqueda
+    @EntityGraph(attributePaths = "servicios")
+    @Query("SELECT c FROM Club c WHERE c.activo = true")
+    List<Club> findActivosConServicios();
     
-    // Buscar clubes por ciudad/dirección
-    @Query("SELECT c FROM Club c WHERE LOWER(c.direccion) LIKE LOWER(CONCAT('%', :ciudad, '%')) AND c.activo = true")
-    List<Club> findByCiudadContainingIgnoreCaseAndActivoTrue(@Param("ciudad") String ciudad);
+    // Un club con sus servicios, para volver a indexarlo
+    @EntityGraph(attributePaths = "servicios")
+    Optional<Club> findConServiciosById(Long id);
     
     // Verificar si existe un club con el mismo nombre
     boolean existsByNombreIgnoreCaseAndActivoTrue(String nombre);
@@ -39,4 +43,13 @@ public interface ClubRepository extends JpaRepository<Club, Long> {
     
     // Contar clubes activos
     long countByActivoTrue();
+
+    String SELECT_RESUMEN = "SELECT c.id AS id, c.nombre AS nombre, c.direccion AS direccion FROM Club c ";
+
+    // Columnas de la vista resumida de un club (los datos de sus canchas salen del catálogo en memoria, ver ClubService)
+    interface ClubResumen {
+        Long getId();
+        String getNombre();
+        String getDireccion();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.reservapp.repository;
+
+import com.reservapp.entity.EventoStripe;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EventoStripeRepository extends JpaRepository<EventoStripe, String> {
+
+    // Pendientes sin reclamo vigente, en orden de llegada
+    @Query("SELECT e.id FROM EventoStripe e WHERE e.estado = 'PENDIENTE' AND " +
+           "(e.reclamadoHasta IS NULL OR e.reclamadoHasta < :ahora) ORDER BY e.fechaRecepcion ASC, e.id ASC")
+    List<String> findIdsPendientes(@Param("ahora") LocalDateTime ahora, Pageable pageable);
+
+    // Vuelve a exigir las condiciones de la búsqueda: de dos procesadores que compiten por
+    // el mismo evento solo uno lo actualiza
+    @Modifying
+    @Transactional
+    @Query("UPDATE EventoStripe e SET e.reclamadoPor = :token, e.reclamadoHasta = :hasta " +
+           "WHERE e.id IN :ids AND e.estado = 'PENDIENTE' AND " +
+           "(e.reclamadoHasta IS NULL OR e.reclamadoHasta < :ahora)")
+    int reclamar(@Param("ids") Collection<String> ids, @Param("token") String token,
+                 @Param("hasta") LocalDateTime hasta, @Param("ahora") LocalDateTime ahora);
+
+    @Query("SELECT e FROM EventoStripe e WHERE e.reclamadoPor = :token AND e.estado = 'PENDIENTE' " +
+           "ORDER BY e.fechaRecepcion ASC, e.id ASC")
+    List<EventoStripe> findReclamados(@Param("token") String token);
+
+    long countByEstado(EventoStripe.EstadoEvento estado);
+}
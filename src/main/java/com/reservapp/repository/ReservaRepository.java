@@ -1,13 +1,22 @@
 package com.reservapp.repository;
 
+import com.reservapp.dto.ReservaAdminDTO;
+import com.reservapp.dto.ReservaJugadorDTO;
 import com.reservapp.entity.Reserva;
-import com.reservapp.entity.Usuario;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.LockModeType;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,22 +31,163 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
     
     List<Reserva> findByEstadoPago(Reserva.EstadoPago estadoPago);
     
+    // Las lecturas para registrar un pago bloquean la fila (SELECT ... FOR UPDATE) hasta el commit:
+    // así el expirador no puede cancelar la reserva entre la lectura y el guardado
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<Reserva> findByStripePaymentIntentId(String paymentIntentId);
-    
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<Reserva> findByStripeSessionId(String sessionId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reserva r WHERE r.id IN :ids ORDER BY r.id")
+    List<Reserva> findAllByIdParaPago(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT r.id AS id, r.stripePaymentIntentId AS stripePaymentIntentId, r.stripeSessionId AS stripeSessionId " +
+           "FROM Reserva r WHERE r.stripePaymentIntentId IN :paymentIntentIds")
+    List<ReferenciaStripe> findReferenciasPorPaymentIntent(@Param("paymentIntentIds") Collection<String> paymentIntentIds);
+
+    @Query("SELECT r.id AS id, r.stripePaymentIntentId AS stripePaymentIntentId, r.stripeSessionId AS stripeSessionId " +
+           "FROM Reserva r WHERE r.stripeSessionId IN :sessionIds")
+    List<ReferenciaStripe> findReferenciasPorSession(@Param("sessionIds") Collection<String> sessionIds);
+
+    // Guardan el ID de Stripe sin cargar la reserva (se llaman desde el pool de Stripe)
+    @Modifying
+    @Transactional
+    @Query("UPDATE Reserva r SET r.stripePaymentIntentId = :paymentIntentId WHERE r.id = :id")
+    int actualizarStripePaymentIntentId(@Param("id") Long id, @Param("paymentIntentId") String paymentIntentId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Reserva r SET r.stripeSessionId = :sessionId WHERE r.id = :id")
+    int actualizarStripeSessionId(@Param("id") Long id, @Param("sessionId") String sessionId);
+
+    // Reservas pendientes de pago cuyo bloqueo ya venció (usa idx_reservas_estado_creacion)
+    @Query("SELECT r.id AS id, r.cancha.id AS canchaId, r.fechaCreacion AS fechaCreacion, " +
+           "r.stripePaymentIntentId AS stripePaymentIntentId, r.stripeSessionId AS stripeSessionId " +
+           "FROM Reserva r WHERE r.estado = 'PENDIENTE' AND r.fechaCreacion < :limite " +
+           "ORDER BY r.fechaCreacion, r.id")
+    List<ReservaVencida> findPendientesVencidas(@Param("limite") LocalDateTime limite, Pageable pageable);
+
+    // Vence en una sola sentencia las que siguen pendientes (las pagadas mientras tanto no cambian)
+    @Modifying
+    @Transactional
+    @Query("UPDATE Reserva r SET r.estado = :cancelada WHERE r.id IN :ids AND " +
+           "r.estado = :pendiente AND r.fechaCreacion < :limite")
+    int vencerPendientes(@Param("ids") Collection<Long> ids,
+                         @Param("limite") LocalDateTime limite,
+                         @Param("pendiente") Reserva.EstadoReserva pendiente,
+                         @Param("cancelada") Reserva.EstadoReserva cancelada);
+
+    @Query("SELECT r.id FROM Reserva r WHERE r.id IN :ids AND r.estado IN ('CONFIRMADA', 'PENDIENTE')")
+    List<Long> findIdsActivos(@Param("ids") Collection<Long> ids);
+
+    // Vencidas cuyo cierre en Stripe falló en un ciclo anterior (usa idx_reservas_cierre_stripe)
+    @Query("SELECT r.id AS id, r.cancha.id AS canchaId, r.fechaCreacion AS fechaCreacion, " +
+           "r.stripePaymentIntentId AS stripePaymentIntentId, r.stripeSessionId AS stripeSessionId " +
+           "FROM Reserva r WHERE r.cierreStripePendiente = true ORDER BY r.id")
+    List<ReservaVencida> findCierresStripePendientes(Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Reserva r SET r.cierreStripePendiente = :pendiente WHERE r.id IN :ids")
+    int marcarCierreStripePendiente(@Param("ids") Collection<Long> ids, @Param("pendiente") boolean pendiente);
     
-    @Query("SELECT r FROM Reserva r WHERE r.cancha.id = :canchaId AND " +
-           "((r.fechaHoraInicio <= :fechaFin AND r.fechaHoraFin >= :fechaInicio)) AND " +
+    @Query("SELECT COUNT(r) > 0 FROM Reserva r WHERE r.cancha.id = :canchaId AND " +
+           "r.fechaHoraInicio <= :fechaFin AND r.fechaHoraFin >= :fechaInicio AND " +
            "r.estado IN ('CONFIRMADA', 'PENDIENTE')")
-    List<Reserva> findReservasConflicto(@Param("canchaId") Long canchaId, 
-                                       @Param("fechaInicio") LocalDateTime fechaInicio,
-                                       @Param("fechaFin") LocalDateTime fechaFin);
-    
-    @Query("SELECT r FROM Reserva r WHERE r.usuario = :usuario ORDER BY r.fechaCreacion DESC")
-    List<Reserva> findByUsuarioOrderByFechaCreacionDesc(@Param("usuario") Usuario usuario);
+    boolean existsReservaConflicto(@Param("canchaId") Long canchaId,
+                                   @Param("fechaInicio") LocalDateTime fechaInicio,
+                                   @Param("fechaFin") LocalDateTime fechaFin);
+
+    @Query("SELECT r.id AS id, r.cancha.id AS canchaId, r.fechaHoraInicio AS fechaHoraInicio, " +
+           "r.fechaHoraFin AS fechaHoraFin FROM Reserva r WHERE r.fechaHoraFin >= :desde AND " +
+           "r.estado IN ('CONFIRMADA', 'PENDIENTE')")
+    List<IntervaloReserva> findIntervalosActivosDesde(@Param("desde") LocalDateTime desde);
+
+    @Query("SELECT r.id AS id, r.cancha.id AS canchaId, r.fechaHoraInicio AS fechaHoraInicio, " +
+           "r.fechaHoraFin AS fechaHoraFin FROM Reserva r WHERE r.cancha.id = :canchaId AND " +
+           "r.fechaHoraFin >= :desde AND r.estado IN ('CONFIRMADA', 'PENDIENTE')")
+    List<IntervaloReserva> findIntervalosActivosPorCanchaDesde(@Param("canchaId") Long canchaId,
+                                                              @Param("desde") LocalDateTime desde);
+
+    @Query("SELECT r.id AS id, r.cancha.id AS canchaId, r.fechaHoraInicio AS fechaHoraInicio, " +
+           "r.fechaHoraFin AS fechaHoraFin FROM Reserva r WHERE r.cancha.club.id = :clubId AND " +
+           "r.fechaHoraInicio <= :hasta AND r.fechaHoraFin >= :desde AND r.estado IN ('CONFIRMADA', 'PENDIENTE')")
+    List<IntervaloReserva> findIntervalosActivosPorClubEnRango(@Param("clubId") Long clubId,
+                                                              @Param("desde") LocalDateTime desde,
+                                                              @Param("hasta") LocalDateTime hasta);
     
-    @Query("SELECT r FROM Reserva r WHERE r.cancha.id IN " +
-           "(SELECT c.id FROM Cancha c WHERE c.id = :clubId) " +
-           "ORDER BY r.fechaCreacion DESC")
-    List<Reserva> findReservasByClubId(@Param("clubId") Long clubId);
-}
\ No newline at end of file
+    @Query("SELECT new com.reservapp.dto.ReservaJugadorDTO(r.id, c.id, c.nombre, r.fechaHoraInicio, r.fechaHoraFin, " +
+           "r.montoTotal, r.estado, r.estadoPago, r.fechaCreacion, r.stripePaymentIntentId, r.stripeSessionId, " +
+           "u.nombre, u.email, c.deporte, c.ubicacion, c.precioPorHora) " +
+           "FROM Reserva r JOIN r.cancha c JOIN r.usuario u WHERE r.id = :id")
+    Optional<ReservaJugadorDTO> findReservaJugadorById(@Param("id") Long id);
+
+    // Reserva con su cancha, para armar el cobro en Stripe fuera de la transacción
+    @EntityGraph(attributePaths = "cancha")
+    @Query("SELECT r FROM Reserva r WHERE r.id = :id")
+    Optional<Reserva> findConCanchaById(@Param("id") Long id);
+
+    // Paginación por cursor sobre (fechaCreacion, id); los filtros nulos se ignoran
+    @Query("SELECT new com.reservapp.dto.ReservaJugadorDTO(r.id, c.id, c.nombre, r.fechaHoraInicio, r.fechaHoraFin, " +
+           "r.montoTotal, r.estado, r.estadoPago, r.fechaCreacion, r.stripePaymentIntentId, r.stripeSessionId, " +
+           "u.nombre, u.email, c.deporte, c.ubicacion, c.precioPorHora) " +
+           "FROM Reserva r JOIN r.cancha c JOIN r.usuario u WHERE u.id = :usuarioId AND " +
+           "(:cursorFecha IS NULL OR r.fechaCreacion < :cursorFecha OR " +
+           "(r.fechaCreacion = :cursorFecha AND r.id < :cursorId)) AND " +
+           "(:estado IS NULL OR r.estado = :estado) AND " +
+           "(:desde IS NULL OR r.fechaHoraInicio >= :desde) AND " +
+           "(:hasta IS NULL OR r.fechaHoraInicio < :hasta) " +
+           "ORDER BY r.fechaCreacion DESC, r.id DESC")
+    List<ReservaJugadorDTO> findPaginaReservasJugador(@Param("usuarioId") Long usuarioId,
+                                                      @Param("cursorFecha") LocalDateTime cursorFecha,
+                                                      @Param("cursorId") Long cursorId,
+                                                      @Param("estado") Reserva.EstadoReserva estado,
+                                                      @Param("desde") LocalDateTime desde,
+                                                      @Param("hasta") LocalDateTime hasta,
+                                                      Pageable pageable);
+
+    // Recorre idx_reservas_club_creacion en orden y se detiene al completar la página, sin ordenar todo el club
+    @Query("SELECT new com.reservapp.dto.ReservaAdminDTO(r.id, u.nombre, u.email, u.telefono, c.nombre, c.id, " +
+           "r.fechaHoraInicio, r.fechaHoraFin, r.montoTotal, r.estado, r.fechaCreacion, " +
+           "r.stripePaymentIntentId, r.stripeSessionId) " +
+           "FROM Reserva r JOIN r.cancha c JOIN r.usuario u WHERE r.clubId = :clubId AND " +
+           "(:cursorFecha IS NULL OR r.fechaCreacion < :cursorFecha OR " +
+           "(r.fechaCreacion = :cursorFecha AND r.id < :cursorId)) AND " +
+           "(:estado IS NULL OR r.estado = :estado) AND " +
+           "(:desde IS NULL OR r.fechaHoraInicio >= :desde) AND " +
+           "(:hasta IS NULL OR r.fechaHoraInicio < :hasta) " +
+           "ORDER BY r.fechaCreacion DESC, r.id DESC")
+    List<ReservaAdminDTO> findPaginaReservasAdminPorClub(@Param("clubId") Long clubId,
+                                                         @Param("cursorFecha") LocalDateTime cursorFecha,
+                                                         @Param("cursorId") Long cursorId,
+                                                         @Param("estado") Reserva.EstadoReserva estado,
+                                                         @Param("desde") LocalDateTime desde,
+                                                         @Param("hasta") LocalDateTime hasta,
+                                                         Pageable pageable);
+
+    // Proyección mínima de una reserva activa para el índice de ocupación
+    interface IntervaloReserva {
+        Long getId();
+        Long getCanchaId();
+        LocalDateTime getFechaHoraInicio();
+        LocalDateTime getFechaHoraFin();
+    }
+
+    // Reserva pendiente vencida, con lo necesario para liberar el índice y cerrar el pago en Stripe
+    interface ReservaVencida {
+        Long getId();
+        Long getCanchaId();
+        LocalDateTime getFechaCreacion();
+        String getStripePaymentIntentId();
+        String getStripeSessionId();
+    }
+
+    // IDs de Stripe de una reserva, para asociar eventos de webhook sin metadata
+    interface ReferenciaStripe {
+        Long getId();
+        String getStripePaymentIntentId();
+        String getStripeSessionId();
+    }
+}
@@ -2,8 +2,8 @@ package com.reservapp.security;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.Optional;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -11,8 +11,7 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.reservapp.entity.Usuario;
-import com.reservapp.repository.UsuarioRepository;
+import com.reservapp.service.ClubService;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -22,11 +21,17 @@ import jakarta.servlet.http.HttpServletResponse;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
-    private final UsuarioRepository usuarioRepository;
+    private final VerificadorUsuarioActivo verificadorUsuarioActivo;
+    private final ClubService clubService;
+    private final boolean verificarUsuarioActivo;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UsuarioRepository usuarioRepository) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, VerificadorUsuarioActivo verificadorUsuarioActivo,
+                                   ClubService clubService,
+                                   @Value("${reservapp.seguridad.verificar-usuario-activo:true}") boolean verificarUsuarioActivo) {
         this.jwtUtil = jwtUtil;
-        this.usuarioRepository = usuarioRepository;
+        this.verificadorUsuarioActivo = verificadorUsuarioActivo;
+        this.clubService = clubService;
+        this.verificarUsuarioActivo = verificarUsuarioActivo;
     }
 
     @Override
@@ -37,19 +42,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             token = authHeader.substring(7);
         }
-        if (token != null && jwtUtil.validateToken(token)) {
-            String email = jwtUtil.getEmailFromToken(token);
-            Optional<Usuario> usuarioOpt = usuarioRepository.findByEmail(email);
-            if (usuarioOpt.isPresent()) {
-                Usuario usuario = usuarioOpt.get();
-                List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(usuario.getTipo()));
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        email, null, authorities  // Usar email en lugar del objeto usuario
-                );
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+        // Un solo parseo del token: los claims verificados se reutilizan desde la caché de JwtUtil.
+        // El tipo (autoridad) y el userId salen de los claims, sin consultar la base.
+        UsuarioAutenticado principal = jwtUtil.autenticar(token);
+        if (principal != null && principal.getUserId() != null && principal.getTipo() != null
+                && (!verificarUsuarioActivo || verificadorUsuarioActivo.estaActivo(principal.getUserId()))) {
+            // El club del propietario se resuelve una vez por request (con caché en ClubService)
+            if ("CLUB".equals(principal.getTipo())) {
+                principal = principal.conClubId(clubService.obtenerClubIdPorPropietarioId(principal.getUserId()));
             }
+            List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(principal.getTipo()));
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    principal, null, authorities
+            );
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,30 @@
 package com.reservapp.security;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 @Component
 public class JwtUtil {
@@ -18,6 +32,38 @@ public class JwtUtil {
     private final long jwtExpirationMs = 86400000; // 1 día
     private final Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
 
+    // El parser es inmutable y thread-safe: se construye una sola vez
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+    // Tokens ya verificados, por hash SHA-256 del token, hasta que el token expira
+    private final Cache<String, TokenVerificado> tokensVerificados;
+
+    public JwtUtil(@Value("${reservapp.cache.jwt.tamano-maximo:10000}") long tamanoMaximo,
+                   MeterRegistry meterRegistry) {
+        this.tokensVerificados = Caffeine.newBuilder()
+                .maximumSize(tamanoMaximo)
+                .expireAfter(new Expiry<String, TokenVerificado>() {
+                    @Override
+                    public long expireAfterCreate(String hash, TokenVerificado token, long ahora) {
+                        long restanteMs = token.expiraEnMs() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(restanteMs, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String hash, TokenVerificado token, long ahora, long restante) {
+                        return expireAfterCreate(hash, token, ahora);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String hash, TokenVerificado token, long ahora, long restante) {
+                        return restante;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokensVerificados, "jwt-tokens");
+    }
+
     public String generateToken(String email, String tipo, Long userId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("tipo", tipo);
@@ -31,27 +77,66 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Verifica el token una sola vez y devuelve el usuario de sus claims, o null si no es válido.
+     * Los tokens ya verificados se sirven desde la caché sin volver a validar la firma.
+     */
+    public UsuarioAutenticado autenticar(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String hash = hash(token);
+        TokenVerificado verificado = tokensVerificados.getIfPresent(hash);
+        if (verificado != null) {
+            return verificado.usuario();
+        }
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Number userId = claims.get("userId", Number.class);
+            UsuarioAutenticado usuario = new UsuarioAutenticado(userId != null ? userId.longValue() : null,
+                    claims.getSubject(), claims.get("tipo", String.class));
+            Date expiracion = claims.getExpiration();
+            if (expiracion != null) {
+                tokensVerificados.put(hash, new TokenVerificado(usuario, expiracion.getTime()));
+            }
+            return usuario;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public String getEmailFromToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        return requerirUsuario(token).getEmail();
     }
 
     public String getTipoFromToken(String token) {
-        return (String) Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody().get("tipo");
+        return requerirUsuario(token).getTipo();
     }
 
     public Long getUserIdFromToken(String token) {
-        return ((Number) Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody().get("userId")).longValue();
+        return requerirUsuario(token).getUserId();
     }
 
     public boolean validateToken(String token) {
+        return autenticar(token) != null;
+    }
+
+    private UsuarioAutenticado requerirUsuario(String token) {
+        UsuarioAutenticado usuario = autenticar(token);
+        if (usuario == null) {
+            throw new JwtException("Token inválido o expirado");
+        }
+        return usuario;
+    }
+
+    private static String hash(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
         }
     }
-} 
\ No newline at end of file
+
+    private record TokenVerificado(UsuarioAutenticado usuario, long expiraEnMs) {}
+}
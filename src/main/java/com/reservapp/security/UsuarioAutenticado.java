@@ -0,0 +1,49 @@
+package com.reservapp.security;
+
+import java.security.Principal;
+
+/**
+ * Identidad del usuario autenticado, tomada de los claims verificados del JWT.
+ * Para usuarios CLUB incluye además el ID del club del que son propietarios (o null).
+ * Es el principal de la autenticación y se inyecta con {@code @AuthenticationPrincipal}.
+ * {@link #getName()} devuelve el email, por lo que {@code Authentication.getName()} sigue igual.
+ */
+public final class UsuarioAutenticado implements Principal {
+    private final Long userId;
+    private final String email;
+    private final String tipo;
+    private final Long clubId;
+
+    public UsuarioAutenticado(Long userId, String email, String tipo) {
+        this(userId, email, tipo, null);
+    }
+
+    public UsuarioAutenticado(Long userId, String email, String tipo, Long clubId) {
+        this.userId = userId;
+        this.email = email;
+        this.tipo = tipo;
+        this.clubId = clubId;
+    }
+
+    /**
+     * Copia del principal con el club resuelto
+     */
+    public UsuarioAutenticado conClubId(Long clubId) {
+        return new UsuarioAutenticado(userId, email, tipo, clubId);
+    }
+
+    public Long getUserId() { return userId; }
+    public String getEmail() { return email; }
+    public String getTipo() { return tipo; }
+    public Long getClubId() { return clubId; }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
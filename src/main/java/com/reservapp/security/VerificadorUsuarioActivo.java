@@ -0,0 +1,51 @@
+package com.reservapp.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.reservapp.repository.UsuarioRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Verifica que el usuario de un token siga existiendo y activo.
+ * El resultado se guarda por userId con un TTL corto, así un usuario dado de baja
+ * deja de autenticarse en segundos sin consultar la base en cada request.
+ *
+ * La aplicación no tiene un flujo para dar de baja usuarios (se hace en la base), así que
+ * no hay invalidación explícita: el TTL es el único límite. Un usuario desactivado puede
+ * seguir autenticándose hasta {@code ttl-segundos} después del cambio.
+ */
+@Component
+public class VerificadorUsuarioActivo {
+
+    private final UsuarioRepository usuarioRepository;
+    private final Cache<Long, Boolean> activos;
+
+    public VerificadorUsuarioActivo(UsuarioRepository usuarioRepository,
+                                    @Value("${reservapp.seguridad.usuarios-activos.tamano-maximo:10000}") long tamanoMaximo,
+                                    @Value("${reservapp.seguridad.usuarios-activos.ttl-segundos:30}") long ttlSegundos,
+                                    MeterRegistry meterRegistry) {
+        this.usuarioRepository = usuarioRepository;
+        this.activos = Caffeine.newBuilder()
+                .maximumSize(tamanoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, activos, "usuarios-activos");
+    }
+
+    public boolean estaActivo(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        return activos.get(userId, id -> usuarioRepository.findById(id)
+                .map(usuario -> !Boolean.FALSE.equals(usuario.getActivo()))
+                .orElse(false));
+    }
+}
@@ -1,39 +1,52 @@
 package com.reservapp.service;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.reservapp.dto.CanchaResponseDTO;
 import com.reservapp.entity.Cancha;
-import com.reservapp.entity.ConfiguracionHorario;
+import com.reservapp.repository.CanchaRepository;
+import com.reservapp.repository.ReservaRepository;
 
 @Service
 public class CalendarioMaestroService {
     
     @Autowired
-    private CanchaService canchaService;
+    private CanchaRepository canchaRepository;
     
     @Autowired
     private ConfiguracionHorarioService configuracionHorarioService;
     
+    @Autowired
+    private ReservaService reservaService;
+    
+    public static final int MAX_DIAS_DISPONIBILIDAD = 31;
+    
     /**
      * Obtiene todas las canchas agrupadas por deporte con sus configuraciones
      */
     public Map<String, Object> getCalendarioMaestroPorClub(Long clubId) {
-        // Obtener todas las canchas del club
-        List<Cancha> canchas = canchaService.getCanchasByClub(clubId);
+        // Obtener todas las canchas del club y sus configuraciones en una sola consulta
+        CanchasClub club = cargarCanchas(clubId);
+        List<CanchaResponseDTO> canchas = club.canchas;
+        Map<Long, HorarioCompilado> horarios = club.horarios;
         
         // Agrupar por deporte
         Map<String, List<Map<String, Object>>> canchasPorDeporte = canchas.stream()
             .collect(Collectors.groupingBy(
-                Cancha::getDeporte,
-                Collectors.mapping(this::mapearCanchaConConfiguracion, Collectors.toList())
+                CanchaResponseDTO::getDeporte,
+                Collectors.mapping(cancha -> mapearCanchaConConfiguracion(cancha, horarios.get(cancha.getId())),
+                    Collectors.toList())
             ));
         
         // Obtener estadísticas generales
-        Map<String, Object> estadisticas = calcularEstadisticas(canchas);
+        Map<String, Object> estadisticas = calcularEstadisticas(canchas, horarios);
         
         Map<String, Object> resultado = new HashMap<>();
         resultado.put("canchasPorDeporte", canchasPorDeporte);
@@ -47,23 +60,28 @@ public class CalendarioMaestroService {
      * Obtiene configuraciones consolidadas por deporte
      */
     public Map<String, Object> getConfiguracionesPorDeporte(Long clubId) {
-        List<Cancha> canchas = canchaService.getCanchasByClub(clubId);
+        CanchasClub club = cargarCanchas(clubId);
+        List<CanchaResponseDTO> canchas = club.canchas;
+        Map<Long, HorarioCompilado> horarios = club.horarios;
         
         Map<String, List<Map<String, Object>>> configuracionesPorDeporte = new HashMap<>();
+        // Configuraciones guardadas de cada deporte, para calcular los valores típicos
+        Map<String, List<HorarioCompilado>> configuradasPorDeporte = new HashMap<>();
         
-        for (Cancha cancha : canchas) {
+        for (CanchaResponseDTO cancha : canchas) {
             String deporte = cancha.getDeporte();
+            HorarioCompilado horario = horarios.get(cancha.getId());
             
-            if (!configuracionesPorDeporte.containsKey(deporte)) {
-                configuracionesPorDeporte.put(deporte, new ArrayList<>());
+            configuracionesPorDeporte.computeIfAbsent(deporte, d -> new ArrayList<>())
+                .add(mapearCanchaConConfiguracion(cancha, horario));
+            if (horario != null) {
+                configuradasPorDeporte.computeIfAbsent(deporte, d -> new ArrayList<>())
+                    .add(horario);
             }
-            
-            Map<String, Object> canchaConConfig = mapearCanchaConConfiguracion(cancha);
-            configuracionesPorDeporte.get(deporte).add(canchaConConfig);
         }
         
         // Calcular configuraciones típicas por deporte
-        Map<String, Map<String, Object>> configuracionesTipicas = calcularConfiguracionesTipicas(configuracionesPorDeporte);
+        Map<String, Map<String, Object>> configuracionesTipicas = calcularConfiguracionesTipicas(configuradasPorDeporte);
         
         Map<String, Object> resultado = new HashMap<>();
         resultado.put("configuracionesPorDeporte", configuracionesPorDeporte);
@@ -73,9 +91,9 @@ public class CalendarioMaestroService {
     }
     
     /**
-     * Mapea una cancha con su configuración de horarios
+     * Mapea una cancha con su configuración de horarios (null si no tiene)
      */
-    private Map<String, Object> mapearCanchaConConfiguracion(Cancha cancha) {
+    private Map<String, Object> mapearCanchaConConfiguracion(CanchaResponseDTO cancha, HorarioCompilado horario) {
         Map<String, Object> canchaMap = new HashMap<>();
         canchaMap.put("id", cancha.getId());
         canchaMap.put("nombre", cancha.getNombre());
@@ -85,19 +103,15 @@ public class CalendarioMaestroService {
         canchaMap.put("precioPorHora", cancha.getPrecioPorHora());
         canchaMap.put("disponible", cancha.getDisponible());
         
-        // Obtener configuración de horarios
-        Optional<ConfiguracionHorario> configOpt = configuracionHorarioService.getConfiguracionPorCancha(cancha.getId());
-        
-        if (configOpt.isPresent()) {
-            ConfiguracionHorario config = configOpt.get();
+        if (horario != null) {
             Map<String, Object> configuracion = new HashMap<>();
-            configuracion.put("id", config.getId());
-            configuracion.put("horaApertura", config.getHoraApertura().toString());
-            configuracion.put("horaCierre", config.getHoraCierre().toString());
-            configuracion.put("duracionTurnoMinutos", config.getDuracionTurnoMinutos());
-            configuracion.put("diasDisponibles", config.getDiasDisponibles());
-            configuracion.put("anticipacionMinimaHoras", config.getAnticipacionMinimaHoras());
-            configuracion.put("anticipacionMaximaDias", config.getAnticipacionMaximaDias());
+            configuracion.put("id", horario.getConfiguracionId());
+            configuracion.put("horaApertura", horario.getHoraApertura().toString());
+            configuracion.put("horaCierre", horario.getHoraCierre().toString());
+            configuracion.put("duracionTurnoMinutos", horario.getDuracionTurnoMinutos());
+            configuracion.put("diasDisponibles", horario.getDiasDisponibles());
+            configuracion.put("anticipacionMinimaHoras", horario.getAnticipacionMinimaHoras());
+            configuracion.put("anticipacionMaximaDias", horario.getAnticipacionMaximaDias());
             configuracion.put("configurada", true);
             
             canchaMap.put("configuracion", configuracion);
@@ -115,17 +129,17 @@ public class CalendarioMaestroService {
     /**
      * Calcula estadísticas generales del club
      */
-    private Map<String, Object> calcularEstadisticas(List<Cancha> canchas) {
+    private Map<String, Object> calcularEstadisticas(List<CanchaResponseDTO> canchas, Map<Long, HorarioCompilado> horarios) {
         Map<String, Object> estadisticas = new HashMap<>();
         
         long totalCanchas = canchas.size();
-        long canchasDisponibles = canchas.stream().filter(Cancha::getDisponible).count();
+        long canchasDisponibles = canchas.stream().filter(CanchaResponseDTO::getDisponible).count();
         long canchasConfiguradas = canchas.stream()
-            .filter(cancha -> configuracionHorarioService.getConfiguracionPorCancha(cancha.getId()).isPresent())
+            .filter(cancha -> horarios.containsKey(cancha.getId()))
             .count();
         
         Map<String, Long> canchasPorDeporte = canchas.stream()
-            .collect(Collectors.groupingBy(Cancha::getDeporte, Collectors.counting()));
+            .collect(Collectors.groupingBy(CanchaResponseDTO::getDeporte, Collectors.counting()));
         
         estadisticas.put("totalCanchas", totalCanchas);
         estadisticas.put("canchasDisponibles", canchasDisponibles);
@@ -137,67 +151,33 @@ public class CalendarioMaestroService {
     }
     
     /**
-     * Calcula configuraciones típicas por deporte (valores más comunes)
+     * Calcula configuraciones típicas por deporte (valores más comunes) a partir de las
+     * configuraciones guardadas de cada deporte
      */
     private Map<String, Map<String, Object>> calcularConfiguracionesTipicas(
-            Map<String, List<Map<String, Object>>> configuracionesPorDeporte) {
+            Map<String, List<HorarioCompilado>> configuradasPorDeporte) {
         
         Map<String, Map<String, Object>> configuracionesTipicas = new HashMap<>();
-        
-        for (Map.Entry<String, List<Map<String, Object>>> entry : configuracionesPorDeporte.entrySet()) {
-            String deporte = entry.getKey();
-            List<Map<String, Object>> canchas = entry.getValue();
-            
-            // Filtrar solo canchas configuradas
-            List<Map<String, Object>> canchasConfiguradas = canchas.stream()
-                .filter(cancha -> {
-                    Map<String, Object> config = (Map<String, Object>) cancha.get("configuracion");
-                    return config != null && Boolean.TRUE.equals(config.get("configurada"));
-                })
-                .collect(Collectors.toList());
-            
-            if (!canchasConfiguradas.isEmpty()) {
-                Map<String, Object> configTipica = calcularValoresTipicos(canchasConfiguradas);
-                configuracionesTipicas.put(deporte, configTipica);
-            }
-        }
-        
+        configuradasPorDeporte.forEach((deporte, configuraciones) ->
+            configuracionesTipicas.put(deporte, calcularValoresTipicos(configuraciones)));
         return configuracionesTipicas;
     }
     
     /**
      * Calcula valores típicos (moda) para un conjunto de configuraciones
      */
-    private Map<String, Object> calcularValoresTipicos(List<Map<String, Object>> canchasConfiguradas) {
+    Map<String, Object> calcularValoresTipicos(List<HorarioCompilado> configuraciones) {
         Map<String, Object> valoresTipicos = new HashMap<>();
         
         // Obtener valores más comunes
-        Map<String, Long> duraciones = canchasConfiguradas.stream()
-            .collect(Collectors.groupingBy(
-                cancha -> {
-                    Map<String, Object> config = (Map<String, Object>) cancha.get("configuracion");
-                    return config.get("duracionTurnoMinutos").toString();
-                },
-                Collectors.counting()
-            ));
+        Map<String, Long> duraciones = configuraciones.stream()
+            .collect(Collectors.groupingBy(config -> String.valueOf(config.getDuracionTurnoMinutos()), Collectors.counting()));
         
-        Map<String, Long> horasApertura = canchasConfiguradas.stream()
-            .collect(Collectors.groupingBy(
-                cancha -> {
-                    Map<String, Object> config = (Map<String, Object>) cancha.get("configuracion");
-                    return config.get("horaApertura").toString();
-                },
-                Collectors.counting()
-            ));
+        Map<String, Long> horasApertura = configuraciones.stream()
+            .collect(Collectors.groupingBy(config -> config.getHoraApertura().toString(), Collectors.counting()));
         
-        Map<String, Long> horasCierre = canchasConfiguradas.stream()
-            .collect(Collectors.groupingBy(
-                cancha -> {
-                    Map<String, Object> config = (Map<String, Object>) cancha.get("configuracion");
-                    return config.get("horaCierre").toString();
-                },
-                Collectors.counting()
-            ));
+        Map<String, Long> horasCierre = configuraciones.stream()
+            .collect(Collectors.groupingBy(config -> config.getHoraCierre().toString(), Collectors.counting()));
         
         // Encontrar valores más frecuentes
         valoresTipicos.put("duracionTurnoMinutos", 
@@ -218,8 +198,137 @@ public class CalendarioMaestroService {
                 .map(Map.Entry::getKey)
                 .orElse("22:00:00"));
         
-        valoresTipicos.put("totalCanchas", canchasConfiguradas.size());
+        valoresTipicos.put("totalCanchas", configuraciones.size());
         
         return valoresTipicos;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Obtiene la grilla de disponibilidad de todas las canchas de un club para varios días.
+     * Cada día se representa como una cadena con un carácter por turno ('1' libre, '0' ocupado
+     * o fuera de la anticipación permitida), empezando en la hora de apertura de la cancha.
+     * Usa una consulta para canchas con sus configuraciones y una para reservas.
+     */
+    public Map<String, Object> getDisponibilidadPorClub(Long clubId, LocalDate desde, int dias) {
+        if (dias < 1 || dias > MAX_DIAS_DISPONIBILIDAD) {
+            throw new IllegalArgumentException("La cantidad de días debe estar entre 1 y " + MAX_DIAS_DISPONIBILIDAD);
+        }
+        
+        LocalDateTime inicioRango = desde.atStartOfDay();
+        LocalDateTime finRango = desde.plusDays(dias).atStartOfDay();
+        
+        CanchasClub club = cargarCanchas(clubId);
+        List<CanchaResponseDTO> canchas = club.canchas;
+        Map<Long, HorarioCompilado> horarios = club.horarios;
+        
+        Map<Long, List<ReservaRepository.IntervaloReserva>> ocupadas = reservaService
+            .getIntervalosOcupadosPorClub(clubId, inicioRango, finRango).stream()
+            .collect(Collectors.groupingBy(ReservaRepository.IntervaloReserva::getCanchaId));
+        
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Map<String, Object>> grilla = new ArrayList<>();
+        
+        for (CanchaResponseDTO cancha : canchas) {
+            Map<String, Object> canchaMap = new HashMap<>();
+            canchaMap.put("canchaId", cancha.getId());
+            canchaMap.put("nombre", cancha.getNombre());
+            canchaMap.put("deporte", cancha.getDeporte());
+            
+            // Las canchas sin configuración usan el horario por defecto, igual que al reservar
+            HorarioCompilado horario = horarios.getOrDefault(cancha.getId(), configuracionHorarioService.getHorarioPorDefecto());
+            List<String> disponibilidad = new ArrayList<>(dias);
+            
+            if (!Boolean.TRUE.equals(cancha.getDisponible())) {
+                // Cancha deshabilitada: sin turnos
+                for (int d = 0; d < dias; d++) {
+                    disponibilidad.add("");
+                }
+            } else {
+                canchaMap.put("horaApertura", horario.getHoraApertura().toString());
+                canchaMap.put("duracionTurnoMinutos", horario.getDuracionTurnoMinutos());
+                List<ReservaRepository.IntervaloReserva> reservas =
+                    ocupadas.getOrDefault(cancha.getId(), Collections.emptyList());
+                for (int d = 0; d < dias; d++) {
+                    disponibilidad.add(calcularTurnosDia(horario, desde.plusDays(d), reservas, ahora));
+                }
+            }
+            
+            canchaMap.put("disponibilidad", disponibilidad);
+            grilla.add(canchaMap);
+        }
+        
+        List<String> fechas = new ArrayList<>(dias);
+        for (int d = 0; d < dias; d++) {
+            fechas.add(desde.plusDays(d).toString());
+        }
+        
+        Map<String, Object> resultado = new HashMap<>();
+        resultado.put("clubId", clubId);
+        resultado.put("fechas", fechas);
+        resultado.put("canchas", grilla);
+        
+        return resultado;
+    }
+    
+    /**
+     * Calcula la cadena de turnos libres/ocupados de una cancha en un día
+     */
+    private String calcularTurnosDia(HorarioCompilado horario, LocalDate fecha,
+                                     List<ReservaRepository.IntervaloReserva> reservas, LocalDateTime ahora) {
+        int cantidadTurnos = horario.getCantidadTurnos();
+        if (cantidadTurnos == 0 || !horario.esDiaDisponible(fecha.getDayOfWeek().getValue())) {
+            return "";
+        }
+        
+        long inicioDia = fecha.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        long primerTurno = inicioDia + horario.getInicioTurno(0) * 60L;
+        long duracionSegundos = horario.getDuracionTurnoMinutos() * 60L;
+        long minimo = ahora.plusHours(horario.getAnticipacionMinimaHoras()).toEpochSecond(ZoneOffset.UTC);
+        long maximo = ahora.plusDays(horario.getAnticipacionMaximaDias()).toEpochSecond(ZoneOffset.UTC);
+        
+        char[] turnos = new char[cantidadTurnos];
+        for (int i = 0; i < cantidadTurnos; i++) {
+            long inicioTurno = primerTurno + i * duracionSegundos;
+            turnos[i] = inicioTurno >= minimo && inicioTurno <= maximo ? '1' : '0';
+        }
+        
+        // Marcar como ocupados los turnos que se solapan con reservas (extremos incluidos,
+        // igual que la verificación de conflictos al reservar)
+        for (ReservaRepository.IntervaloReserva reserva : reservas) {
+            long inicioReserva = reserva.getFechaHoraInicio().toEpochSecond(ZoneOffset.UTC);
+            long finReserva = reserva.getFechaHoraFin().toEpochSecond(ZoneOffset.UTC);
+            long desdeTurno = Math.max(0, Math.floorDiv(inicioReserva - primerTurno, duracionSegundos) - 1);
+            for (long i = desdeTurno; i < cantidadTurnos; i++) {
+                long inicioTurno = primerTurno + i * duracionSegundos;
+                if (inicioTurno > finReserva) {
+                    break;
+                }
+                if (inicioTurno + duracionSegundos >= inicioReserva) {
+                    turnos[(int) i] = '0';
+                }
+            }
+        }
+        
+        return new String(turnos);
+    }
+
+    /**
+     * Canchas del club con los horarios compilados de las que tienen configuración, en una sola
+     * consulta: findByClubId trae la configuración junto con cada cancha
+     */
+    private CanchasClub cargarCanchas(Long clubId) {
+        List<Cancha> canchas = canchaRepository.findByClubId(clubId);
+        List<CanchaResponseDTO> vistas = canchas.stream().map(CanchaResponseDTO::new).toList();
+        return new CanchasClub(vistas, configuracionHorarioService.getHorariosCompilados(canchas));
+    }
+
+    private static final class CanchasClub {
+        private final List<CanchaResponseDTO> canchas;
+        private final Map<Long, HorarioCompilado> horarios;
+
+        private CanchasClub(List<CanchaResponseDTO> canchas, Map<Long, HorarioCompilado> horarios) {
+            this.canchas = canchas;
+            this.horarios = horarios;
+        }
+    }
+}
@@ -1,54 +1,89 @@
 package com.reservapp.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.reservapp.dto.CanchaResponseDTO;
+import com.reservapp.dto.CanchaResumenDTO;
 import com.reservapp.dto.CreateCanchaRequest;
 import com.reservapp.dto.UpdateCanchaRequest;
 import com.reservapp.entity.Cancha;
 import com.reservapp.entity.Club;
+import com.reservapp.entity.ConfiguracionHorario;
 import com.reservapp.repository.CanchaRepository;
 
+/**
+ * Las respuestas de la API se arman como {@link CanchaResponseDTO} dentro de la transacción
+ * que carga la cancha: con open-in-view desactivado no hay sesión de JPA durante la serialización.
+ */
 @Service
 public class CanchaService {
+    private static final Logger log = LoggerFactory.getLogger(CanchaService.class);
+
     private final CanchaRepository canchaRepository;
     private final ClubService clubService;
+    private final CatalogoCanchas catalogoCanchas;
+    private final IndiceBusquedaClubes indiceBusquedaClubes;
 
-    public CanchaService(CanchaRepository canchaRepository, ClubService clubService) {
+    public CanchaService(CanchaRepository canchaRepository, ClubService clubService, CatalogoCanchas catalogoCanchas,
+                         IndiceBusquedaClubes indiceBusquedaClubes) {
         this.canchaRepository = canchaRepository;
         this.clubService = clubService;
+        this.catalogoCanchas = catalogoCanchas;
+        this.indiceBusquedaClubes = indiceBusquedaClubes;
+    }
+
+    // Las lecturas del catálogo se sirven desde la instantánea en memoria; toda escritura la invalida
+
+    public List<CanchaResponseDTO> getAllCanchas() {
+        return catalogoCanchas.getTodas();
     }
 
-    public List<Cancha> getAllCanchas() {
-        return canchaRepository.findAll();
+    public List<CanchaResponseDTO> getCanchasDisponibles() {
+        return catalogoCanchas.getDisponibles();
     }
 
-    public List<Cancha> getCanchasDisponibles() {
-        return canchaRepository.findByDisponibleTrue();
+    public List<CanchaResponseDTO> getCanchasByDeporte(String deporte) {
+        return catalogoCanchas.getPorDeporte(deporte);
     }
 
-    public List<Cancha> getCanchasByDeporte(String deporte) {
-        return canchaRepository.findByDeporte(deporte);
+    public List<CanchaResponseDTO> getCanchasDisponiblesByDeporte(String deporte) {
+        return catalogoCanchas.getDisponiblesPorDeporte(deporte);
     }
 
-    public List<Cancha> getCanchasDisponiblesByDeporte(String deporte) {
-        return canchaRepository.findByDeporteAndDisponibleTrue(deporte);
+    public List<CanchaResumenDTO> getResumenCanchasByClub(Long clubId) {
+        return catalogoCanchas.getPorClub(clubId).stream()
+                .map(CanchaResumenDTO::new)
+                .toList();
     }
 
     public Optional<Cancha> getCanchaById(Long id) {
         return canchaRepository.findById(id);
     }
 
-    public Cancha createCancha(Cancha cancha) {
+    @Transactional(readOnly = true)
+    public Optional<CanchaResponseDTO> getCanchaDTOById(Long id) {
+        return canchaRepository.findById(id).map(CanchaResponseDTO::new);
+    }
+
+    @Transactional
+    public CanchaResponseDTO createCancha(Cancha cancha) {
         if (cancha.getDisponible() == null) {
             cancha.setDisponible(true);
         }
-        return canchaRepository.save(cancha);
+        return new CanchaResponseDTO(guardar(cancha));
     }
 
-    public Optional<Cancha> updateCancha(Long id, Cancha canchaDetails) {
+    @Transactional
+    public Optional<CanchaResponseDTO> updateCancha(Long id, Cancha canchaDetails) {
         Optional<Cancha> canchaOptional = canchaRepository.findById(id);
         if (canchaOptional.isPresent()) {
             Cancha cancha = canchaOptional.get();
@@ -60,68 +95,151 @@ public class CanchaService {
             cancha.setHorario(canchaDetails.getHorario());
             cancha.setImagenes(canchaDetails.getImagenes());
             cancha.setDisponible(canchaDetails.getDisponible());
-            return Optional.of(canchaRepository.save(cancha));
+            return Optional.of(new CanchaResponseDTO(guardar(cancha)));
         }
         return Optional.empty();
     }
 
+    @Transactional
     public boolean deleteCancha(Long id) {
-        if (canchaRepository.existsById(id)) {
-            canchaRepository.deleteById(id);
+        Optional<Cancha> cancha = canchaRepository.findById(id);
+        if (cancha.isPresent()) {
+            canchaRepository.delete(cancha.get());
+            invalidar(cancha.get());
             return true;
         }
         return false;
     }
 
-    public Optional<Cancha> toggleDisponibilidad(Long id) {
+    @Transactional
+    public Optional<CanchaResponseDTO> toggleDisponibilidad(Long id) {
         Optional<Cancha> canchaOptional = canchaRepository.findById(id);
         if (canchaOptional.isPresent()) {
             Cancha cancha = canchaOptional.get();
             cancha.setDisponible(!cancha.getDisponible());
-            return Optional.of(canchaRepository.save(cancha));
+            return Optional.of(new CanchaResponseDTO(guardar(cancha)));
         }
         return Optional.empty();
     }
 
     public List<String> getDeportesDisponibles() {
-        List<Cancha> canchas = canchaRepository.findAll();
-        return canchas.stream()
-                .map(Cancha::getDeporte)
-                .distinct()
-                .sorted()
-                .toList();
+        return catalogoCanchas.getDeportes();
     }
 
-    public List<Cancha> getCanchasByClub(Long clubId) {
-        return canchaRepository.findByClubId(clubId);
-    }
-
-    public List<Cancha> getCanchasByPropietario(Long propietarioId) {
-        return canchaRepository.findByClubPropietarioId(propietarioId);
+    @Transactional(readOnly = true)
+    public List<CanchaResponseDTO> getCanchasByClub(Long clubId) {
+        return canchaRepository.findByClubId(clubId).stream()
+                .map(CanchaResponseDTO::new)
+                .toList();
     }
 
-    public Optional<Cancha> updateCanchaConClub(Long id, Cancha canchaDetails) {
-        Optional<Cancha> canchaOptional = canchaRepository.findById(id);
-        if (canchaOptional.isPresent()) {
-            Cancha cancha = canchaOptional.get();
-            cancha.setNombre(canchaDetails.getNombre());
-            cancha.setDescripcion(canchaDetails.getDescripcion());
-            cancha.setDeporte(canchaDetails.getDeporte());
-            cancha.setUbicacion(canchaDetails.getUbicacion());
-            cancha.setPrecioPorHora(canchaDetails.getPrecioPorHora());
-            cancha.setHorario(canchaDetails.getHorario());
-            cancha.setImagenes(canchaDetails.getImagenes());
-            cancha.setDisponible(canchaDetails.getDisponible());
-            if (canchaDetails.getClub() != null) {
-                cancha.setClub(canchaDetails.getClub());
+    /**
+     * Canchas del propietario con su club y su configuración de horarios, armadas dentro de una
+     * transacción de solo lectura (vista de "mis canchas" del panel del club). La consulta trae
+     * club, imágenes y configuración de todas las canchas juntas.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getCanchasConConfiguracionPorPropietario(Long propietarioId) {
+        List<Cancha> canchas = canchaRepository.findByClubPropietarioId(propietarioId);
+        
+        // Crear lista de canchas con configuraciones incluidas
+        List<Map<String, Object>> canchasConConfiguracion = new ArrayList<>();
+        
+        for (Cancha cancha : canchas) {
+            Map<String, Object> canchaData = new HashMap<>();
+            canchaData.put("id", cancha.getId());
+            canchaData.put("nombre", cancha.getNombre());
+            canchaData.put("descripcion", cancha.getDescripcion());
+            canchaData.put("deporte", cancha.getDeporte());
+            // La ubicación de la cancha es la dirección del club
+            String ubicacion = null;
+            if (cancha.getClub() != null && cancha.getClub().getDireccion() != null && !cancha.getClub().getDireccion().trim().isEmpty()) {
+                ubicacion = cancha.getClub().getDireccion();
+            } else if (cancha.getUbicacion() != null && !cancha.getUbicacion().trim().isEmpty()) {
+                ubicacion = cancha.getUbicacion();
+            } else {
+                // Ubicación por defecto si no hay datos
+                ubicacion = "Ubicación no especificada";
+            }
+            
+            canchaData.put("ubicacion", ubicacion);
+            canchaData.put("precioPorHora", cancha.getPrecioPorHora());
+            canchaData.put("horario", cancha.getHorario());
+            canchaData.put("disponible", cancha.getDisponible());
+            
+            // Mapear imágenes manualmente para evitar problemas de serialización
+            List<String> imagenesUrls = new ArrayList<>();
+            try {
+                List<String> imagenesOriginales = cancha.getImagenes();
+                if (imagenesOriginales != null && !imagenesOriginales.isEmpty()) {
+                    // Forzar la carga de la colección iterando sobre ella
+                    for (String imagen : imagenesOriginales) {
+                        if (imagen != null && !imagen.trim().isEmpty()) {
+                            imagenesUrls.add(imagen);
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("No se pudieron leer las imágenes de la cancha {}", cancha.getId(), e);
+            }
+            
+            // Si es una cancha de fútbol y no tiene imágenes, agregar imagen por defecto
+            boolean imagenPorDefecto = imagenesUrls.isEmpty() &&
+                cancha.getDeporte() != null && 
+                cancha.getDeporte().toLowerCase().contains("futbol");
+            if (imagenPorDefecto) {
+                imagenesUrls.add("https://grupohec.com/wp-content/uploads/2023/01/Grama-sintetica-altura.webp");
+            }
+            
+            if (log.isDebugEnabled()) {
+                log.debug("Cancha {} ({}): {} imágenes, imagen por defecto: {}",
+                        cancha.getId(), cancha.getDeporte(), imagenesUrls.size(), imagenPorDefecto);
+            }
+            
+            canchaData.put("imagenes", imagenesUrls);
+            
+            // Mapear club manualmente para evitar problemas de serialización
+            if (cancha.getClub() != null) {
+                Map<String, Object> clubData = new HashMap<>();
+                clubData.put("id", cancha.getClub().getId());
+                clubData.put("nombre", cancha.getClub().getNombre());
+                clubData.put("direccion", cancha.getClub().getDireccion());
+                clubData.put("telefono", cancha.getClub().getTelefono());
+                clubData.put("email", cancha.getClub().getEmail());
+                clubData.put("descripcion", cancha.getClub().getDescripcion());
+                
+                // Mapear servicios manualmente
+                List<String> servicios = cancha.getClub().getServicios();
+                clubData.put("servicios", servicios != null ? new ArrayList<>(servicios) : new ArrayList<>());
+                
+                canchaData.put("club", clubData);
+            }
+            
+            // Configuración de horarios de la cancha (cargada con la cancha)
+            ConfiguracionHorario configuracion = cancha.getConfiguracionHorario();
+            if (configuracion != null) {
+                Map<String, Object> configData = new HashMap<>();
+                configData.put("id", configuracion.getId());
+                configData.put("horaApertura", configuracion.getHoraApertura().toString());
+                configData.put("horaCierre", configuracion.getHoraCierre().toString());
+                configData.put("duracionTurnoMinutos", configuracion.getDuracionTurnoMinutos());
+                configData.put("diasDisponibles", configuracion.getDiasDisponibles());
+                configData.put("anticipacionMinimaHoras", configuracion.getAnticipacionMinimaHoras());
+                configData.put("anticipacionMaximaDias", configuracion.getAnticipacionMaximaDias());
+                canchaData.put("configuracionHorario", configData);
+            } else {
+                canchaData.put("configuracionHorario", null);
             }
-            return Optional.of(canchaRepository.save(cancha));
+            
+            canchasConConfiguracion.add(canchaData);
         }
-        return Optional.empty();
+        
+        return canchasConConfiguracion;
     }
 
     // Métodos que usan DTOs
-    public Cancha createCanchaFromDTO(CreateCanchaRequest request) {
+    @Transactional
+    public CanchaResponseDTO createCanchaFromDTO(CreateCanchaRequest request) {
         Optional<Club> clubOptional = clubService.obtenerClubPorId(request.getClubId());
         if (clubOptional.isEmpty()) {
             throw new RuntimeException("Club no encontrado con ID: " + request.getClubId());
@@ -152,10 +270,11 @@ public class CanchaService {
             cancha.setDisponible(request.getDisponible());
         }
         
-        return canchaRepository.save(cancha);
+        return new CanchaResponseDTO(guardar(cancha));
     }
     
-    public Optional<Cancha> updateCanchaFromDTO(Long id, UpdateCanchaRequest request) {
+    @Transactional
+    public Optional<CanchaResponseDTO> updateCanchaFromDTO(Long id, UpdateCanchaRequest request) {
         Optional<Cancha> canchaOptional = canchaRepository.findById(id);
         if (canchaOptional.isPresent()) {
             Cancha cancha = canchaOptional.get();
@@ -186,8 +305,22 @@ public class CanchaService {
                 cancha.setDisponible(request.getDisponible());
             }
             
-            return Optional.of(canchaRepository.save(cancha));
+            return Optional.of(new CanchaResponseDTO(guardar(cancha)));
         }
         return Optional.empty();
     }
-}
\ No newline at end of file
+
+    private Cancha guardar(Cancha cancha) {
+        Cancha guardada = canchaRepository.save(cancha);
+        invalidar(guardada);
+        return guardada;
+    }
+
+    // Toda escritura invalida el catálogo y vuelve a indexar el club de la cancha para la búsqueda
+    private void invalidar(Cancha cancha) {
+        catalogoCanchas.invalidar();
+        if (cancha.getClub() != null) {
+            indiceBusquedaClubes.actualizar(cancha.getClub().getId());
+        }
+    }
+}
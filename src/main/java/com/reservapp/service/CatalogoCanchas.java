@@ -0,0 +1,202 @@
+package com.reservapp.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.reservapp.dto.CanchaResponseDTO;
+import com.reservapp.entity.Cancha;
+import com.reservapp.repository.CanchaRepository;
+
+/**
+ * Instantánea en memoria del catálogo público de canchas.
+ * Guarda vistas inmutables ({@link CanchaResponseDTO}), no entidades, así ningún pedido
+ * comparte objetos administrados por JPA.
+ *
+ * El catálogo (todas las canchas con sus imágenes, agrupadas por disponibilidad, deporte y club) se
+ * carga con una sola consulta la primera vez que se pide y se sirve desde memoria hasta que una
+ * escritura lo invalida. Cada {@code recarga-ms} se vuelve a cargar completo, para tomar cambios
+ * hechos por otras instancias o directamente en la base; mientras tanto se sigue sirviendo la
+ * instantánea anterior. La lista de deportes se carga aparte con un {@code SELECT DISTINCT},
+ * así la página de inicio no necesita el catálogo completo.
+ *
+ * Cada invalidación incrementa la versión; una carga que empezó antes de una invalidación no se
+ * publica, de modo que nunca queda instalada una instantánea anterior a la última escritura.
+ */
+@Component
+public class CatalogoCanchas {
+
+    @Autowired
+    private CanchaRepository canchaRepository;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile Instantanea instantanea;
+    private volatile Deportes deportes;
+
+    public List<CanchaResponseDTO> getTodas() {
+        return obtener().todas;
+    }
+
+    public List<CanchaResponseDTO> getDisponibles() {
+        return obtener().disponibles;
+    }
+
+    /**
+     * Canchas de un deporte. Compara sin distinguir mayúsculas, como la consulta por deporte en MySQL.
+     */
+    public List<CanchaResponseDTO> getPorDeporte(String deporte) {
+        return obtener().porDeporte.getOrDefault(clave(deporte), List.of());
+    }
+
+    public List<CanchaResponseDTO> getDisponiblesPorDeporte(String deporte) {
+        return obtener().disponiblesPorDeporte.getOrDefault(clave(deporte), List.of());
+    }
+
+    /**
+     * Canchas de un club, ordenadas por ID (base de las vistas resumidas de clubes y canchas)
+     */
+    public List<CanchaResponseDTO> getPorClub(Long clubId) {
+        return obtener().porClub.getOrDefault(clubId, List.of());
+    }
+
+    /**
+     * Deportes distintos de las canchas, ordenados
+     */
+    public List<String> getDeportes() {
+        Deportes actual = deportes;
+        long versionActual = version.get();
+        if (actual != null && actual.version == versionActual) {
+            return actual.nombres;
+        }
+        return cargarDeportes(versionActual).nombres;
+    }
+
+    /**
+     * Vuelve a cargar el catálogo y los deportes sin invalidarlos, así los pedidos concurrentes
+     * siguen leyendo la instantánea anterior hasta que la nueva está lista.
+     */
+    @Scheduled(fixedDelayString = "${reservapp.catalogo.recarga-ms:300000}",
+               initialDelayString = "${reservapp.catalogo.recarga-ms:300000}")
+    public void recargar() {
+        synchronized (this) {
+            cargar(version.get());
+        }
+        cargarDeportes(version.get());
+    }
+
+    /**
+     * Descarta la instantánea. Dentro de una transacción se vuelve a invalidar después del commit,
+     * para que una lectura concurrente no reinstale los datos anteriores a la escritura.
+     */
+    public void invalidar() {
+        version.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    private Instantanea obtener() {
+        Instantanea actual = instantanea;
+        long versionActual = version.get();
+        if (actual != null && actual.version == versionActual) {
+            return actual;
+        }
+        synchronized (this) {
+            actual = instantanea;
+            versionActual = version.get();
+            if (actual != null && actual.version == versionActual) {
+                return actual;
+            }
+            return cargar(versionActual);
+        }
+    }
+
+    // Se publica solo si no hubo una invalidación durante la carga
+    private Instantanea cargar(long versionActual) {
+        Instantanea cargada = new Instantanea(versionActual, canchaRepository.findAllConImagenes());
+        if (version.get() == versionActual) {
+            instantanea = cargada;
+        }
+        return cargada;
+    }
+
+    private Deportes cargarDeportes(long versionActual) {
+        Deportes cargados = new Deportes(versionActual,
+                Collections.unmodifiableList(canchaRepository.findDeportesDistintos()));
+        if (version.get() == versionActual) {
+            deportes = cargados;
+        }
+        return cargados;
+    }
+
+    private static String clave(String deporte) {
+        return deporte == null ? "" : deporte.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Deportes {
+        private final long version;
+        private final List<String> nombres;
+
+        private Deportes(long version, List<String> nombres) {
+            this.version = version;
+            this.nombres = nombres;
+        }
+    }
+
+    private static final class Instantanea {
+        private final long version;
+        private final List<CanchaResponseDTO> todas;
+        private final List<CanchaResponseDTO> disponibles;
+        private final Map<String, List<CanchaResponseDTO>> porDeporte;
+        private final Map<String, List<CanchaResponseDTO>> disponiblesPorDeporte;
+        private final Map<Long, List<CanchaResponseDTO>> porClub;
+
+        private Instantanea(long version, List<Cancha> canchas) {
+            this.version = version;
+            List<CanchaResponseDTO> vistas = new ArrayList<>(canchas.size());
+            List<CanchaResponseDTO> soloDisponibles = new ArrayList<>();
+            Map<String, List<CanchaResponseDTO>> agrupadas = new HashMap<>();
+            Map<String, List<CanchaResponseDTO>> agrupadasDisponibles = new HashMap<>();
+            Map<Long, List<CanchaResponseDTO>> agrupadasPorClub = new HashMap<>();
+            for (Cancha entidad : canchas) {
+                CanchaResponseDTO cancha = new CanchaResponseDTO(entidad);
+                vistas.add(cancha);
+                String clave = clave(cancha.getDeporte());
+                agrupadas.computeIfAbsent(clave, k -> new ArrayList<>()).add(cancha);
+                if (cancha.getClubId() != null) {
+                    agrupadasPorClub.computeIfAbsent(cancha.getClubId(), k -> new ArrayList<>()).add(cancha);
+                }
+                if (Boolean.TRUE.equals(cancha.getDisponible())) {
+                    soloDisponibles.add(cancha);
+                    agrupadasDisponibles.computeIfAbsent(clave, k -> new ArrayList<>()).add(cancha);
+                }
+            }
+            this.todas = Collections.unmodifiableList(vistas);
+            this.disponibles = Collections.unmodifiableList(soloDisponibles);
+            this.porDeporte = inmutable(agrupadas);
+            this.disponiblesPorDeporte = inmutable(agrupadasDisponibles);
+            this.porClub = inmutable(agrupadasPorClub);
+        }
+
+        private static <K> Map<K, List<CanchaResponseDTO>> inmutable(Map<K, List<CanchaResponseDTO>> mapa) {
+            Map<K, List<CanchaResponseDTO>> copia = new HashMap<>();
+            mapa.forEach((clave, lista) -> copia.put(clave, Collections.unmodifiableList(lista)));
+            return Collections.unmodifiableMap(copia);
+        }
+    }
+}
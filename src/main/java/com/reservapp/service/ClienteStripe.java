@@ -0,0 +1,162 @@
+package com.reservapp.service;
+
+import com.reservapp.exception.StripeNoDisponibleException;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.StripeException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ejecuta las llamadas a Stripe fuera de los hilos de Tomcat.
+ *
+ * Cada llamada corre en el pool {@code stripeClienteExecutor}, que limita la concurrencia
+ * (si está lleno la llamada se rechaza de inmediato), tiene un tiempo máximo de respuesta y
+ * pasa por un circuito simple: tras {@code fallos-para-abrir} errores seguidos de conexión,
+ * timeout o 5xx, las llamadas se rechazan durante {@code apertura-ms}; pasado ese tiempo vuelven
+ * a aceptarse, pero un solo fallo más lo abre de nuevo. Los errores 4xx de Stripe no cuentan
+ * como fallo del servicio.
+ */
+@Component
+public class ClienteStripe {
+
+    /**
+     * Llamada bloqueante a la API de Stripe
+     */
+    @FunctionalInterface
+    public interface LlamadaStripe<T> {
+        T ejecutar() throws StripeException;
+    }
+
+    @Autowired
+    @Qualifier("stripeClienteExecutor")
+    private Executor executor;
+
+    @Value("${reservapp.stripe.cliente.timeout-ms:10000}")
+    private long timeoutMs;
+
+    @Value("${reservapp.stripe.cliente.fallos-para-abrir:5}")
+    private int fallosParaAbrir;
+
+    @Value("${reservapp.stripe.cliente.apertura-ms:30000}")
+    private long aperturaMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicInteger fallosSeguidos = new AtomicInteger();
+    private final AtomicLong abiertoHasta = new AtomicLong();
+
+    @PostConstruct
+    public void registrarMetricas() {
+        Gauge.builder("stripe.circuito.abierto", this, cliente -> cliente.abiertoHasta.get() > System.currentTimeMillis() ? 1 : 0)
+                .description("1 si las llamadas a Stripe se están rechazando por el circuito abierto")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta la llamada en el pool de Stripe. El futuro falla con
+     * {@link StripeNoDisponibleException} si el circuito está abierto, el pool está lleno o se
+     * supera el tiempo máximo, y con la {@link StripeException} original si Stripe responde un error.
+     */
+    public <T> CompletableFuture<T> ejecutar(LlamadaStripe<T> llamada) {
+        long inicio = System.nanoTime();
+        if (circuitoAbierto()) {
+            registrarLlamada(inicio, "circuito_abierto");
+            return CompletableFuture.failedFuture(
+                    new StripeNoDisponibleException("El servicio de pagos no está disponible, intentá más tarde"));
+        }
+
+        CompletableFuture<T> resultado;
+        try {
+            resultado = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return llamada.ejecutar();
+                } catch (StripeException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            registrarLlamada(inicio, "sin_cupo");
+            return CompletableFuture.failedFuture(
+                    new StripeNoDisponibleException("Demasiados pagos en curso, intentá nuevamente", e));
+        }
+
+        return resultado
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .handle((valor, error) -> {
+                    if (error == null) {
+                        fallosSeguidos.set(0);
+                        registrarLlamada(inicio, "exito");
+                        return valor;
+                    }
+                    Throwable causa = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (esFalloDelServicio(causa)) {
+                        registrarFallo();
+                    }
+                    registrarLlamada(inicio, causa instanceof TimeoutException ? "timeout"
+                            : causa instanceof StripeException ? "error_stripe" : "error");
+                    if (causa instanceof TimeoutException) {
+                        throw new StripeNoDisponibleException("El servicio de pagos no respondió a tiempo", causa);
+                    }
+                    throw new CompletionException(causa);
+                });
+    }
+
+    private void registrarLlamada(long inicio, String resultado) {
+        Timer.builder("stripe.llamadas")
+                .description("Llamadas a la API de Stripe")
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+    }
+
+    private boolean circuitoAbierto() {
+        long hasta = abiertoHasta.get();
+        if (hasta == 0) {
+            return false;
+        }
+        if (System.currentTimeMillis() < hasta) {
+            return true;
+        }
+        // Vencida la apertura se vuelve a cerrar, pero el primer fallo lo abre de nuevo
+        if (abiertoHasta.compareAndSet(hasta, 0)) {
+            fallosSeguidos.set(fallosParaAbrir - 1);
+        }
+        return false;
+    }
+
+    private void registrarFallo() {
+        if (fallosSeguidos.incrementAndGet() >= fallosParaAbrir) {
+            fallosSeguidos.set(0);
+            abiertoHasta.set(System.currentTimeMillis() + aperturaMs);
+        }
+    }
+
+    private static boolean esFalloDelServicio(Throwable causa) {
+        if (causa instanceof TimeoutException || causa instanceof ApiConnectionException) {
+            return true;
+        }
+        if (causa instanceof StripeException) {
+            Integer status = ((StripeException) causa).getStatusCode();
+            return status == null || status >= 500;
+        }
+        return false;
+    }
+}
@@ -1,12 +1,30 @@
 package com.reservapp.service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import com.reservapp.dto.CanchaResponseDTO;
+import com.reservapp.dto.ClubResponseDTO;
+import com.reservapp.dto.ClubResumenDTO;
 import com.reservapp.entity.Club;
 import com.reservapp.entity.Usuario;
 import com.reservapp.repository.ClubRepository;
@@ -18,13 +36,33 @@ public class ClubService {
     @Autowired
     private ClubRepository clubRepository;
 
+    @Autowired
+    private CatalogoCanchas catalogoCanchas;
+
+    @Autowired
+    private IndiceBusquedaClubes indiceBusquedaClubes;
+
     @Autowired
     private UsuarioService usuarioService;
 
+    // ID del club de cada propietario, usado para resolver el principal en cada request
+    private final Cache<Long, Optional<Long>> clubPorPropietario;
+
+    public ClubService(@Value("${reservapp.cache.club-propietario.tamano-maximo:10000}") long tamanoMaximo,
+                       @Value("${reservapp.cache.club-propietario.ttl-minutos:10}") long ttlMinutos,
+                       MeterRegistry meterRegistry) {
+        this.clubPorPropietario = Caffeine.newBuilder()
+                .maximumSize(tamanoMaximo)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, clubPorPropietario, "club-propietario");
+    }
+
     /**
      * Crear un nuevo club
      */
-    public Club crearClub(Club club) {
+    public ClubResponseDTO crearClub(Club club) {
         // Validar que el propietario sea de tipo CLUB
         Usuario propietario = club.getPropietario();
         if (propietario == null || !"CLUB".equals(propietario.getTipo())) {
@@ -41,7 +79,10 @@ public class ClubService {
             throw new IllegalArgumentException("Ya existe un club con ese nombre");
         }
 
-        return clubRepository.save(club);
+        Club guardado = clubRepository.save(club);
+        invalidarClubPropietario(propietario.getId());
+        indiceBusquedaClubes.actualizar(guardado.getId());
+        return new ClubResponseDTO(guardado);
     }
 
     /**
@@ -52,6 +93,14 @@ public class ClubService {
         return clubRepository.findById(id);
     }
 
+    /**
+     * Obtener la vista de un club por ID
+     */
+    @Transactional(readOnly = true)
+    public Optional<ClubResponseDTO> obtenerClubDTOPorId(Long id) {
+        return clubRepository.findById(id).map(ClubResponseDTO::new);
+    }
+
     /**
      * Obtener club por propietario
      */
@@ -69,33 +118,43 @@ public class ClubService {
     }
 
     /**
-     * Obtener todos los clubes activos
+     * Obtener el ID del club de un propietario (null si no tiene), desde la caché.
+     * No abre transacción para que los aciertos de caché no tomen una conexión.
      */
-    @Transactional(readOnly = true)
-    public List<Club> obtenerClubesActivos() {
-        return clubRepository.findByActivoTrue();
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Long obtenerClubIdPorPropietarioId(Long propietarioId) {
+        return clubPorPropietario.get(propietarioId,
+                id -> clubRepository.findByPropietarioId(id).map(Club::getId)).orElse(null);
     }
 
     /**
-     * Buscar clubes por nombre
+     * Obtener todos los clubes activos (vista resumida)
      */
     @Transactional(readOnly = true)
-    public List<Club> buscarClubsPorNombre(String nombre) {
-        return clubRepository.findByNombreContainingIgnoreCaseAndActivoTrue(nombre);
+    public List<ClubResumenDTO> obtenerClubesActivos() {
+        return resumir(clubRepository.findResumenActivos());
     }
 
     /**
-     * Buscar clubes por ciudad
+     * Buscar clubes activos por texto libre y/o por nombre, ciudad, deporte o servicio, ordenados por
+     * relevancia (vista resumida). Se resuelve con el índice en memoria, sin consultar la base.
      */
-    @Transactional(readOnly = true)
-    public List<Club> buscarClubsPorCiudad(String ciudad) {
-        return clubRepository.findByCiudadContainingIgnoreCaseAndActivoTrue(ciudad);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ClubResumenDTO> buscarClubes(String texto, String nombre, String ciudad, String deporte, String servicio) {
+        Map<IndiceBusquedaClubes.Campo, String> filtros = new EnumMap<>(IndiceBusquedaClubes.Campo.class);
+        filtros.put(IndiceBusquedaClubes.Campo.NOMBRE, nombre);
+        filtros.put(IndiceBusquedaClubes.Campo.DIRECCION, ciudad);
+        filtros.put(IndiceBusquedaClubes.Campo.DEPORTES, deporte);
+        filtros.put(IndiceBusquedaClubes.Campo.SERVICIOS, servicio);
+        return indiceBusquedaClubes.buscar(texto, filtros).stream()
+                .map(club -> resumir(club.getId(), club.getNombre(), club.getDireccion()))
+                .toList();
     }
 
     /**
      * Actualizar información del club
      */
-    public Club actualizarClub(Long id, Club clubActualizado) {
+    public ClubResponseDTO actualizarClub(Long id, Club clubActualizado) {
         Club club = clubRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Club no encontrado"));
 
@@ -117,13 +176,15 @@ public class ClubService {
         club.setPoliticasCancelacion(clubActualizado.getPoliticasCancelacion());
         club.setReglasGenerales(clubActualizado.getReglasGenerales());
 
-        return clubRepository.save(club);
+        Club guardado = clubRepository.save(club);
+        indiceBusquedaClubes.actualizar(id);
+        return new ClubResponseDTO(guardado);
     }
 
     /**
      * Transferir propiedad del club a otro usuario
      */
-    public Club transferirPropiedad(Long clubId, Long nuevoPropietarioId) {
+    public ClubResponseDTO transferirPropiedad(Long clubId, Long nuevoPropietarioId) {
         Club club = clubRepository.findById(clubId)
             .orElseThrow(() -> new RuntimeException("Club no encontrado"));
 
@@ -140,8 +201,12 @@ public class ClubService {
             throw new IllegalArgumentException("El nuevo propietario ya tiene un club registrado");
         }
 
+        Long propietarioAnteriorId = club.getPropietario().getId();
         club.setPropietario(nuevoPropietario);
-        return clubRepository.save(club);
+        Club guardado = clubRepository.save(club);
+        invalidarClubPropietario(propietarioAnteriorId);
+        invalidarClubPropietario(nuevoPropietario.getId());
+        return new ClubResponseDTO(guardado);
     }
 
     /**
@@ -153,17 +218,22 @@ public class ClubService {
         
         club.setActivo(false);
         clubRepository.save(club);
+        invalidarClubPropietario(club.getPropietario().getId());
+        indiceBusquedaClubes.actualizar(id);
     }
 
     /**
      * Reactivar club
      */
-    public Club reactivarClub(Long id) {
+    public ClubResponseDTO reactivarClub(Long id) {
         Club club = clubRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Club no encontrado"));
         
         club.setActivo(true);
-        return clubRepository.save(club);
+        Club guardado = clubRepository.save(club);
+        invalidarClubPropietario(club.getPropietario().getId());
+        indiceBusquedaClubes.actualizar(id);
+        return new ClubResponseDTO(guardado);
     }
 
     /**
@@ -181,4 +251,41 @@ public class ClubService {
     public long contarClubesActivos() {
         return clubRepository.countByActivoTrue();
     }
-}
\ No newline at end of file
+
+    // Completa los resúmenes con los deportes, el precio mínimo y una miniatura de las canchas de
+    // cada club, tomados de la instantánea del catálogo sin volver a consultar la base
+    private List<ClubResumenDTO> resumir(List<ClubRepository.ClubResumen> clubes) {
+        return clubes.stream()
+                .map(club -> resumir(club.getId(), club.getNombre(), club.getDireccion()))
+                .toList();
+    }
+
+    private ClubResumenDTO resumir(Long id, String nombre, String direccion) {
+        Set<String> deportes = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        Double precioMinimo = null;
+        String imagen = null;
+        for (CanchaResponseDTO cancha : catalogoCanchas.getPorClub(id)) {
+            deportes.add(cancha.getDeporte());
+            if (precioMinimo == null || cancha.getPrecioPorHora() < precioMinimo) {
+                precioMinimo = cancha.getPrecioPorHora();
+            }
+            if (imagen == null && cancha.getImagenes() != null && !cancha.getImagenes().isEmpty()) {
+                imagen = cancha.getImagenes().get(0);
+            }
+        }
+        return new ClubResumenDTO(id, nombre, direccion, new ArrayList<>(deportes), precioMinimo, imagen);
+    }
+
+    // Se invalida ahora y de nuevo tras el commit, para no dejar en caché un valor leído antes del commit
+    private void invalidarClubPropietario(Long propietarioId) {
+        clubPorPropietario.invalidate(propietarioId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clubPorPropietario.invalidate(propietarioId);
+                }
+            });
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package com.reservapp.service;
 
+import java.time.Duration;
 import java.time.LocalTime;
 import java.time.LocalDateTime;
-import java.time.DayOfWeek;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 import com.reservapp.entity.Cancha;
 import com.reservapp.entity.ConfiguracionHorario;
@@ -25,11 +35,85 @@ public class ConfiguracionHorarioService {
     @Autowired
     private CanchaRepository canchaRepository;
 
+    // Horario que se aplica, solo en memoria, a las canchas sin configuración guardada
+    private static final HorarioCompilado HORARIO_POR_DEFECTO = new HorarioCompilado(nuevaConfiguracionPorDefecto(null));
+
+    // Caché de horarios compilados por ID de cancha (también guarda la ausencia de configuración)
+    private final Cache<Long, Optional<HorarioCompilado>> cache;
+
+    public ConfiguracionHorarioService(
+            @Value("${reservapp.cache.configuracion-horarios.tamano-maximo:10000}") long tamanoMaximo,
+            @Value("${reservapp.cache.configuracion-horarios.ttl-minutos:10}") long ttlMinutos,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanoMaximo)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "configuracion-horarios");
+    }
+
+    /**
+     * Obtiene el horario compilado de una cancha, compilándolo solo cuando no está en caché
+     */
+    public Optional<HorarioCompilado> getHorarioCompilado(Long canchaId) {
+        return cache.get(canchaId, id -> configuracionHorarioRepository.findByCanchaId(id).map(HorarioCompilado::new));
+    }
+
+    /**
+     * Obtiene el horario efectivo de una cancha: el configurado o, si no tiene, el horario
+     * por defecto en memoria (sin escribir en la base)
+     */
+    public HorarioCompilado resolverHorario(Long canchaId) {
+        return getHorarioCompilado(canchaId).orElse(HORARIO_POR_DEFECTO);
+    }
+
+    /**
+     * Obtiene el horario por defecto que se aplica a las canchas sin configuración
+     */
+    public HorarioCompilado getHorarioPorDefecto() {
+        return HORARIO_POR_DEFECTO;
+    }
+
+    /**
+     * Obtiene los horarios compilados de canchas ya cargadas con su configuración (sin consultar
+     * la base), reutilizando los que ya estén en caché para la misma configuración
+     */
+    public Map<Long, HorarioCompilado> getHorariosCompilados(List<Cancha> canchas) {
+        Map<Long, HorarioCompilado> horarios = new HashMap<>();
+        for (Cancha cancha : canchas) {
+            ConfiguracionHorario config = cancha.getConfiguracionHorario();
+            if (config == null) {
+                continue;
+            }
+            Long canchaId = cancha.getId();
+            Optional<HorarioCompilado> enCache = cache.getIfPresent(canchaId);
+            HorarioCompilado horario;
+            if (enCache != null && enCache.isPresent() && config.getId().equals(enCache.get().getConfiguracionId())) {
+                horario = enCache.get();
+            } else {
+                horario = new HorarioCompilado(config);
+                cache.put(canchaId, Optional.of(horario));
+            }
+            horarios.put(canchaId, horario);
+        }
+        return horarios;
+    }
+
     /**
-     * Obtiene la configuración de horarios de una cancha
+     * Invalida la entrada de una cancha ahora y, si hay una transacción activa, otra vez
+     * después del commit, para que una lectura concurrente no deje en caché el valor viejo
      */
-    public Optional<ConfiguracionHorario> getConfiguracionPorCancha(Long canchaId) {
-        return configuracionHorarioRepository.findByCanchaId(canchaId);
+    private void invalidarCache(Long canchaId) {
+        cache.invalidate(canchaId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(canchaId);
+                }
+            });
+        }
     }
 
     /**
@@ -63,54 +147,29 @@ public class ConfiguracionHorarioService {
             config.setCancha(cancha);
         }
 
-        return configuracionHorarioRepository.save(config);
+        ConfiguracionHorario guardada = configuracionHorarioRepository.save(config);
+        invalidarCache(canchaId);
+        return guardada;
     }
 
     /**
      * Genera los horarios disponibles para una fecha específica
      */
     public List<String> getHorariosDisponibles(Long canchaId, LocalDateTime fecha) {
-        Optional<ConfiguracionHorario> configOpt = getConfiguracionPorCancha(canchaId);
-        if (configOpt.isEmpty()) {
-            return new ArrayList<>(); // Sin configuración, sin horarios
-        }
+        HorarioCompilado horario = resolverHorario(canchaId);
 
-        ConfiguracionHorario config = configOpt.get();
-        List<String> horarios = new ArrayList<>();
-
-        // Verificar si el día de la semana está disponible
-        DayOfWeek diaSemana = fecha.getDayOfWeek();
-        int diaNumero = diaSemana.getValue(); // 1=Lunes, 7=Domingo
-        
-        if (!config.esDiaDisponible(diaNumero)) {
-            return horarios; // Día no disponible
+        // Verificar si el día de la semana está disponible (1=Lunes, 7=Domingo)
+        if (!horario.esDiaDisponible(fecha.getDayOfWeek().getValue())) {
+            return new ArrayList<>(); // Día no disponible
         }
 
         // Verificar anticipación mínima y máxima
-        LocalDateTime ahora = LocalDateTime.now();
-        LocalDateTime fechaMinima = ahora.plusHours(config.getAnticipacionMinimaHoras());
-        LocalDateTime fechaMaxima = ahora.plusDays(config.getAnticipacionMaximaDias());
-
-        if (fecha.isBefore(fechaMinima) || fecha.isAfter(fechaMaxima)) {
-            return horarios; // Fuera del rango de anticipación
-        }
-
-        // Generar horarios del día
-        LocalTime horaActual = config.getHoraApertura();
-        LocalTime horaCierre = config.getHoraCierre();
-        int duracionMinutos = config.getDuracionTurnoMinutos();
-
-        while (horaActual.plusMinutes(duracionMinutos).isBefore(horaCierre) || 
-               horaActual.plusMinutes(duracionMinutos).equals(horaCierre)) {
-            
-            LocalTime horaFin = horaActual.plusMinutes(duracionMinutos);
-            String horario = horaActual.toString() + " - " + horaFin.toString();
-            horarios.add(horario);
-            
-            horaActual = horaFin;
+        if (!horario.dentroDeAnticipacion(fecha, LocalDateTime.now())) {
+            return new ArrayList<>(); // Fuera del rango de anticipación
         }
 
-        return horarios;
+        // Los turnos del día ya están precalculados
+        return horario.getTurnos();
     }
 
     /**
@@ -123,16 +182,42 @@ public class ConfiguracionHorarioService {
             throw new RuntimeException("Cancha no encontrada");
         }
 
+        ConfiguracionHorario config = nuevaConfiguracionPorDefecto(canchaOpt.get());
+
+        ConfiguracionHorario guardada = configuracionHorarioRepository.save(config);
+        invalidarCache(canchaId);
+        return guardada;
+    }
+
+    /**
+     * Persiste la configuración por defecto para todas las canchas que todavía no tienen una
+     */
+    @Transactional
+    public int materializarConfiguracionesPorDefecto() {
+        List<ConfiguracionHorario> nuevas = new ArrayList<>();
+        for (Cancha cancha : canchaRepository.findSinConfiguracionHorario()) {
+            nuevas.add(nuevaConfiguracionPorDefecto(cancha));
+        }
+        configuracionHorarioRepository.saveAll(nuevas);
+        for (ConfiguracionHorario config : nuevas) {
+            invalidarCache(config.getCancha().getId());
+        }
+        return nuevas.size();
+    }
+
+    /**
+     * Construye (sin guardar) una configuración con los valores por defecto
+     */
+    private static ConfiguracionHorario nuevaConfiguracionPorDefecto(Cancha cancha) {
         ConfiguracionHorario config = new ConfiguracionHorario();
-        config.setCancha(canchaOpt.get());
+        config.setCancha(cancha);
         config.setHoraApertura(LocalTime.of(9, 0)); // 9:00 AM
         config.setHoraCierre(LocalTime.of(22, 0)); // 10:00 PM
         config.setDuracionTurnoMinutos(60); // 1 hora por defecto
         config.setDiasDisponibles("1,2,3,4,5,6,7"); // Todos los días
         config.setAnticipacionMinimaHoras(1); // 1 hora mínima
         config.setAnticipacionMaximaDias(30); // 30 días máximo
-
-        return configuracionHorarioRepository.save(config);
+        return config;
     }
 
     /**
@@ -141,53 +226,14 @@ public class ConfiguracionHorarioService {
     @Transactional
     public void eliminarConfiguracion(Long canchaId) {
         configuracionHorarioRepository.deleteByCanchaId(canchaId);
+        invalidarCache(canchaId);
     }
 
     /**
      * Valida si un horario específico está dentro de la configuración
      */
     public boolean validarHorario(Long canchaId, LocalDateTime inicio, LocalDateTime fin) {
-        Optional<ConfiguracionHorario> configOpt = getConfiguracionPorCancha(canchaId);
-        if (configOpt.isEmpty()) {
-            // Si no hay configuración, crear una por defecto y permitir la reserva
-            crearConfiguracionPorDefecto(canchaId);
-            return true;
-        }
-
-        ConfiguracionHorario config = configOpt.get();
-        
-        // Verificar día de la semana
-        DayOfWeek diaSemana = inicio.getDayOfWeek();
-        if (!config.esDiaDisponible(diaSemana.getValue())) {
-            return false;
-        }
-
-        // Verificar horarios
-        LocalTime horaInicio = inicio.toLocalTime();
-        LocalTime horaFin = fin.toLocalTime();
-        
-        if (horaInicio.isBefore(config.getHoraApertura()) || 
-            horaFin.isAfter(config.getHoraCierre())) {
-            return false;
-        }
-
-        // Verificar duración del turno (más flexible - debe ser múltiplo de la duración configurada)
-        long duracionMinutos = java.time.Duration.between(inicio, fin).toMinutes();
-        if (duracionMinutos <= 0) {
-            return false;
-        }
-        
-        // Permitir duraciones que sean múltiplos de la duración configurada
-        int duracionConfigMinutos = config.getDuracionTurnoMinutos();
-        if (duracionMinutos % duracionConfigMinutos != 0) {
-            return false;
-        }
-
-        // Verificar anticipación
-        LocalDateTime ahora = LocalDateTime.now();
-        LocalDateTime fechaMinima = ahora.plusHours(config.getAnticipacionMinimaHoras());
-        LocalDateTime fechaMaxima = ahora.plusDays(config.getAnticipacionMaximaDias());
-
-        return !inicio.isBefore(fechaMinima) && !inicio.isAfter(fechaMaxima);
+        // Sin configuración se valida contra el horario por defecto, sin crearlo en la base
+        return resolverHorario(canchaId).admite(inicio, fin, LocalDateTime.now());
     }
 }
\ No newline at end of file
@@ -0,0 +1,265 @@
+package com.reservapp.service;
+
+import com.reservapp.entity.Reserva;
+import com.reservapp.repository.ReservaRepository;
+import com.stripe.exception.InvalidRequestException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.checkout.Session;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Libera los turnos retenidos por reservas que quedaron pendientes de pago.
+ *
+ * Una reserva PENDIENTE bloquea su turno durante {@code pendiente.ttl-minutos}. En cada ciclo
+ * se buscan las vencidas por el índice (estado, fecha_creacion) y se cancelan todas con un solo
+ * UPDATE que vuelve a exigir estado PENDIENTE, así una reserva pagada entre la búsqueda y el
+ * UPDATE no se toca. Luego se quitan del índice de ocupación y se cierra en Stripe la sesión
+ * o el PaymentIntent que hubiera quedado abierto. Si Stripe no responde o devuelve otro error,
+ * la reserva queda marcada con cierre pendiente y se reintenta en los ciclos siguientes.
+ *
+ * Cada ciclo hace como mucho {@code cierres-por-ciclo} cierres en Stripe, con a lo sumo
+ * {@code cierres-concurrentes} en curso, para no ocupar el pool de {@link ClienteStripe} que
+ * comparten los pagos de los usuarios. Las que no entran en el ciclo quedan con cierre pendiente.
+ */
+@Component
+public class ExpiradorReservasPendientes {
+
+    // Estados de un PaymentIntent que todavía se pueden cancelar
+    private static final Set<String> PAGOS_CANCELABLES = Set.of("requires_payment_method",
+            "requires_confirmation", "requires_action", "requires_capture", "processing");
+
+    // Errores de Stripe que indican que no hay nada que cerrar: no existe o ya no admite el cambio
+    private static final Set<String> ERRORES_YA_CERRADO = Set.of("resource_missing", "payment_intent_unexpected_state");
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private IndiceOcupacionCanchas indiceOcupacion;
+
+    @Autowired
+    private ClienteStripe clienteStripe;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${reservapp.reservas.pendiente.ttl-minutos:15}")
+    private long ttlMinutos;
+
+    @Value("${reservapp.reservas.pendiente.tamano-lote:500}")
+    private int tamanoLote;
+
+    @Value("${reservapp.reservas.pendiente.cierres-por-ciclo:100}")
+    private int cierresPorCiclo;
+
+    @Value("${reservapp.reservas.pendiente.cierres-concurrentes:4}")
+    private int cierresConcurrentes;
+
+    private final AtomicLong ciclos = new AtomicLong();
+    private final AtomicLong reservasVencidas = new AtomicLong();
+    private final AtomicLong ultimaDuracionMs = new AtomicLong();
+    private final AtomicLong ultimoRetrasoMs = new AtomicLong();
+    private final AtomicLong cierresFallidos = new AtomicLong();
+
+    @PostConstruct
+    public void registrarMetricas() {
+        FunctionCounter.builder("reservas.pendientes.vencidas", this, ExpiradorReservasPendientes::getReservasVencidas)
+                .description("Reservas pendientes canceladas por vencimiento")
+                .register(meterRegistry);
+        FunctionCounter.builder("reservas.pendientes.ciclos", this, ExpiradorReservasPendientes::getCiclos)
+                .description("Ciclos del expirador de reservas pendientes")
+                .register(meterRegistry);
+        FunctionCounter.builder("reservas.pendientes.cierres.fallidos", this, ExpiradorReservasPendientes::getCierresFallidos)
+                .description("Cierres de pagos en Stripe que fallaron y quedaron para reintentar")
+                .register(meterRegistry);
+        Gauge.builder("reservas.pendientes.ultimo.ciclo", this, ExpiradorReservasPendientes::getUltimaDuracionMs)
+                .description("Duración del último ciclo del expirador")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("reservas.pendientes.retraso", this, ExpiradorReservasPendientes::getUltimoRetrasoMs)
+                .description("Tiempo entre el vencimiento y la liberación de la reserva más antigua del último ciclo")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Vence un lote de reservas pendientes. Si el lote vino completo, el siguiente ciclo
+     * sigue con el resto.
+     */
+    @Scheduled(fixedDelayString = "${reservapp.reservas.pendiente.intervalo-ms:30000}")
+    public void vencerPendientes() {
+        long inicio = System.currentTimeMillis();
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime limite = ahora.minusMinutes(ttlMinutos);
+
+        int cupoCierres = cierresPorCiclo - reintentarCierresEnStripe();
+
+        List<ReservaRepository.ReservaVencida> candidatas =
+                reservaRepository.findPendientesVencidas(limite, PageRequest.of(0, tamanoLote));
+        if (candidatas.isEmpty()) {
+            ultimoRetrasoMs.set(0);
+            registrarCiclo(inicio);
+            return;
+        }
+
+        List<Long> ids = new ArrayList<>(candidatas.size());
+        for (ReservaRepository.ReservaVencida candidata : candidatas) {
+            ids.add(candidata.getId());
+        }
+        int vencidas = reservaRepository.vencerPendientes(ids, limite,
+                Reserva.EstadoReserva.PENDIENTE, Reserva.EstadoReserva.CANCELADA);
+
+        // Si alguna se confirmó mientras tanto debe seguir en el índice
+        Set<Long> siguenActivas = vencidas == ids.size()
+                ? Set.of() : new HashSet<>(reservaRepository.findIdsActivos(ids));
+
+        List<ReservaRepository.ReservaVencida> conPago = new ArrayList<>();
+        for (ReservaRepository.ReservaVencida candidata : candidatas) {
+            if (!siguenActivas.contains(candidata.getId())) {
+                indiceOcupacion.quitar(candidata.getCanchaId(), candidata.getId());
+                if (candidata.getStripeSessionId() != null || candidata.getStripePaymentIntentId() != null) {
+                    conPago.add(candidata);
+                }
+            }
+        }
+
+        // Las que no entran en el cupo del ciclo o cuyo cierre falló se reintentan en los siguientes
+        List<ReservaRepository.ReservaVencida> aCerrar = conPago.subList(0, Math.min(conPago.size(), Math.max(cupoCierres, 0)));
+        Set<Long> cerradas = new HashSet<>(cerrarPagosEnStripe(aCerrar));
+        List<Long> sinCerrar = new ArrayList<>();
+        for (ReservaRepository.ReservaVencida reserva : conPago) {
+            if (!cerradas.contains(reserva.getId())) {
+                sinCerrar.add(reserva.getId());
+            }
+        }
+        if (!sinCerrar.isEmpty()) {
+            reservaRepository.marcarCierreStripePendiente(sinCerrar, true);
+        }
+        cierresFallidos.addAndGet(aCerrar.size() - cerradas.size());
+
+        // Retraso: cuánto tiempo después de vencer se liberó la reserva más antigua del lote
+        LocalDateTime vencio = candidatas.get(0).getFechaCreacion().plusMinutes(ttlMinutos);
+        ultimoRetrasoMs.set(Math.max(0, Duration.between(vencio, ahora).toMillis()));
+        reservasVencidas.addAndGet(vencidas);
+        registrarCiclo(inicio);
+    }
+
+    // Reintenta los cierres pendientes de ciclos anteriores, dentro del cupo del ciclo; los que siguen
+    // fallando quedan marcados. Devuelve la cantidad de cierres intentados
+    private int reintentarCierresEnStripe() {
+        List<ReservaRepository.ReservaVencida> pendientes =
+                reservaRepository.findCierresStripePendientes(PageRequest.of(0, cierresPorCiclo));
+        List<Long> cerradas = cerrarPagosEnStripe(pendientes);
+        if (!cerradas.isEmpty()) {
+            reservaRepository.marcarCierreStripePendiente(cerradas, false);
+        }
+        return pendientes.size();
+    }
+
+    /**
+     * Cierra en Stripe los pagos de las reservas con a lo sumo {@code cierres-concurrentes} llamadas
+     * en curso y espera a que terminen todas. Devuelve los IDs de las que se pudieron cerrar.
+     */
+    private List<Long> cerrarPagosEnStripe(List<ReservaRepository.ReservaVencida> reservas) {
+        Semaphore cupos = new Semaphore(cierresConcurrentes);
+        List<CompletableFuture<Boolean>> cierres = new ArrayList<>(reservas.size());
+        for (ReservaRepository.ReservaVencida reserva : reservas) {
+            cupos.acquireUninterruptibly();
+            cierres.add(cerrarPagoEnStripe(reserva).whenComplete((cerrado, error) -> cupos.release()));
+        }
+        List<Long> cerradas = new ArrayList<>();
+        for (int i = 0; i < reservas.size(); i++) {
+            if (cierres.get(i).join()) {
+                cerradas.add(reservas.get(i).getId());
+            }
+        }
+        return cerradas;
+    }
+
+    /**
+     * Expira la sesión o cancela el PaymentIntent de la reserva si siguen abiertos. El futuro da
+     * false si Stripe falló (caído, sin cupo o error inesperado) y el cierre hay que reintentarlo.
+     */
+    private CompletableFuture<Boolean> cerrarPagoEnStripe(ReservaRepository.ReservaVencida reserva) {
+        if (reserva.getStripeSessionId() != null) {
+            return clienteStripe.ejecutar(() -> {
+                        Session session = Session.retrieve(reserva.getStripeSessionId());
+                        return "open".equals(session.getStatus()) ? session.expire() : session;
+                    })
+                    .handle((session, error) -> error == null || yaEstabaCerrado(error));
+        }
+        if (reserva.getStripePaymentIntentId() != null) {
+            return clienteStripe.ejecutar(() -> {
+                        PaymentIntent paymentIntent = PaymentIntent.retrieve(reserva.getStripePaymentIntentId());
+                        return PAGOS_CANCELABLES.contains(paymentIntent.getStatus()) ? paymentIntent.cancel() : paymentIntent;
+                    })
+                    .handle((paymentIntent, error) -> error == null || yaEstabaCerrado(error));
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    // Cerrado entre la consulta y el cambio (p. ej. pagado o expirado por Stripe): no hay nada que reintentar
+    private static boolean yaEstabaCerrado(Throwable error) {
+        Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return causa instanceof InvalidRequestException invalida && ERRORES_YA_CERRADO.contains(invalida.getCode());
+    }
+
+    private void registrarCiclo(long inicio) {
+        ciclos.incrementAndGet();
+        ultimaDuracionMs.set(System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Ciclos ejecutados desde el arranque
+     */
+    public long getCiclos() {
+        return ciclos.get();
+    }
+
+    /**
+     * Total de reservas vencidas desde el arranque
+     */
+    public long getReservasVencidas() {
+        return reservasVencidas.get();
+    }
+
+    /**
+     * Cierres en Stripe que fallaron desde el arranque
+     */
+    public long getCierresFallidos() {
+        return cierresFallidos.get();
+    }
+
+    /**
+     * Duración del último ciclo en milisegundos
+     */
+    public long getUltimaDuracionMs() {
+        return ultimaDuracionMs.get();
+    }
+
+    /**
+     * Tiempo entre el vencimiento y la liberación de la reserva más antigua del último ciclo
+     */
+    public long getUltimoRetrasoMs() {
+        return ultimoRetrasoMs.get();
+    }
+}
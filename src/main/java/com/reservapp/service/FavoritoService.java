@@ -1,5 +1,6 @@
 package com.reservapp.service;
 
+import com.reservapp.dto.FavoritoResponseDTO;
 import com.reservapp.entity.Favorito;
 import com.reservapp.entity.Usuario;
 import com.reservapp.entity.Cancha;
@@ -29,7 +30,7 @@ public class FavoritoService {
     /**
      * Agregar cancha a favoritos
      */
-    public Favorito agregarFavorito(Long usuarioId, Long canchaId, String notas) {
+    public FavoritoResponseDTO agregarFavorito(Long usuarioId, Long canchaId, String notas) {
         Usuario usuario = usuarioRepository.findById(usuarioId)
             .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
         
@@ -43,13 +44,13 @@ public class FavoritoService {
         }
         
         Favorito favorito = new Favorito(usuario, cancha, notas);
-        return favoritoRepository.save(favorito);
+        return new FavoritoResponseDTO(favoritoRepository.save(favorito));
     }
     
     /**
      * Agregar cancha a favoritos sin notas
      */
-    public Favorito agregarFavorito(Long usuarioId, Long canchaId) {
+    public FavoritoResponseDTO agregarFavorito(Long usuarioId, Long canchaId) {
         return agregarFavorito(usuarioId, canchaId, null);
     }
     
@@ -68,15 +69,17 @@ public class FavoritoService {
     /**
      * Obtener favoritos de un usuario
      */
-    public List<Favorito> obtenerFavoritos(Long usuarioId) {
-        return favoritoRepository.findFavoritosWithCanchaAndClub(usuarioId);
+    @Transactional(readOnly = true)
+    public List<FavoritoResponseDTO> obtenerFavoritos(Long usuarioId) {
+        return aDTOs(favoritoRepository.findFavoritosWithCanchaAndClub(usuarioId));
     }
     
     /**
      * Obtener favoritos por email de usuario
      */
-    public List<Favorito> obtenerFavoritosPorEmail(String email) {
-        return favoritoRepository.findByUsuarioEmail(email);
+    @Transactional(readOnly = true)
+    public List<FavoritoResponseDTO> obtenerFavoritosPorEmail(String email) {
+        return aDTOs(favoritoRepository.findByUsuarioEmail(email));
     }
     
     /**
@@ -103,12 +106,12 @@ public class FavoritoService {
     /**
      * Actualizar notas de un favorito
      */
-    public Favorito actualizarNotas(Long usuarioId, Long canchaId, String notas) {
+    public FavoritoResponseDTO actualizarNotas(Long usuarioId, Long canchaId, String notas) {
         Optional<Favorito> favoritoOpt = favoritoRepository.findByUsuarioIdAndCanchaId(usuarioId, canchaId);
         if (favoritoOpt.isPresent()) {
             Favorito favorito = favoritoOpt.get();
             favorito.setNotas(notas);
-            return favoritoRepository.save(favorito);
+            return new FavoritoResponseDTO(favoritoRepository.save(favorito));
         } else {
             throw new RuntimeException("Favorito no encontrado");
         }
@@ -117,7 +120,13 @@ public class FavoritoService {
     /**
      * Obtener favorito específico
      */
-    public Optional<Favorito> obtenerFavorito(Long usuarioId, Long canchaId) {
-        return favoritoRepository.findByUsuarioIdAndCanchaId(usuarioId, canchaId);
+    @Transactional(readOnly = true)
+    public Optional<FavoritoResponseDTO> obtenerFavorito(Long usuarioId, Long canchaId) {
+        return favoritoRepository.findByUsuarioIdAndCanchaId(usuarioId, canchaId).map(FavoritoResponseDTO::new);
+    }
+
+    // Las vistas se arman dentro de la transacción: con open-in-view desactivado no hay sesión al serializar
+    private static List<FavoritoResponseDTO> aDTOs(List<Favorito> favoritos) {
+        return favoritos.stream().map(FavoritoResponseDTO::new).toList();
     }
 } 
\ No newline at end of file
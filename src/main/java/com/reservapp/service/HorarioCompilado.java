@@ -0,0 +1,190 @@
+package com.reservapp.service;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.reservapp.entity.ConfiguracionHorario;
+
+/**
+ * Versión precompilada e inmutable de la configuración de horarios de una cancha.
+ *
+ * Se construye una vez por configuración (ver la caché de {@link ConfiguracionHorarioService})
+ * y evita en cada validación el parseo de {@code diasDisponibles} y la generación de turnos:
+ * los días se guardan como máscara de bits (bit 0 = lunes, bit 6 = domingo), los horarios
+ * como minutos del día y los turnos ya calculados.
+ *
+ * Copia los valores de la configuración en lugar de guardar la entidad: la misma instancia se
+ * comparte entre pedidos desde la caché y nadie puede modificarla.
+ */
+public final class HorarioCompilado {
+
+    private final Long configuracionId;
+    private final LocalTime horaApertura;
+    private final LocalTime horaCierre;
+    private final String diasDisponibles;
+    private final int mascaraDias;
+    private final int aperturaMinutos;
+    private final int cierreMinutos;
+    private final int duracionTurnoMinutos;
+    private final int anticipacionMinimaHoras;
+    private final int anticipacionMaximaDias;
+    private final int[] iniciosTurnos;
+    private final List<String> turnos;
+
+    public HorarioCompilado(ConfiguracionHorario configuracion) {
+        this.configuracionId = configuracion.getId();
+        this.horaApertura = configuracion.getHoraApertura();
+        this.horaCierre = configuracion.getHoraCierre();
+        this.diasDisponibles = configuracion.getDiasDisponibles();
+        this.mascaraDias = mascaraDias(configuracion.getDiasDisponibles());
+        this.aperturaMinutos = configuracion.getHoraApertura().toSecondOfDay() / 60;
+        this.cierreMinutos = configuracion.getHoraCierre().toSecondOfDay() / 60;
+        this.duracionTurnoMinutos = configuracion.getDuracionTurnoMinutos();
+        this.anticipacionMinimaHoras = valorOCero(configuracion.getAnticipacionMinimaHoras());
+        this.anticipacionMaximaDias = valorOCero(configuracion.getAnticipacionMaximaDias());
+
+        int cantidad = duracionTurnoMinutos > 0 && cierreMinutos > aperturaMinutos
+                ? (cierreMinutos - aperturaMinutos) / duracionTurnoMinutos
+                : 0;
+        this.iniciosTurnos = new int[cantidad];
+        List<String> etiquetas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            int inicio = aperturaMinutos + i * duracionTurnoMinutos;
+            iniciosTurnos[i] = inicio;
+            etiquetas.add(aHora(inicio) + " - " + aHora(inicio + duracionTurnoMinutos));
+        }
+        this.turnos = Collections.unmodifiableList(etiquetas);
+    }
+
+    /**
+     * Convierte "1,2,3" en una máscara de bits, ignorando valores fuera de 1..7
+     */
+    static int mascaraDias(String diasDisponibles) {
+        int mascara = 0;
+        if (diasDisponibles == null) {
+            return mascara;
+        }
+        for (String dia : diasDisponibles.split(",")) {
+            try {
+                int valor = Integer.parseInt(dia.trim());
+                if (valor >= 1 && valor <= 7) {
+                    mascara |= 1 << (valor - 1);
+                }
+            } catch (NumberFormatException e) {
+                // Valor inválido: se ignora
+            }
+        }
+        return mascara;
+    }
+
+    /**
+     * Indica si el día de la semana (1=Lunes, 7=Domingo) está habilitado
+     */
+    public boolean esDiaDisponible(int diaSemana) {
+        return diaSemana >= 1 && diaSemana <= 7 && (mascaraDias & (1 << (diaSemana - 1))) != 0;
+    }
+
+    /**
+     * Valida un rango contra días, horario de apertura/cierre, duración de turno y anticipación
+     */
+    public boolean admite(LocalDateTime inicio, LocalDateTime fin, LocalDateTime ahora) {
+        if (!esDiaDisponible(inicio.getDayOfWeek().getValue())) {
+            return false;
+        }
+
+        if (inicio.toLocalTime().toSecondOfDay() < aperturaMinutos * 60
+                || fin.toLocalTime().toSecondOfDay() > cierreMinutos * 60) {
+            return false;
+        }
+
+        // La duración debe ser un múltiplo positivo de la duración del turno
+        long duracionMinutos = java.time.Duration.between(inicio, fin).toMinutes();
+        if (duracionMinutos <= 0 || duracionMinutos % duracionTurnoMinutos != 0) {
+            return false;
+        }
+
+        return dentroDeAnticipacion(inicio, ahora);
+    }
+
+    /**
+     * Indica si una fecha está dentro de la ventana de anticipación permitida
+     */
+    public boolean dentroDeAnticipacion(LocalDateTime fecha, LocalDateTime ahora) {
+        return !fecha.isBefore(ahora.plusHours(anticipacionMinimaHoras))
+                && !fecha.isAfter(ahora.plusDays(anticipacionMaximaDias));
+    }
+
+    private static int valorOCero(Integer valor) {
+        return valor != null ? valor : 0;
+    }
+
+    private static String aHora(int minutos) {
+        return LocalTime.of(minutos / 60 % 24, minutos % 60).toString();
+    }
+
+    /**
+     * ID de la configuración guardada (null para el horario por defecto)
+     */
+    public Long getConfiguracionId() {
+        return configuracionId;
+    }
+
+    public LocalTime getHoraApertura() {
+        return horaApertura;
+    }
+
+    public LocalTime getHoraCierre() {
+        return horaCierre;
+    }
+
+    /**
+     * Días habilitados en el formato guardado ("1,2,3", 1=Lunes, 7=Domingo)
+     */
+    public String getDiasDisponibles() {
+        return diasDisponibles;
+    }
+
+    public int getAperturaMinutos() {
+        return aperturaMinutos;
+    }
+
+    public int getCierreMinutos() {
+        return cierreMinutos;
+    }
+
+    public int getDuracionTurnoMinutos() {
+        return duracionTurnoMinutos;
+    }
+
+    public int getAnticipacionMinimaHoras() {
+        return anticipacionMinimaHoras;
+    }
+
+    public int getAnticipacionMaximaDias() {
+        return anticipacionMaximaDias;
+    }
+
+    /**
+     * Cantidad de turnos por día
+     */
+    public int getCantidadTurnos() {
+        return iniciosTurnos.length;
+    }
+
+    /**
+     * Minuto del día en que empieza el turno indicado
+     */
+    public int getInicioTurno(int indice) {
+        return iniciosTurnos[indice];
+    }
+
+    /**
+     * Turnos del día en formato "HH:mm - HH:mm"
+     */
+    public List<String> getTurnos() {
+        return turnos;
+    }
+}
@@ -0,0 +1,334 @@
+package com.reservapp.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.reservapp.entity.Club;
+import com.reservapp.repository.CanchaRepository;
+import com.reservapp.repository.ClubRepository;
+
+/**
+ * Índice invertido en memoria para la búsqueda de clubes.
+ *
+ * Cada club activo se indexa por su nombre, dirección, descripción y servicios, y por el nombre y
+ * el deporte de sus canchas. Los términos se guardan sin acentos y en minúsculas, en un mapa
+ * ordenado, así cada palabra buscada se resuelve como prefijo (sirve para buscar mientras se
+ * escribe) sin recorrer la tabla de clubes.
+ *
+ * El índice se carga completo al iniciar la aplicación y después se actualiza de a un club:
+ * cada alta o modificación de un club o de sus canchas vuelve a indexar ese club cuando la
+ * transacción confirma. Además se reconstruye completo cada
+ * {@code reservapp.busqueda.reconstruccion-ms}, para tomar los cambios hechos fuera de la
+ * aplicación (scripts SQL u otras instancias); la reconstrucción arma un índice nuevo y lo
+ * reemplaza de una vez. Las actualizaciones se serializan; las búsquedas no toman ningún lock.
+ */
+@Component
+public class IndiceBusquedaClubes {
+    private static final Logger log = LoggerFactory.getLogger(IndiceBusquedaClubes.class);
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Campos indexados, con su peso en el ranking y su bit en la máscara de cada término
+     */
+    public enum Campo {
+        NOMBRE(8),
+        DEPORTES(4),
+        SERVICIOS(3),
+        CANCHAS(2),
+        DIRECCION(2),
+        DESCRIPCION(1);
+
+        private final int peso;
+
+        Campo(int peso) {
+            this.peso = peso;
+        }
+
+        int bit() {
+            return 1 << ordinal();
+        }
+    }
+
+    private static final int TODOS_LOS_CAMPOS = (1 << Campo.values().length) - 1;
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    @Autowired
+    private CanchaRepository canchaRepository;
+
+    private volatile Estado estado = new Estado();
+
+    // Las recargas corren después del commit de la escritura, en una transacción propia
+    private final TransactionTemplate lectura;
+
+    public IndiceBusquedaClubes(PlatformTransactionManager transactionManager) {
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lectura.setReadOnly(true);
+    }
+
+    /**
+     * Carga el índice con todos los clubes activos y las canchas de cada uno
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        reconstruir();
+    }
+
+    @Scheduled(fixedDelayString = "${reservapp.busqueda.reconstruccion-ms:600000}",
+               initialDelayString = "${reservapp.busqueda.reconstruccion-ms:600000}")
+    public synchronized void reconstruir() {
+        long inicio = System.nanoTime();
+        Estado nuevo = new Estado();
+        lectura.executeWithoutResult(status -> {
+            Map<Long, List<CanchaRepository.TextoCancha>> canchasPorClub = new HashMap<>();
+            for (CanchaRepository.TextoCancha cancha : canchaRepository.findTextos()) {
+                canchasPorClub.computeIfAbsent(cancha.getClubId(), id -> new ArrayList<>()).add(cancha);
+            }
+            for (Club club : clubRepository.findActivosConServicios()) {
+                nuevo.indexar(Documento.de(club, canchasPorClub.getOrDefault(club.getId(), List.of())));
+            }
+        });
+        estado = nuevo;
+        log.info("Índice de búsqueda de clubes cargado: {} clubes, {} términos en {} ms",
+                nuevo.documentos.size(), nuevo.terminos.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Vuelve a indexar un club (por ejemplo, después de modificar el club o una de sus canchas).
+     * Dentro de una transacción se difiere hasta el commit, para indexar los datos confirmados.
+     */
+    public void actualizar(Long clubId) {
+        if (clubId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recargar(clubId);
+                }
+            });
+        } else {
+            recargar(clubId);
+        }
+    }
+
+    /**
+     * Busca clubes que cumplan todos los criterios, ordenados por relevancia.
+     *
+     * {@code texto} se busca en todos los campos; los demás criterios se buscan solo en su campo.
+     * Cada palabra debe aparecer (como palabra completa o como prefijo) en algún campo permitido.
+     * El puntaje de cada palabra es el peso del mejor campo donde aparece, el doble si la palabra
+     * es completa; a igual puntaje se ordena por nombre.
+     */
+    public List<Documento> buscar(String texto, Map<Campo, String> filtros) {
+        List<Criterio> criterios = new ArrayList<>();
+        agregarCriterios(criterios, texto, TODOS_LOS_CAMPOS);
+        filtros.forEach((campo, valor) -> agregarCriterios(criterios, valor, campo.bit()));
+        if (criterios.isEmpty()) {
+            return List.of();
+        }
+
+        Estado actual = estado;
+        Map<Long, Integer> puntajes = null;
+        for (Criterio criterio : criterios) {
+            Map<Long, Integer> coincidencias = actual.coincidencias(criterio);
+            if (puntajes == null) {
+                puntajes = coincidencias;
+            } else {
+                puntajes.keySet().retainAll(coincidencias.keySet());
+                puntajes.replaceAll((clubId, puntaje) -> puntaje + coincidencias.get(clubId));
+            }
+            if (puntajes.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        Map<Long, Integer> finales = puntajes;
+        return finales.keySet().stream()
+                .map(actual.documentos::get)
+                .filter(documento -> documento != null)
+                .sorted(Comparator.comparingInt((Documento documento) -> finales.get(documento.getId())).reversed()
+                        .thenComparing(documento -> documento.orden)
+                        .thenComparing(Documento::getId))
+                .toList();
+    }
+
+    /**
+     * Pasa un texto a minúsculas y le quita los acentos ("Fútbol Ñandú" -> "futbol nandu")
+     */
+    static String normalizar(String texto) {
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        return MARCAS.matcher(descompuesto).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Palabras normalizadas de un texto, sin repetir
+     */
+    static Set<String> palabras(String texto) {
+        Set<String> palabras = new LinkedHashSet<>();
+        if (texto == null) {
+            return palabras;
+        }
+        for (String palabra : SEPARADORES.split(normalizar(texto))) {
+            if (!palabra.isEmpty()) {
+                palabras.add(palabra);
+            }
+        }
+        return palabras;
+    }
+
+    // Se lee dentro del lock: así dos recargas del mismo club no se aplican en desorden
+    private synchronized void recargar(Long clubId) {
+        Documento documento = lectura.execute(status -> clubRepository.findConServiciosById(clubId)
+                .filter(club -> Boolean.TRUE.equals(club.getActivo()))
+                .map(club -> Documento.de(club, canchaRepository.findTextosPorClubId(clubId)))
+                .orElse(null));
+        estado.quitar(clubId);
+        if (documento != null) {
+            estado.indexar(documento);
+        }
+    }
+
+    private static void agregarCriterios(List<Criterio> criterios, String texto, int campos) {
+        for (String palabra : palabras(texto)) {
+            criterios.add(new Criterio(palabra, campos));
+        }
+    }
+
+    private static int mayorPeso(int mascara) {
+        int mayor = 0;
+        for (Campo campo : Campo.values()) {
+            if ((mascara & campo.bit()) != 0) {
+                mayor = Math.max(mayor, campo.peso);
+            }
+        }
+        return mayor;
+    }
+
+    private static final class Estado {
+        // término -> (ID de club -> máscara de campos donde aparece); los mapas internos no se modifican
+        private final ConcurrentSkipListMap<String, Map<Long, Integer>> terminos = new ConcurrentSkipListMap<>();
+        private final Map<Long, Documento> documentos = new ConcurrentHashMap<>();
+
+        private void indexar(Documento documento) {
+            documentos.put(documento.getId(), documento);
+            documento.terminos.forEach((termino, mascara) -> terminos.compute(termino, (clave, actuales) -> {
+                Map<Long, Integer> nuevos = actuales != null ? new HashMap<>(actuales) : new HashMap<>();
+                nuevos.put(documento.getId(), mascara);
+                return Collections.unmodifiableMap(nuevos);
+            }));
+        }
+
+        private void quitar(Long clubId) {
+            Documento anterior = documentos.remove(clubId);
+            if (anterior == null) {
+                return;
+            }
+            anterior.terminos.keySet().forEach(termino -> terminos.computeIfPresent(termino, (clave, actuales) -> {
+                Map<Long, Integer> nuevos = new HashMap<>(actuales);
+                nuevos.remove(clubId);
+                return nuevos.isEmpty() ? null : Collections.unmodifiableMap(nuevos);
+            }));
+        }
+
+        // Mejor puntaje de cada club entre los términos que empiezan con la palabra del criterio
+        private Map<Long, Integer> coincidencias(Criterio criterio) {
+            Map<Long, Integer> resultado = new HashMap<>();
+            String palabra = criterio.palabra;
+            for (Map.Entry<String, Map<Long, Integer>> entrada
+                    : terminos.subMap(palabra, true, palabra + Character.MAX_VALUE, true).entrySet()) {
+                int factor = entrada.getKey().length() == palabra.length() ? 2 : 1;
+                entrada.getValue().forEach((clubId, mascara) -> {
+                    int peso = mayorPeso(mascara & criterio.campos);
+                    if (peso > 0) {
+                        resultado.merge(clubId, peso * factor, Math::max);
+                    }
+                });
+            }
+            return resultado;
+        }
+    }
+
+    private static final class Criterio {
+        private final String palabra;
+        private final int campos;
+
+        private Criterio(String palabra, int campos) {
+            this.palabra = palabra;
+            this.campos = campos;
+        }
+    }
+
+    /**
+     * Club indexado: lo necesario para armar el resultado y los términos para poder desindexarlo
+     */
+    public static final class Documento {
+        private final Long id;
+        private final String nombre;
+        private final String direccion;
+        private final String orden;
+        private final Map<String, Integer> terminos;
+
+        private Documento(Long id, String nombre, String direccion, Map<String, Integer> terminos) {
+            this.id = id;
+            this.nombre = nombre;
+            this.direccion = direccion;
+            this.orden = nombre != null ? normalizar(nombre) : "";
+            this.terminos = terminos;
+        }
+
+        static Documento de(Club club, List<CanchaRepository.TextoCancha> canchas) {
+            Map<String, Integer> terminos = new HashMap<>();
+            agregar(terminos, club.getNombre(), Campo.NOMBRE);
+            agregar(terminos, club.getDireccion(), Campo.DIRECCION);
+            agregar(terminos, club.getDescripcion(), Campo.DESCRIPCION);
+            if (club.getServicios() != null) {
+                club.getServicios().forEach(servicio -> agregar(terminos, servicio, Campo.SERVICIOS));
+            }
+            for (CanchaRepository.TextoCancha cancha : canchas) {
+                agregar(terminos, cancha.getNombre(), Campo.CANCHAS);
+                agregar(terminos, cancha.getDeporte(), Campo.DEPORTES);
+            }
+            return new Documento(club.getId(), club.getNombre(), club.getDireccion(), terminos);
+        }
+
+        private static void agregar(Map<String, Integer> terminos, String texto, Campo campo) {
+            for (String palabra : palabras(texto)) {
+                terminos.merge(palabra, campo.bit(), (a, b) -> a | b);
+            }
+        }
+
+        public Long getId() { return id; }
+        public String getNombre() { return nombre; }
+        public String getDireccion() { return direccion; }
+    }
+}
@@ -0,0 +1,240 @@
+package com.reservapp.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.reservapp.entity.Reserva;
+import com.reservapp.repository.ReservaRepository;
+
+/**
+ * Índice en memoria de los intervalos ocupados por cancha.
+ *
+ * Guarda, por cada cancha, las reservas activas (PENDIENTE o CONFIRMADA) como
+ * rangos de segundos epoch ordenados por inicio, de modo que la verificación de
+ * solapamiento se resuelve con una búsqueda binaria sin consultar la base de datos.
+ * Cada cancha se carga desde la base la primera vez que se consulta y solo cubre
+ * las reservas que terminan a partir de ese momento (el "horizonte"); las consultas
+ * que empiezan antes del horizonte se delegan a la base. Al insertar o quitar se
+ * descartan los intervalos ya terminados y el horizonte avanza hasta el momento actual.
+ *
+ * El índice es local a cada instancia y no ve lo que escriben las demás: cada cancha se
+ * recarga desde la base pasados {@code ocupacion.ttl-segundos}. Las consultas de
+ * disponibilidad se responden desde el índice con esa demora como máximo; la creación de
+ * reservas no lo usa y verifica contra la base con la fila de la cancha bloqueada.
+ */
+@Component
+public class IndiceOcupacionCanchas {
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Value("${reservapp.reservas.ocupacion.ttl-segundos:60}")
+    private long ttlSegundos;
+
+    private final Map<Long, IntervalosCancha> canchas = new ConcurrentHashMap<>();
+
+    /**
+     * Precarga el índice con las reservas activas vigentes de todas las canchas
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        LocalDateTime horizonte = LocalDateTime.now();
+        Map<Long, List<ReservaRepository.IntervaloReserva>> porCancha = new HashMap<>();
+        for (ReservaRepository.IntervaloReserva intervalo : reservaRepository.findIntervalosActivosDesde(horizonte)) {
+            porCancha.computeIfAbsent(intervalo.getCanchaId(), id -> new ArrayList<>()).add(intervalo);
+        }
+        long desde = aSegundos(horizonte);
+        long vence = venceDesde(System.currentTimeMillis());
+        porCancha.forEach((canchaId, intervalos) ->
+                canchas.putIfAbsent(canchaId, IntervalosCancha.desde(desde, vence, intervalos)));
+    }
+
+    /**
+     * Indica si la cancha está libre en el rango dado.
+     * Usa la misma semántica que {@link ReservaRepository#existsReservaConflicto}: los extremos se incluyen.
+     */
+    public boolean estaLibre(Long canchaId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        long inicio = aSegundos(fechaInicio);
+        IntervalosCancha intervalos = obtener(canchaId);
+        if (inicio < intervalos.horizonte) {
+            return !reservaRepository.existsReservaConflicto(canchaId, fechaInicio, fechaFin);
+        }
+        return !intervalos.seSolapa(inicio, aSegundos(fechaFin));
+    }
+
+    /**
+     * Registra una reserva activa en el índice (idempotente por ID).
+     * Si la cancha no está cargada o ya venció no consulta la base: la descarta y la próxima
+     * lectura la recarga, ya con esta reserva confirmada.
+     */
+    public void registrar(Reserva reserva) {
+        Long canchaId = reserva.getCancha().getId();
+        long inicio = aSegundos(reserva.getFechaHoraInicio());
+        long fin = aSegundos(reserva.getFechaHoraFin());
+        long ahoraMs = System.currentTimeMillis();
+        long ahora = aSegundos(LocalDateTime.now());
+        canchas.computeIfPresent(canchaId, (id, actual) ->
+                actual.vence > ahoraMs ? actual.con(reserva.getId(), inicio, fin, ahora) : null);
+    }
+
+    /**
+     * Quita una reserva del índice (por cancelación o finalización)
+     */
+    public void quitar(Long canchaId, Long reservaId) {
+        long ahora = aSegundos(LocalDateTime.now());
+        canchas.computeIfPresent(canchaId, (id, actual) -> actual.sin(reservaId, ahora));
+    }
+
+    private IntervalosCancha obtener(Long canchaId) {
+        long ahora = System.currentTimeMillis();
+        IntervalosCancha actual = canchas.get(canchaId);
+        if (actual != null && actual.vence > ahora) {
+            return actual;
+        }
+        // Vacía o vencida: se recarga desde la base para ver lo escrito por otras instancias
+        return canchas.compute(canchaId, (id, previa) -> {
+            if (previa != null && previa.vence > ahora) {
+                return previa;
+            }
+            LocalDateTime horizonte = LocalDateTime.now();
+            return IntervalosCancha.desde(aSegundos(horizonte), venceDesde(ahora),
+                    reservaRepository.findIntervalosActivosPorCanchaDesde(id, horizonte));
+        });
+    }
+
+    private long venceDesde(long ahoraMs) {
+        return ahoraMs + ttlSegundos * 1000;
+    }
+
+    private static long aSegundos(LocalDateTime fecha) {
+        return fecha.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Intervalos inmutables de una cancha, ordenados por inicio.
+     * {@code maxFin[i]} es el mayor fin entre las posiciones 0..i, lo que permite
+     * responder solapamientos en O(log n) aun si hubiera reservas superpuestas.
+     */
+    static final class IntervalosCancha {
+        final long horizonte;
+        final long vence;
+        private final long[] ids;
+        private final long[] inicios;
+        private final long[] fines;
+        private final long[] maxFin;
+
+        private IntervalosCancha(long horizonte, long vence, long[] ids, long[] inicios, long[] fines) {
+            this.horizonte = horizonte;
+            this.vence = vence;
+            this.ids = ids;
+            this.inicios = inicios;
+            this.fines = fines;
+            this.maxFin = new long[fines.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < fines.length; i++) {
+                max = Math.max(max, fines[i]);
+                maxFin[i] = max;
+            }
+        }
+
+        static IntervalosCancha desde(long horizonte, long vence, List<ReservaRepository.IntervaloReserva> intervalos) {
+            List<ReservaRepository.IntervaloReserva> ordenados = new ArrayList<>(intervalos);
+            ordenados.sort((a, b) -> a.getFechaHoraInicio().compareTo(b.getFechaHoraInicio()));
+            int n = ordenados.size();
+            long[] ids = new long[n];
+            long[] inicios = new long[n];
+            long[] fines = new long[n];
+            for (int i = 0; i < n; i++) {
+                ReservaRepository.IntervaloReserva intervalo = ordenados.get(i);
+                ids[i] = intervalo.getId();
+                inicios[i] = aSegundos(intervalo.getFechaHoraInicio());
+                fines[i] = aSegundos(intervalo.getFechaHoraFin());
+            }
+            return new IntervalosCancha(horizonte, vence, ids, inicios, fines);
+        }
+
+        boolean seSolapa(long inicio, long fin) {
+            // Última reserva que empieza en o antes del fin consultado
+            int k = ultimoInicioHasta(fin);
+            return k >= 0 && maxFin[k] >= inicio;
+        }
+
+        IntervalosCancha con(long id, long inicio, long fin, long ahora) {
+            IntervalosCancha base = sin(id, ahora);
+            if (fin < base.horizonte) {
+                // Ya terminó: queda fuera de lo que cubre el índice
+                return base;
+            }
+            int n = base.ids.length;
+            int pos = base.ultimoInicioHasta(inicio) + 1;
+            long[] nuevosIds = new long[n + 1];
+            long[] nuevosInicios = new long[n + 1];
+            long[] nuevosFines = new long[n + 1];
+            insertar(base.ids, nuevosIds, pos, id);
+            insertar(base.inicios, nuevosInicios, pos, inicio);
+            insertar(base.fines, nuevosFines, pos, fin);
+            return new IntervalosCancha(base.horizonte, vence, nuevosIds, nuevosInicios, nuevosFines);
+        }
+
+        /**
+         * Copia sin la reserva dada ni los intervalos terminados antes de {@code ahora}.
+         * El horizonte avanza hasta {@code ahora}: lo descartado no puede solaparse con
+         * ninguna consulta que el índice siga respondiendo.
+         */
+        IntervalosCancha sin(long id, long ahora) {
+            long nuevoHorizonte = Math.max(horizonte, ahora);
+            int n = ids.length;
+            long[] nuevosIds = new long[n];
+            long[] nuevosInicios = new long[n];
+            long[] nuevosFines = new long[n];
+            int k = 0;
+            for (int i = 0; i < n; i++) {
+                if (ids[i] != id && fines[i] >= nuevoHorizonte) {
+                    nuevosIds[k] = ids[i];
+                    nuevosInicios[k] = inicios[i];
+                    nuevosFines[k] = fines[i];
+                    k++;
+                }
+            }
+            if (k == n && nuevoHorizonte == horizonte) {
+                return this;
+            }
+            return new IntervalosCancha(nuevoHorizonte, vence, Arrays.copyOf(nuevosIds, k),
+                    Arrays.copyOf(nuevosInicios, k), Arrays.copyOf(nuevosFines, k));
+        }
+
+        private int ultimoInicioHasta(long valor) {
+            int bajo = 0;
+            int alto = inicios.length - 1;
+            int resultado = -1;
+            while (bajo <= alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (inicios[medio] <= valor) {
+                    resultado = medio;
+                    bajo = medio + 1;
+                } else {
+                    alto = medio - 1;
+                }
+            }
+            return resultado;
+        }
+
+        private static void insertar(long[] origen, long[] destino, int pos, long valor) {
+            System.arraycopy(origen, 0, destino, 0, pos);
+            destino[pos] = valor;
+            System.arraycopy(origen, pos, destino, pos + 1, origen.length - pos);
+        }
+    }
+}
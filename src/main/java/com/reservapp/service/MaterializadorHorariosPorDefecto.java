@@ -0,0 +1,25 @@
+package com.reservapp.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tarea opcional que, al iniciar la aplicación, guarda la configuración de horarios por defecto
+ * para todas las canchas que no tienen una. Se habilita con
+ * {@code reservapp.horarios.materializar-por-defecto=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "reservapp.horarios.materializar-por-defecto", havingValue = "true")
+public class MaterializadorHorariosPorDefecto {
+
+    @Autowired
+    private ConfiguracionHorarioService configuracionHorarioService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void materializar() {
+        configuracionHorarioService.materializarConfiguracionesPorDefecto();
+    }
+}
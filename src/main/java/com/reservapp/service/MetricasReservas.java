@@ -0,0 +1,70 @@
+package com.reservapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Métricas de negocio de reservas y pagos, exportadas por Actuator en /actuator/prometheus.
+ *
+ * Los tiempos por endpoint (http.server.requests) y por consulta de repositorio
+ * (spring.data.repository.invocations) los registra Spring Boot; acá se agregan los
+ * conteos que no se deducen del código HTTP de la respuesta.
+ */
+@Component
+public class MetricasReservas {
+
+    private final MeterRegistry meterRegistry;
+    private final Counter conflictos;
+
+    public MetricasReservas(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.conflictos = Counter.builder("reservas.conflictos")
+                .description("Reservas rechazadas por superponerse con otra reserva activa")
+                .register(meterRegistry);
+    }
+
+    public Timer.Sample iniciarCreacion() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * Registra la duración de una creación de reserva (incluye la espera del bloqueo de la cancha)
+     */
+    public void finalizarCreacion(Timer.Sample muestra, boolean creada) {
+        muestra.stop(Timer.builder("reservas.creacion")
+                .description("Tiempo de creación de reservas")
+                .tag("resultado", creada ? "creada" : "rechazada")
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    public void conflicto() {
+        conflictos.increment();
+    }
+
+    /**
+     * Reserva rechazada por una validación (cancha inexistente o no disponible, horario fuera de la configuración, etc.)
+     */
+    public void validacionFallida(String motivo) {
+        Counter.builder("reservas.validaciones.fallidas")
+                .description("Reservas rechazadas por validación")
+                .tag("motivo", motivo)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Resultado de un pago aplicado a una reserva (pagado, fallido, reembolsado o revision), según su origen
+     * (webhook de Stripe o confirmación desde el cliente)
+     */
+    public void resultadoPago(String resultado, String origen) {
+        Counter.builder("pagos.resultados")
+                .description("Pagos aplicados a reservas por resultado")
+                .tag("resultado", resultado)
+                .tag("origen", origen)
+                .register(meterRegistry)
+                .increment();
+    }
+}
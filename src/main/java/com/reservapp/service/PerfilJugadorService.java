@@ -1,5 +1,6 @@
 package com.reservapp.service;
 
+import com.reservapp.dto.PerfilJugadorResponseDTO;
 import com.reservapp.entity.PerfilJugador;
 import com.reservapp.entity.Usuario;
 import com.reservapp.entity.DeporteJugador;
@@ -26,7 +27,7 @@ public class PerfilJugadorService {
     /**
      * Crear o actualizar perfil de jugador
      */
-    public PerfilJugador crearOActualizarPerfil(Long usuarioId, PerfilJugador perfilData) {
+    public PerfilJugadorResponseDTO crearOActualizarPerfil(Long usuarioId, PerfilJugador perfilData) {
         Optional<Usuario> usuarioOpt = usuarioRepository.findById(usuarioId);
         if (usuarioOpt.isEmpty()) {
             throw new RuntimeException("Usuario no encontrado");
@@ -68,27 +69,29 @@ public class PerfilJugadorService {
             perfil.setAdjetivos(perfilData.getAdjetivos());
         }
 
-        return perfilJugadorRepository.save(perfil);
+        return new PerfilJugadorResponseDTO(perfilJugadorRepository.save(perfil));
     }
 
     /**
      * Obtener perfil por ID de usuario
      */
-    public Optional<PerfilJugador> obtenerPerfilPorUsuarioId(Long usuarioId) {
-        return perfilJugadorRepository.findByUsuarioId(usuarioId);
+    @Transactional(readOnly = true)
+    public Optional<PerfilJugadorResponseDTO> obtenerPerfilPorUsuarioId(Long usuarioId) {
+        return perfilJugadorRepository.findByUsuarioId(usuarioId).map(PerfilJugadorResponseDTO::new);
     }
 
     /**
      * Obtener perfil por email de usuario
      */
-    public Optional<PerfilJugador> obtenerPerfilPorEmail(String email) {
-        return perfilJugadorRepository.findByUsuarioEmail(email);
+    @Transactional(readOnly = true)
+    public Optional<PerfilJugadorResponseDTO> obtenerPerfilPorEmail(String email) {
+        return perfilJugadorRepository.findByUsuarioEmail(email).map(PerfilJugadorResponseDTO::new);
     }
 
     /**
      * Agregar deporte al perfil
      */
-    public PerfilJugador agregarDeporte(Long usuarioId, String deporte, Double puntuacion, 
+    public PerfilJugadorResponseDTO agregarDeporte(Long usuarioId, String deporte, Double puntuacion, 
                                        String posicion, Integer anosExperiencia, String nivel) {
         Optional<PerfilJugador> perfilOpt = perfilJugadorRepository.findByUsuarioId(usuarioId);
         if (perfilOpt.isEmpty()) {
@@ -97,13 +100,13 @@ public class PerfilJugadorService {
 
         PerfilJugador perfil = perfilOpt.get();
         perfil.agregarDeporte(deporte, puntuacion, posicion, anosExperiencia, nivel);
-        return perfilJugadorRepository.save(perfil);
+        return new PerfilJugadorResponseDTO(perfilJugadorRepository.save(perfil));
     }
 
     /**
      * Actualizar puntuación de un deporte
      */
-    public PerfilJugador actualizarPuntuacionDeporte(Long usuarioId, String deporte, Double nuevaPuntuacion) {
+    public PerfilJugadorResponseDTO actualizarPuntuacionDeporte(Long usuarioId, String deporte, Double nuevaPuntuacion) {
         Optional<PerfilJugador> perfilOpt = perfilJugadorRepository.findByUsuarioId(usuarioId);
         if (perfilOpt.isEmpty()) {
             throw new RuntimeException("Perfil no encontrado");
@@ -119,13 +122,13 @@ public class PerfilJugadorService {
             }
         }
 
-        return perfilJugadorRepository.save(perfil);
+        return new PerfilJugadorResponseDTO(perfilJugadorRepository.save(perfil));
     }
 
     /**
      * Actualizar deporte completo
      */
-    public PerfilJugador actualizarDeporte(Long usuarioId, String deporteOriginal, String nuevoDeporte, 
+    public PerfilJugadorResponseDTO actualizarDeporte(Long usuarioId, String deporteOriginal, String nuevoDeporte, 
                                           Double puntuacion, String posicion, Integer anosExperiencia, String nivel) {
         Optional<PerfilJugador> perfilOpt = perfilJugadorRepository.findByUsuarioId(usuarioId);
         if (perfilOpt.isEmpty()) {
@@ -146,13 +149,13 @@ public class PerfilJugadorService {
             }
         }
 
-        return perfilJugadorRepository.save(perfil);
+        return new PerfilJugadorResponseDTO(perfilJugadorRepository.save(perfil));
     }
 
     /**
      * Eliminar deporte
      */
-    public PerfilJugador eliminarDeporte(Long usuarioId, String deporte) {
+    public PerfilJugadorResponseDTO eliminarDeporte(Long usuarioId, String deporte) {
         Optional<PerfilJugador> perfilOpt = perfilJugadorRepository.findByUsuarioId(usuarioId);
         if (perfilOpt.isEmpty()) {
             throw new RuntimeException("Perfil no encontrado");
@@ -163,13 +166,13 @@ public class PerfilJugadorService {
             perfil.getDeportes().removeIf(d -> deporte.equals(d.getDeporte()));
         }
 
-        return perfilJugadorRepository.save(perfil);
+        return new PerfilJugadorResponseDTO(perfilJugadorRepository.save(perfil));
     }
 
     /**
      * Agregar adjetivo al perfil
      */
-    public PerfilJugador agregarAdjetivo(Long usuarioId, String adjetivo) {
+    public PerfilJugadorResponseDTO agregarAdjetivo(Long usuarioId, String adjetivo) {
         Optional<PerfilJugador> perfilOpt = perfilJugadorRepository.findByUsuarioId(usuarioId);
         if (perfilOpt.isEmpty()) {
             throw new RuntimeException("Perfil no encontrado");
@@ -177,13 +180,13 @@ public class PerfilJugadorService {
 
         PerfilJugador perfil = perfilOpt.get();
         perfil.agregarAdjetivo(adjetivo);
-        return perfilJugadorRepository.save(perfil);
+        return new PerfilJugadorResponseDTO(perfilJugadorRepository.save(perfil));
     }
 
     /**
      * Remover adjetivo del perfil
      */
-    public PerfilJugador removerAdjetivo(Long usuarioId, String adjetivo) {
+    public PerfilJugadorResponseDTO removerAdjetivo(Long usuarioId, String adjetivo) {
         Optional<PerfilJugador> perfilOpt = perfilJugadorRepository.findByUsuarioId(usuarioId);
         if (perfilOpt.isEmpty()) {
             throw new RuntimeException("Perfil no encontrado");
@@ -191,48 +194,53 @@ public class PerfilJugadorService {
 
         PerfilJugador perfil = perfilOpt.get();
         perfil.removerAdjetivo(adjetivo);
-        return perfilJugadorRepository.save(perfil);
+        return new PerfilJugadorResponseDTO(perfilJugadorRepository.save(perfil));
     }
 
     /**
      * Buscar jugadores por deporte
      */
-    public List<PerfilJugador> buscarPorDeporte(String deporte) {
-        return perfilJugadorRepository.findByDeporte(deporte);
+    @Transactional(readOnly = true)
+    public List<PerfilJugadorResponseDTO> buscarPorDeporte(String deporte) {
+        return aDTOs(perfilJugadorRepository.findByDeporte(deporte));
     }
 
     /**
      * Buscar jugadores por nivel en un deporte
      */
-    public List<PerfilJugador> buscarPorDeporteYNivel(String deporte, String nivel) {
-        return perfilJugadorRepository.findByDeporteAndNivel(deporte, nivel);
+    @Transactional(readOnly = true)
+    public List<PerfilJugadorResponseDTO> buscarPorDeporteYNivel(String deporte, String nivel) {
+        return aDTOs(perfilJugadorRepository.findByDeporteAndNivel(deporte, nivel));
     }
 
     /**
      * Buscar jugadores por adjetivo
      */
-    public List<PerfilJugador> buscarPorAdjetivo(String adjetivo) {
-        return perfilJugadorRepository.findByAdjetivo(adjetivo);
+    @Transactional(readOnly = true)
+    public List<PerfilJugadorResponseDTO> buscarPorAdjetivo(String adjetivo) {
+        return aDTOs(perfilJugadorRepository.findByAdjetivo(adjetivo));
     }
 
     /**
      * Obtener top jugadores por rating
      */
-    public List<PerfilJugador> obtenerTopJugadoresPorRating() {
-        return perfilJugadorRepository.findTopByRatingPromedio();
+    @Transactional(readOnly = true)
+    public List<PerfilJugadorResponseDTO> obtenerTopJugadoresPorRating() {
+        return aDTOs(perfilJugadorRepository.findTopByRatingPromedio());
     }
 
     /**
      * Obtener top jugadores por partidos jugados
      */
-    public List<PerfilJugador> obtenerTopJugadoresPorPartidos() {
-        return perfilJugadorRepository.findTopByPartidosJugados();
+    @Transactional(readOnly = true)
+    public List<PerfilJugadorResponseDTO> obtenerTopJugadoresPorPartidos() {
+        return aDTOs(perfilJugadorRepository.findTopByPartidosJugados());
     }
 
     /**
      * Actualizar estadísticas de partidos
      */
-    public PerfilJugador actualizarEstadisticasPartidos(Long usuarioId, boolean victoria, boolean empate) {
+    public PerfilJugadorResponseDTO actualizarEstadisticasPartidos(Long usuarioId, boolean victoria, boolean empate) {
         Optional<PerfilJugador> perfilOpt = perfilJugadorRepository.findByUsuarioId(usuarioId);
         if (perfilOpt.isEmpty()) {
             throw new RuntimeException("Perfil no encontrado");
@@ -249,13 +257,13 @@ public class PerfilJugadorService {
             perfil.setPartidosPerdidos(perfil.getPartidosPerdidos() + 1);
         }
 
-        return perfilJugadorRepository.save(perfil);
+        return new PerfilJugadorResponseDTO(perfilJugadorRepository.save(perfil));
     }
 
     /**
      * Actualizar rating promedio
      */
-    public PerfilJugador actualizarRatingPromedio(Long usuarioId, Double nuevoRating) {
+    public PerfilJugadorResponseDTO actualizarRatingPromedio(Long usuarioId, Double nuevoRating) {
         Optional<PerfilJugador> perfilOpt = perfilJugadorRepository.findByUsuarioId(usuarioId);
         if (perfilOpt.isEmpty()) {
             throw new RuntimeException("Perfil no encontrado");
@@ -263,7 +271,7 @@ public class PerfilJugadorService {
 
         PerfilJugador perfil = perfilOpt.get();
         perfil.setRatingPromedio(nuevoRating);
-        return perfilJugadorRepository.save(perfil);
+        return new PerfilJugadorResponseDTO(perfilJugadorRepository.save(perfil));
     }
 
     /**
@@ -286,4 +294,9 @@ public class PerfilJugadorService {
     public Long contarJugadoresPorDeporte(String deporte) {
         return perfilJugadorRepository.countByDeporte(deporte);
     }
-} 
\ No newline at end of file
+
+    // Las vistas se arman dentro de la transacción: con open-in-view desactivado no hay sesión al serializar
+    private static List<PerfilJugadorResponseDTO> aDTOs(List<PerfilJugador> perfiles) {
+        return perfiles.stream().map(PerfilJugadorResponseDTO::new).toList();
+    }
+}
@@ -0,0 +1,310 @@
+package com.reservapp.service;
+
+import com.reservapp.entity.EventoStripe;
+import com.reservapp.entity.Reserva;
+import com.reservapp.repository.EventoStripeRepository;
+import com.reservapp.repository.ReservaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Aplica los eventos de Stripe pendientes de la bandeja sobre las reservas.
+ *
+ * En cada ciclo reclama un lote de eventos en orden de llegada, resuelve la reserva de cada uno
+ * (por la metadata {@code reserva_id} o, si falta, por el PaymentIntent o la sesión) y lo reparte
+ * en particiones por reserva, así los eventos de una misma reserva se aplican en orden y nunca
+ * en paralelo. Cada partición se procesa en el pool acotado {@code stripeWebhookExecutor},
+ * en una sola transacción y cargando todas sus reservas con una consulta que bloquea sus filas.
+ * Si la transacción de una partición falla, sus eventos se reintentan de a uno.
+ *
+ * Un pago que llega cuando la reserva ya no está activa (cancelada por vencimiento, por ejemplo)
+ * no la confirma: el pago queda en {@link Reserva.EstadoPago#REVISION} para reembolsarlo a mano.
+ */
+@Component
+public class ProcesadorEventosStripe {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcesadorEventosStripe.class);
+
+    static final String PAGO_EN_REVISION = "Pago recibido con la reserva inactiva: requiere reembolso manual";
+
+    @Autowired
+    private EventoStripeRepository eventoStripeRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MetricasReservas metricasReservas;
+
+    @Autowired
+    @Qualifier("stripeWebhookExecutor")
+    private Executor executor;
+
+    @Value("${reservapp.stripe.webhook.tamano-lote:200}")
+    private int tamanoLote;
+
+    @Value("${reservapp.stripe.webhook.hilos:4}")
+    private int particiones;
+
+    @Value("${reservapp.stripe.webhook.max-intentos:5}")
+    private int maxIntentos;
+
+    @Value("${reservapp.stripe.webhook.reclamo-segundos:300}")
+    private long reclamoSegundos;
+
+    /**
+     * Procesa los eventos pendientes. El siguiente ciclo no empieza hasta que termina el anterior
+     * y cada instancia solo procesa los eventos que reclamó, por lo que un evento nunca se aplica
+     * dos veces en paralelo.
+     */
+    @Scheduled(fixedDelayString = "${reservapp.stripe.webhook.intervalo-ms:1000}")
+    public void procesarPendientes() {
+        List<EventoStripe> lote = reclamarLote();
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        completarReservaIds(lote);
+
+        List<List<EventoStripe>> porParticion = new ArrayList<>();
+        for (int i = 0; i < particiones; i++) {
+            porParticion.add(new ArrayList<>());
+        }
+        for (EventoStripe evento : lote) {
+            Object clave = evento.getReservaId() != null ? evento.getReservaId() : evento.getId();
+            porParticion.get(Math.floorMod(clave.hashCode(), particiones)).add(evento);
+        }
+
+        CompletableFuture<?>[] tareas = porParticion.stream()
+                .filter(eventos -> !eventos.isEmpty())
+                .map(eventos -> CompletableFuture.runAsync(() -> procesarParticion(eventos), executor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(tareas).join();
+    }
+
+    /**
+     * Reclama para esta instancia un lote de eventos pendientes: un UPDATE condicional los marca con
+     * un token propio hasta {@code reclamo-segundos} y solo se procesan los que quedaron con ese token.
+     * Si la instancia se cae, sus eventos vuelven a estar disponibles cuando vence el reclamo.
+     */
+    private List<EventoStripe> reclamarLote() {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<String> candidatos = eventoStripeRepository.findIdsPendientes(ahora, PageRequest.of(0, tamanoLote));
+        if (candidatos.isEmpty()) {
+            return List.of();
+        }
+        String token = UUID.randomUUID().toString();
+        if (eventoStripeRepository.reclamar(candidatos, token, ahora.plusSeconds(reclamoSegundos), ahora) == 0) {
+            return List.of();
+        }
+        return eventoStripeRepository.findReclamados(token);
+    }
+
+    private void procesarParticion(List<EventoStripe> eventos) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> aplicar(eventos));
+            registrarResultados(eventos);
+        } catch (RuntimeException e) {
+            for (EventoStripe evento : eventos) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> aplicar(List.of(evento)));
+                    registrarResultados(List.of(evento));
+                } catch (RuntimeException errorEvento) {
+                    registrarFallo(evento, errorEvento);
+                }
+            }
+        }
+    }
+
+    // Asocia a su reserva los eventos que llegaron sin metadata (por ejemplo, charge.refunded)
+    private void completarReservaIds(List<EventoStripe> lote) {
+        Set<String> paymentIntentIds = new LinkedHashSet<>();
+        Set<String> sessionIds = new LinkedHashSet<>();
+        for (EventoStripe evento : lote) {
+            if (evento.getReservaId() == null) {
+                if (evento.getPaymentIntentId() != null) paymentIntentIds.add(evento.getPaymentIntentId());
+                if (evento.getSessionId() != null) sessionIds.add(evento.getSessionId());
+            }
+        }
+
+        Map<String, Long> porPaymentIntent = new HashMap<>();
+        Map<String, Long> porSession = new HashMap<>();
+        if (!paymentIntentIds.isEmpty()) {
+            for (ReservaRepository.ReferenciaStripe ref : reservaRepository.findReferenciasPorPaymentIntent(paymentIntentIds)) {
+                porPaymentIntent.put(ref.getStripePaymentIntentId(), ref.getId());
+            }
+        }
+        if (!sessionIds.isEmpty()) {
+            for (ReservaRepository.ReferenciaStripe ref : reservaRepository.findReferenciasPorSession(sessionIds)) {
+                porSession.put(ref.getStripeSessionId(), ref.getId());
+            }
+        }
+
+        for (EventoStripe evento : lote) {
+            if (evento.getReservaId() == null) {
+                Long reservaId = evento.getPaymentIntentId() != null ? porPaymentIntent.get(evento.getPaymentIntentId()) : null;
+                if (reservaId == null && evento.getSessionId() != null) {
+                    reservaId = porSession.get(evento.getSessionId());
+                }
+                evento.setReservaId(reservaId);
+            }
+        }
+    }
+
+    private void aplicar(List<EventoStripe> eventos) {
+        Set<Long> reservaIds = new LinkedHashSet<>();
+        for (EventoStripe evento : eventos) {
+            if (evento.getReservaId() != null) {
+                reservaIds.add(evento.getReservaId());
+            }
+        }
+        // Con las filas bloqueadas hasta el commit, el expirador no puede cancelar una reserva
+        // entre que se lee y se guarda su pago (lo que la confirmaría con el turno ya liberado)
+        Map<Long, Reserva> reservas = new HashMap<>();
+        if (!reservaIds.isEmpty()) {
+            for (Reserva reserva : reservaRepository.findAllByIdParaPago(reservaIds)) {
+                reservas.put(reserva.getId(), reserva);
+            }
+        }
+
+        Set<Reserva> modificadas = new LinkedHashSet<>();
+        LocalDateTime ahora = LocalDateTime.now();
+        for (EventoStripe evento : eventos) {
+            Reserva reserva = evento.getReservaId() != null ? reservas.get(evento.getReservaId()) : null;
+            String observacion = reserva == null && tieneReferencia(evento) ? "Reserva no encontrada" : null;
+            if (aplicarEvento(evento, reserva)) {
+                modificadas.add(reserva);
+                evento.setEstado(EventoStripe.EstadoEvento.PROCESADO);
+                if (reserva.getEstadoPago() == Reserva.EstadoPago.REVISION) {
+                    observacion = PAGO_EN_REVISION;
+                }
+            } else {
+                evento.setEstado(EventoStripe.EstadoEvento.IGNORADO);
+            }
+            evento.setUltimoError(observacion);
+            evento.setFechaProcesado(ahora);
+        }
+
+        reservaRepository.saveAll(modificadas);
+        eventoStripeRepository.saveAll(eventos);
+    }
+
+    /**
+     * Aplica la transición de estado que corresponde al evento. Devuelve false si el evento no aplica.
+     */
+    private boolean aplicarEvento(EventoStripe evento, Reserva reserva) {
+        if (reserva == null) {
+            return false;
+        }
+        switch (evento.getTipo()) {
+            case "payment_intent.succeeded":
+                return marcarPagada(reserva, evento.getPaymentIntentId());
+            case "checkout.session.completed":
+            case "checkout.session.async_payment_succeeded":
+                // Con medios de pago asíncronos la sesión se completa antes de cobrarse
+                return "paid".equals(evento.getEstadoObjeto()) && marcarPagada(reserva, evento.getPaymentIntentId());
+            case "payment_intent.payment_failed":
+            case "checkout.session.async_payment_failed":
+                if (reserva.getEstadoPago() == Reserva.EstadoPago.PENDIENTE) {
+                    reserva.setEstadoPago(Reserva.EstadoPago.FALLIDO);
+                    return true;
+                }
+                return false;
+            case "charge.refunded":
+                if (reserva.getEstadoPago() != Reserva.EstadoPago.REEMBOLSADO) {
+                    reserva.setEstadoPago(Reserva.EstadoPago.REEMBOLSADO);
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    private boolean marcarPagada(Reserva reserva, String paymentIntentId) {
+        Reserva.EstadoPago estadoPago = reserva.getEstadoPago();
+        if (estadoPago == Reserva.EstadoPago.REEMBOLSADO || estadoPago == Reserva.EstadoPago.REVISION) {
+            return false;
+        }
+        boolean activa = reserva.getEstado() == Reserva.EstadoReserva.PENDIENTE
+                || reserva.getEstado() == Reserva.EstadoReserva.CONFIRMADA;
+        if (!activa && estadoPago == Reserva.EstadoPago.PAGADO) {
+            // Ya estaba pagada antes de cancelarse o completarse: evento repetido
+            return false;
+        }
+        if (reserva.getStripePaymentIntentId() == null && paymentIntentId != null) {
+            reserva.setStripePaymentIntentId(paymentIntentId);
+        }
+        if (!activa) {
+            // Su turno pudo haberse reservado de nuevo: no se confirma
+            reserva.setEstadoPago(Reserva.EstadoPago.REVISION);
+            log.warn("Pago {} recibido para la reserva {} en estado {}: queda en revisión para reembolsarlo",
+                    reserva.getStripePaymentIntentId(), reserva.getId(), reserva.getEstado());
+            return true;
+        }
+        reserva.setEstadoPago(Reserva.EstadoPago.PAGADO);
+        if (reserva.getEstado() == Reserva.EstadoReserva.PENDIENTE) {
+            reserva.setEstado(Reserva.EstadoReserva.CONFIRMADA);
+        }
+        return true;
+    }
+
+    // Se cuentan después del commit, así un lote que se reintenta no se cuenta dos veces
+    private void registrarResultados(List<EventoStripe> eventos) {
+        for (EventoStripe evento : eventos) {
+            if (evento.getEstado() != EventoStripe.EstadoEvento.PROCESADO) {
+                continue;
+            }
+            switch (evento.getTipo()) {
+                case "payment_intent.payment_failed":
+                case "checkout.session.async_payment_failed":
+                    metricasReservas.resultadoPago("fallido", "webhook");
+                    break;
+                case "charge.refunded":
+                    metricasReservas.resultadoPago("reembolsado", "webhook");
+                    break;
+                default:
+                    metricasReservas.resultadoPago(PAGO_EN_REVISION.equals(evento.getUltimoError())
+                            ? "revision" : "pagado", "webhook");
+            }
+        }
+    }
+
+    private void registrarFallo(EventoStripe evento, RuntimeException error) {
+        evento.setIntentos(evento.getIntentos() + 1);
+        evento.setEstado(evento.getIntentos() >= maxIntentos
+                ? EventoStripe.EstadoEvento.FALLIDO : EventoStripe.EstadoEvento.PENDIENTE);
+        String mensaje = Objects.toString(error.getMessage(), error.getClass().getSimpleName());
+        evento.setUltimoError(mensaje.length() > 500 ? mensaje.substring(0, 500) : mensaje);
+        evento.setFechaProcesado(null);
+        // Se libera el reclamo para reintentarlo en el próximo ciclo
+        evento.setReclamadoHasta(null);
+        eventoStripeRepository.save(evento);
+    }
+
+    private static boolean tieneReferencia(EventoStripe evento) {
+        return evento.getReservaId() != null || evento.getPaymentIntentId() != null || evento.getSessionId() != null;
+    }
+}
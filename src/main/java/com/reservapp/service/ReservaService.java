@@ -1,18 +1,29 @@
 package com.reservapp.service;
 
+import com.reservapp.dto.CursorReservas;
+import com.reservapp.dto.PaginaReservas;
+import com.reservapp.dto.ReservaAdminDTO;
+import com.reservapp.dto.ReservaJugadorDTO;
 import com.reservapp.entity.Cancha;
 import com.reservapp.entity.Reserva;
 import com.reservapp.entity.Usuario;
 import com.reservapp.repository.CanchaRepository;
 import com.reservapp.repository.ReservaRepository;
 import com.reservapp.repository.UsuarioRepository;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
 @Service
 public class ReservaService {
@@ -29,38 +40,85 @@ public class ReservaService {
     @Autowired
     private ConfiguracionHorarioService configuracionHorarioService;
 
+    @Autowired
+    private IndiceOcupacionCanchas indiceOcupacion;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MetricasReservas metricasReservas;
+
+    @Value("${reservapp.reservas.pagina.tamano-defecto:50}")
+    private int tamanoPaginaDefecto;
+
+    @Value("${reservapp.reservas.pagina.tamano-maximo:200}")
+    private int tamanoPaginaMaximo;
+
+    // Bloqueos por franjas: las reservas de una misma cancha se serializan,
+    // las de canchas distintas (en general) corren en paralelo
+    private static final int FRANJAS_BLOQUEO = 64;
+    private final ReentrantLock[] bloqueos = new ReentrantLock[FRANJAS_BLOQUEO];
+
+    {
+        for (int i = 0; i < FRANJAS_BLOQUEO; i++) {
+            bloqueos[i] = new ReentrantLock();
+        }
+    }
+
     /**
      * Crea una nueva reserva
      */
     public Reserva crearReserva(Long usuarioId, Long canchaId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        Timer.Sample muestra = metricasReservas.iniciarCreacion();
+        boolean creada = false;
+        ReentrantLock bloqueo = bloqueos[Math.floorMod(canchaId.hashCode(), FRANJAS_BLOQUEO)];
+        bloqueo.lock();
+        try {
+            // El índice se actualiza después del commit para que las consultas de
+            // disponibilidad ya vean esta reserva
+            Reserva guardada = transactionTemplate.execute(status ->
+                    crearReservaEnTransaccion(usuarioId, canchaId, fechaInicio, fechaFin));
+            indiceOcupacion.registrar(guardada);
+            creada = true;
+            return guardada;
+        } finally {
+            bloqueo.unlock();
+            metricasReservas.finalizarCreacion(muestra, creada);
+        }
+    }
+
+    private Reserva crearReservaEnTransaccion(Long usuarioId, Long canchaId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
         // Validar que el usuario existe
         Usuario usuario = usuarioRepository.findById(usuarioId)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+                .orElseThrow(() -> rechazo("usuario_inexistente", "Usuario no encontrado"));
 
-        // Validar que la cancha existe
-        Cancha cancha = canchaRepository.findById(canchaId)
-                .orElseThrow(() -> new RuntimeException("Cancha no encontrada"));
+        // Validar que la cancha existe, bloqueando su fila hasta el commit para que
+        // otras instancias de la aplicación no puedan reservarla en paralelo
+        Cancha cancha = canchaRepository.findByIdParaReserva(canchaId)
+                .orElseThrow(() -> rechazo("cancha_inexistente", "Cancha no encontrada"));
 
         // Validar que la cancha está disponible
         if (!cancha.getDisponible()) {
-            throw new RuntimeException("La cancha no está disponible");
+            throw rechazo("cancha_no_disponible", "La cancha no está disponible");
         }
 
         // Validar horario según configuración de la cancha
         if (!configuracionHorarioService.validarHorario(canchaId, fechaInicio, fechaFin)) {
-            throw new RuntimeException("El horario seleccionado no está disponible según la configuración de la cancha");
+            throw rechazo("horario_invalido", "El horario seleccionado no está disponible según la configuración de la cancha");
         }
 
-        // Validar que no hay conflictos de horario
-        List<Reserva> conflictos = reservaRepository.findReservasConflicto(canchaId, fechaInicio, fechaFin);
-        if (!conflictos.isEmpty()) {
+        // Validar que no hay conflictos de horario contra la base, con la fila de la cancha
+        // bloqueada: el índice en memoria no ve lo que reservan o cancelan otras instancias
+        if (reservaRepository.existsReservaConflicto(canchaId, fechaInicio, fechaFin)) {
+            metricasReservas.conflicto();
             throw new RuntimeException("Ya existe una reserva en ese horario");
         }
 
         // Calcular el monto total basado en la duración del turno configurado
         long minutos = ChronoUnit.MINUTES.between(fechaInicio, fechaFin);
         if (minutos <= 0) {
-            throw new RuntimeException("La duración de la reserva debe ser mayor a 0 minutos");
+            throw rechazo("duracion_invalida", "La duración de la reserva debe ser mayor a 0 minutos");
         }
         
         // Convertir minutos a horas para el cálculo del precio
@@ -73,21 +131,80 @@ public class ReservaService {
         return reservaRepository.save(reserva);
     }
 
+    // Cuenta la validación fallida y devuelve la excepción a lanzar
+    private RuntimeException rechazo(String motivo, String mensaje) {
+        metricasReservas.validacionFallida(motivo);
+        return new RuntimeException(mensaje);
+    }
+
     /**
-     * Obtiene las reservas de un usuario
+     * Página de reservas del jugador, ordenadas de la más reciente a la más antigua.
+     * Los filtros de estado y rango de fechas (sobre el inicio de la reserva) son opcionales.
      */
-    public List<Reserva> getReservasByUsuario(Long usuarioId) {
-        Usuario usuario = usuarioRepository.findById(usuarioId)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-        
-        return reservaRepository.findByUsuarioOrderByFechaCreacionDesc(usuario);
+    public PaginaReservas<ReservaJugadorDTO> getPaginaReservasJugador(Long usuarioId, String cursor, Integer limite,
+                                                                      String estado, LocalDate desde, LocalDate hasta) {
+        CursorReservas posicion = CursorReservas.decodificar(cursor);
+        int tamano = tamanoPagina(limite);
+        List<ReservaJugadorDTO> filas = reservaRepository.findPaginaReservasJugador(usuarioId,
+                posicion != null ? posicion.getFechaCreacion() : null,
+                posicion != null ? posicion.getId() : null,
+                parsearEstado(estado), inicioDelDia(desde), inicioDelDiaSiguiente(hasta),
+                PageRequest.of(0, tamano + 1));
+        return armarPagina(filas, tamano, ReservaJugadorDTO::getCursor);
     }
 
     /**
-     * Obtiene las reservas de un club
+     * Página de reservas de un club para el administrador, con los mismos filtros que la del jugador
      */
-    public List<Reserva> getReservasByClub(Long clubId) {
-        return reservaRepository.findReservasByClubId(clubId);
+    public PaginaReservas<ReservaAdminDTO> getPaginaReservasAdminPorClub(Long clubId, String cursor, Integer limite,
+                                                                         String estado, LocalDate desde, LocalDate hasta) {
+        CursorReservas posicion = CursorReservas.decodificar(cursor);
+        int tamano = tamanoPagina(limite);
+        List<ReservaAdminDTO> filas = reservaRepository.findPaginaReservasAdminPorClub(clubId,
+                posicion != null ? posicion.getFechaCreacion() : null,
+                posicion != null ? posicion.getId() : null,
+                parsearEstado(estado), inicioDelDia(desde), inicioDelDiaSiguiente(hasta),
+                PageRequest.of(0, tamano + 1));
+        return armarPagina(filas, tamano, ReservaAdminDTO::getCursor);
+    }
+
+    private int tamanoPagina(Integer limite) {
+        if (limite == null) {
+            return tamanoPaginaDefecto;
+        }
+        if (limite < 1) {
+            throw new IllegalArgumentException("El límite debe ser mayor a cero");
+        }
+        return Math.min(limite, tamanoPaginaMaximo);
+    }
+
+    private static Reserva.EstadoReserva parsearEstado(String estado) {
+        if (estado == null || estado.isBlank()) {
+            return null;
+        }
+        try {
+            return Reserva.EstadoReserva.valueOf(estado.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Estado de reserva inválido: " + estado);
+        }
+    }
+
+    private static LocalDateTime inicioDelDia(LocalDate fecha) {
+        return fecha != null ? fecha.atStartOfDay() : null;
+    }
+
+    // El filtro "hasta" incluye el día completo
+    private static LocalDateTime inicioDelDiaSiguiente(LocalDate fecha) {
+        return fecha != null ? fecha.plusDays(1).atStartOfDay() : null;
+    }
+
+    // Se pide una fila de más para saber si hay otra página sin hacer un COUNT
+    private static <T> PaginaReservas<T> armarPagina(List<T> filas, int tamano, Function<T, CursorReservas> cursor) {
+        if (filas.size() <= tamano) {
+            return new PaginaReservas<>(filas, null);
+        }
+        List<T> pagina = filas.subList(0, tamano);
+        return new PaginaReservas<>(pagina, cursor.apply(pagina.get(tamano - 1)).codificar());
     }
 
     /**
@@ -97,6 +214,13 @@ public class ReservaService {
         return reservaRepository.findById(id);
     }
 
+    /**
+     * Obtiene la vista de una reserva para el jugador, con una sola consulta
+     */
+    public Optional<ReservaJugadorDTO> getReservaJugadorById(Long id) {
+        return reservaRepository.findReservaJugadorById(id);
+    }
+
     /**
      * Cancela una reserva
      */
@@ -117,6 +241,7 @@ public class ReservaService {
 
         reserva.setEstado(Reserva.EstadoReserva.CANCELADA);
         reservaRepository.save(reserva);
+        indiceOcupacion.quitar(reserva.getCancha().getId(), reserva.getId());
     }
 
     /**
@@ -129,6 +254,7 @@ public class ReservaService {
         reserva.setEstado(Reserva.EstadoReserva.CONFIRMADA);
         reserva.setEstadoPago(Reserva.EstadoPago.PAGADO);
         reservaRepository.save(reserva);
+        indiceOcupacion.registrar(reserva);
     }
 
     /**
@@ -140,13 +266,21 @@ public class ReservaService {
 
         reserva.setEstado(Reserva.EstadoReserva.COMPLETADA);
         reservaRepository.save(reserva);
+        indiceOcupacion.quitar(reserva.getCancha().getId(), reserva.getId());
+    }
+
+    /**
+     * Obtiene los intervalos ocupados de todas las canchas de un club en un rango de fechas
+     */
+    public List<ReservaRepository.IntervaloReserva> getIntervalosOcupadosPorClub(Long clubId, LocalDateTime desde, LocalDateTime hasta) {
+        return reservaRepository.findIntervalosActivosPorClubEnRango(clubId, desde, hasta);
     }
 
     /**
-     * Verifica si una cancha está disponible en un horario específico
+     * Verifica si una cancha está disponible en un horario específico.
+     * Responde desde el índice en memoria; crearReserva vuelve a verificar contra la base.
      */
     public boolean isCanchaDisponible(Long canchaId, LocalDateTime fechaInicio, LocalDateTime fechaFin) {
-        List<Reserva> conflictos = reservaRepository.findReservasConflicto(canchaId, fechaInicio, fechaFin);
-        return conflictos.isEmpty();
+        return indiceOcupacion.estaLibre(canchaId, fechaInicio, fechaFin);
     }
 }
\ No newline at end of file
@@ -2,7 +2,6 @@ package com.reservapp.service;
 
 import com.reservapp.entity.Reserva;
 import com.reservapp.repository.ReservaRepository;
-import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
 import com.stripe.model.checkout.Session;
 import com.stripe.param.PaymentIntentCreateParams;
@@ -10,9 +9,11 @@ import com.stripe.param.checkout.SessionCreateParams;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class StripeService {
@@ -20,13 +21,24 @@ public class StripeService {
     @Autowired
     private ReservaRepository reservaRepository;
 
+    @Autowired
+    private ClienteStripe clienteStripe;
+
+    @Autowired
+    private MetricasReservas metricasReservas;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Value("${stripe.publishable.key}")
     private String stripePublishableKey;
 
     /**
-     * Crea un Payment Intent para procesar el pago
+     * Crea un Payment Intent para procesar el pago. Los parámetros se arman en el hilo de la
+     * petición; la llamada a Stripe corre en el pool de {@link ClienteStripe}.
      */
-    public PaymentIntent createPaymentIntent(Reserva reserva) throws StripeException {
+    public CompletableFuture<PaymentIntent> createPaymentIntent(Reserva reserva) {
+        Long reservaId = reserva.getId();
         PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
                 .setAmount((long) (reserva.getMontoTotal() * 100)) // Stripe usa centavos
                 .setCurrency("usd")
@@ -36,19 +48,21 @@ public class StripeService {
                 .putMetadata("cancha_id", reserva.getCancha().getId().toString())
                 .build();
 
-        PaymentIntent paymentIntent = PaymentIntent.create(params);
-        
-        // Guardar el Payment Intent ID en la reserva
-        reserva.setStripePaymentIntentId(paymentIntent.getId());
-        reservaRepository.save(reserva);
-        
-        return paymentIntent;
+        return clienteStripe.ejecutar(() -> {
+            PaymentIntent paymentIntent = PaymentIntent.create(params);
+
+            // Guardar el Payment Intent ID en la reserva
+            reservaRepository.actualizarStripePaymentIntentId(reservaId, paymentIntent.getId());
+
+            return paymentIntent;
+        });
     }
 
     /**
      * Crea una sesión de Checkout para el pago
      */
-    public Session createCheckoutSession(Reserva reserva, String successUrl, String cancelUrl) throws StripeException {
+    public CompletableFuture<Session> createCheckoutSession(Reserva reserva, String successUrl, String cancelUrl) {
+        Long reservaId = reserva.getId();
         SessionCreateParams params = SessionCreateParams.builder()
                 .setMode(SessionCreateParams.Mode.PAYMENT)
                 .setSuccessUrl(successUrl + "?session_id={CHECKOUT_SESSION_ID}")
@@ -74,45 +88,75 @@ public class StripeService {
                 .putMetadata("usuario_id", reserva.getUsuario().getId().toString())
                 .build();
 
-        Session session = Session.create(params);
-        
-        // Guardar el Session ID en la reserva
-        reserva.setStripeSessionId(session.getId());
-        reservaRepository.save(reserva);
-        
-        return session;
+        return clienteStripe.ejecutar(() -> {
+            Session session = Session.create(params);
+
+            // Guardar el Session ID en la reserva
+            reservaRepository.actualizarStripeSessionId(reservaId, session.getId());
+
+            return session;
+        });
     }
 
     /**
      * Confirma el pago y actualiza el estado de la reserva
      */
-    public void confirmarPago(String paymentIntentId) throws StripeException {
-        PaymentIntent paymentIntent = PaymentIntent.retrieve(paymentIntentId);
-        
-        if ("succeeded".equals(paymentIntent.getStatus())) {
-            Reserva reserva = reservaRepository.findByStripePaymentIntentId(paymentIntentId)
-                    .orElseThrow(() -> new RuntimeException("Reserva no encontrada"));
-            
-            reserva.setEstadoPago(Reserva.EstadoPago.PAGADO);
-            reserva.setEstado(Reserva.EstadoReserva.CONFIRMADA);
-            reservaRepository.save(reserva);
-        }
+    public CompletableFuture<Void> confirmarPago(String paymentIntentId) {
+        return clienteStripe.ejecutar(() -> PaymentIntent.retrieve(paymentIntentId))
+                .thenAccept(paymentIntent -> {
+                    if ("succeeded".equals(paymentIntent.getStatus())) {
+                        transactionTemplate.executeWithoutResult(status -> {
+                            Reserva reserva = reservaRepository.findByStripePaymentIntentId(paymentIntentId)
+                                    .orElseThrow(() -> new RuntimeException("Reserva no encontrada"));
+
+                            marcarPagada(reserva);
+                        });
+                    }
+                });
     }
 
     /**
      * Confirma el pago desde una sesión de checkout
      */
-    public void confirmarPagoDesdeSession(String sessionId) throws StripeException {
-        Session session = Session.retrieve(sessionId);
-        
-        if ("complete".equals(session.getStatus()) && "paid".equals(session.getPaymentStatus())) {
-            Reserva reserva = reservaRepository.findByStripeSessionId(sessionId)
-                    .orElseThrow(() -> new RuntimeException("Reserva no encontrada"));
-            
-            reserva.setEstadoPago(Reserva.EstadoPago.PAGADO);
-            reserva.setEstado(Reserva.EstadoReserva.CONFIRMADA);
+    public CompletableFuture<Void> confirmarPagoDesdeSession(String sessionId) {
+        return clienteStripe.ejecutar(() -> Session.retrieve(sessionId))
+                .thenAccept(session -> {
+                    if ("complete".equals(session.getStatus()) && "paid".equals(session.getPaymentStatus())) {
+                        transactionTemplate.executeWithoutResult(status -> {
+                            Reserva reserva = reservaRepository.findByStripeSessionId(sessionId)
+                                    .orElseThrow(() -> new RuntimeException("Reserva no encontrada"));
+
+                            marcarPagada(reserva);
+                        });
+                    }
+                });
+    }
+
+    /**
+     * Registra el pago. Una reserva cancelada (por ejemplo, vencida sin pagar) no se vuelve a
+     * confirmar porque su turno pudo haberse reservado de nuevo: el pago queda en REVISION
+     * para reembolsarlo a mano, igual que cuando llega por webhook. Se llama con la fila de la
+     * reserva bloqueada, así el expirador no la cancela entre la lectura y el guardado.
+     */
+    private void marcarPagada(Reserva reserva) {
+        Reserva.EstadoPago estadoPago = reserva.getEstadoPago();
+        if (estadoPago == Reserva.EstadoPago.PAGADO || estadoPago == Reserva.EstadoPago.REEMBOLSADO
+                || estadoPago == Reserva.EstadoPago.REVISION) {
+            return;
+        }
+        if (reserva.getEstado() == Reserva.EstadoReserva.CANCELADA
+                || reserva.getEstado() == Reserva.EstadoReserva.COMPLETADA) {
+            reserva.setEstadoPago(Reserva.EstadoPago.REVISION);
             reservaRepository.save(reserva);
+            metricasReservas.resultadoPago("revision", "confirmacion");
+            return;
         }
+        reserva.setEstadoPago(Reserva.EstadoPago.PAGADO);
+        if (reserva.getEstado() == Reserva.EstadoReserva.PENDIENTE) {
+            reserva.setEstado(Reserva.EstadoReserva.CONFIRMADA);
+        }
+        reservaRepository.save(reserva);
+        metricasReservas.resultadoPago("pagado", "confirmacion");
     }
 
     /**
@@ -0,0 +1,95 @@
+package com.reservapp.service;
+
+import com.reservapp.entity.EventoStripe;
+import com.reservapp.repository.EventoStripeRepository;
+import com.stripe.exception.EventDataObjectDeserializationException;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.model.Charge;
+import com.stripe.model.Event;
+import com.stripe.model.EventDataObjectDeserializer;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.StripeObject;
+import com.stripe.model.checkout.Session;
+import com.stripe.net.Webhook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * Recepción de webhooks de Stripe: verifica la firma y guarda el evento en la bandeja
+ * {@link EventoStripe}. La aplicación sobre las reservas la hace {@link ProcesadorEventosStripe}.
+ */
+@Service
+public class WebhookStripeService {
+
+    @Autowired
+    private EventoStripeRepository eventoStripeRepository;
+
+    @Value("${stripe.webhook.secret}")
+    private String webhookSecret;
+
+    /**
+     * Verifica la firma y encola el evento. Devuelve false si el evento ya se había recibido.
+     */
+    public boolean recibirEvento(String payload, String firma) throws SignatureVerificationException {
+        Event evento = Webhook.constructEvent(payload, firma, webhookSecret);
+
+        if (eventoStripeRepository.existsById(evento.getId())) {
+            return false;
+        }
+
+        EventoStripe registro = new EventoStripe(evento.getId(), evento.getType(), payload);
+        extraerDatos(evento, registro);
+        try {
+            eventoStripeRepository.saveAndFlush(registro);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Reenvío del mismo evento recibido en paralelo
+            return false;
+        }
+    }
+
+    private void extraerDatos(Event evento, EventoStripe registro) {
+        StripeObject objeto = deserializar(evento);
+        Map<String, String> metadata = null;
+
+        if (objeto instanceof PaymentIntent paymentIntent) {
+            registro.setPaymentIntentId(paymentIntent.getId());
+            registro.setEstadoObjeto(paymentIntent.getStatus());
+            metadata = paymentIntent.getMetadata();
+        } else if (objeto instanceof Session session) {
+            registro.setSessionId(session.getId());
+            registro.setPaymentIntentId(session.getPaymentIntent());
+            registro.setEstadoObjeto(session.getPaymentStatus());
+            metadata = session.getMetadata();
+        } else if (objeto instanceof Charge charge) {
+            registro.setPaymentIntentId(charge.getPaymentIntent());
+            registro.setEstadoObjeto(charge.getStatus());
+            metadata = charge.getMetadata();
+        }
+
+        if (metadata != null && metadata.get("reserva_id") != null) {
+            try {
+                registro.setReservaId(Long.valueOf(metadata.get("reserva_id")));
+            } catch (NumberFormatException e) {
+                // Metadata ajena a la aplicación: se resuelve por los IDs de Stripe
+            }
+        }
+    }
+
+    private StripeObject deserializar(Event evento) {
+        EventDataObjectDeserializer deserializer = evento.getDataObjectDeserializer();
+        if (deserializer.getObject().isPresent()) {
+            return deserializer.getObject().get();
+        }
+        // Versión de API distinta a la del SDK: se intenta igual, los campos usados son estables
+        try {
+            return deserializer.deserializeUnsafe();
+        } catch (EventDataObjectDeserializationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.reservapp;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.ApplicationContext;
+
+import com.reservapp.entity.Cancha;
+import com.reservapp.entity.Club;
+import com.reservapp.entity.ConfiguracionHorario;
+import com.reservapp.entity.Usuario;
+import com.reservapp.repository.CanchaRepository;
+import com.reservapp.repository.ClubRepository;
+import com.reservapp.repository.ConfiguracionHorarioRepository;
+import com.reservapp.repository.UsuarioRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Clubes de prueba de cualquier tamaño y conteo de sentencias SQL, para los tests que verifican
+ * que una lectura usa la misma cantidad de consultas con pocas o muchas canchas.
+ * Requiere {@code hibernate.generate_statistics=true} (perfil "test").
+ */
+public final class ClubesPrueba {
+
+    private final UsuarioRepository usuarioRepository;
+    private final ClubRepository clubRepository;
+    private final CanchaRepository canchaRepository;
+    private final ConfiguracionHorarioRepository configuracionHorarioRepository;
+    private final Statistics estadisticas;
+
+    public ClubesPrueba(ApplicationContext contexto) {
+        this.usuarioRepository = contexto.getBean(UsuarioRepository.class);
+        this.clubRepository = contexto.getBean(ClubRepository.class);
+        this.canchaRepository = contexto.getBean(CanchaRepository.class);
+        this.configuracionHorarioRepository = contexto.getBean(ConfiguracionHorarioRepository.class);
+        this.estadisticas = contexto.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Club con servicios y canchas de pádel y tenis con dos imágenes cada una; las canchas con ID
+     * par tienen configuración propia (8 a 23 h) y las demás usan el horario por defecto
+     */
+    public Club crearClub(int canchas) {
+        Usuario propietario = usuarioRepository.save(DatosPrueba.usuario("CLUB"));
+        Club club = new Club("Club " + canchas, null, "Calle 1", null, null, null, null, propietario);
+        club.setServicios(List.of("Vestuarios", "Estacionamiento"));
+        club = clubRepository.save(club);
+
+        List<Cancha> nuevas = new ArrayList<>(canchas);
+        for (int i = 0; i < canchas; i++) {
+            nuevas.add(new Cancha("Cancha " + i, null, i % 2 == 0 ? "Pádel" : "Tenis", "Calle 1", 10000.0,
+                    null, List.of("cancha" + i + ".jpg", "cancha" + i + "-b.jpg"), club));
+        }
+        List<ConfiguracionHorario> configuraciones = new ArrayList<>();
+        for (Cancha cancha : canchaRepository.saveAll(nuevas)) {
+            if (cancha.getId() % 2 == 0) {
+                configuraciones.add(new ConfiguracionHorario(cancha, LocalTime.of(8, 0), LocalTime.of(23, 0), 60));
+            }
+        }
+        configuracionHorarioRepository.saveAll(configuraciones);
+        return club;
+    }
+
+    /**
+     * Sentencias preparadas por la consulta (Hibernate Statistics.getPrepareStatementCount)
+     */
+    public long contarSentencias(Runnable consulta) {
+        estadisticas.clear();
+        consulta.run();
+        return estadisticas.getPrepareStatementCount();
+    }
+}
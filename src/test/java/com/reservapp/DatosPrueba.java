@@ -0,0 +1,29 @@
+package com.reservapp;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.reservapp.entity.Usuario;
+
+/**
+ * Datos de prueba compartidos por los tests que usan la base H2 del perfil "test".
+ * El contexto (y la base) se reutiliza entre clases, así que los emails se generan únicos.
+ */
+public final class DatosPrueba {
+
+    private static final AtomicInteger SECUENCIA = new AtomicInteger();
+
+    private DatosPrueba() {}
+
+    /**
+     * Usuario sin guardar con un email único
+     */
+    public static Usuario usuario(String tipo) {
+        String email = tipo.toLowerCase() + "-" + SECUENCIA.incrementAndGet() + "@prueba.test";
+        Usuario usuario = new Usuario();
+        usuario.setNombre(email);
+        usuario.setEmail(email);
+        usuario.setPassword("secreto123");
+        usuario.setTipo(tipo);
+        return usuario;
+    }
+}
@@ -0,0 +1,96 @@
+package com.reservapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.reservapp.ClubesPrueba;
+import com.reservapp.DatosPrueba;
+import com.reservapp.entity.Cancha;
+import com.reservapp.entity.Club;
+import com.reservapp.entity.Reserva;
+import com.reservapp.entity.Usuario;
+import com.reservapp.repository.CanchaRepository;
+import com.reservapp.repository.ReservaRepository;
+import com.reservapp.repository.UsuarioRepository;
+
+/**
+ * El calendario maestro de un club se arma con una cantidad fija de sentencias SQL,
+ * sin importar cuántas canchas, configuraciones y reservas tenga el club.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class CalendarioMaestroServiceConsultasTest {
+
+    @Autowired
+    private CalendarioMaestroService calendarioMaestroService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CanchaRepository canchaRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private ApplicationContext contexto;
+
+    private ClubesPrueba clubes;
+    private Usuario jugador;
+    private LocalDate lunes;
+
+    @BeforeEach
+    void preparar() {
+        clubes = new ClubesPrueba(contexto);
+        jugador = usuarioRepository.save(DatosPrueba.usuario("JUGADOR"));
+        lunes = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    @Test
+    void laSemanaDeUnClubUsaLasMismasConsultasConPocasOMuchasCanchas() {
+        Long chico = crearClubConReservas(2);
+        Long grande = crearClubConReservas(40);
+
+        long consultasChico = clubes.contarSentencias(() -> calendarioMaestroService.getDisponibilidadPorClub(chico, lunes, 7));
+        long consultasGrande = clubes.contarSentencias(() -> calendarioMaestroService.getDisponibilidadPorClub(grande, lunes, 7));
+
+        assertEquals(consultasChico, consultasGrande);
+    }
+
+    @Test
+    void elCalendarioYLasConfiguracionesUsanLasMismasConsultasConPocasOMuchasCanchas() {
+        Long chico = crearClubConReservas(2);
+        Long grande = crearClubConReservas(40);
+
+        assertEquals(clubes.contarSentencias(() -> calendarioMaestroService.getCalendarioMaestroPorClub(chico)),
+                clubes.contarSentencias(() -> calendarioMaestroService.getCalendarioMaestroPorClub(grande)));
+        assertEquals(clubes.contarSentencias(() -> calendarioMaestroService.getConfiguracionesPorDeporte(chico)),
+                clubes.contarSentencias(() -> calendarioMaestroService.getConfiguracionesPorDeporte(grande)));
+    }
+
+    // Club de prueba con reservas en días alternos de la semana en todas sus canchas
+    private Long crearClubConReservas(int canchas) {
+        Club club = clubes.crearClub(canchas);
+        int i = 0;
+        for (Cancha cancha : canchaRepository.findByClubId(club.getId())) {
+            for (int d = 0; d < 7; d += 2) {
+                LocalDateTime inicio = lunes.plusDays(d).atTime(10 + i % 8, 0);
+                reservaRepository.save(new Reserva(jugador, cancha, inicio, inicio.plusHours(1), 10000.0));
+            }
+            i++;
+        }
+        return club.getId();
+    }
+}
@@ -0,0 +1,214 @@
+package com.reservapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.reservapp.config.StripeConfig;
+import com.reservapp.exception.StripeNoDisponibleException;
+import com.stripe.Stripe;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * ClienteStripe contra un servidor HTTP local que reemplaza a la API de Stripe y permite
+ * inyectar demoras y errores: tiempo máximo, rechazo por pool lleno y circuito.
+ */
+class ClienteStripeTest {
+
+    private static final int CONCURRENCIA = 2;
+    private static final long TIMEOUT_MS = 300;
+    private static final int FALLOS_PARA_ABRIR = 3;
+
+    private HttpServer servidor;
+    private ExecutorService hilosServidor;
+    private ThreadPoolTaskExecutor executor;
+    private ClienteStripe cliente;
+
+    // Comportamiento del servidor para el próximo pedido
+    private volatile long retrasoMs;
+    private volatile int status = 200;
+    private final AtomicInteger pedidos = new AtomicInteger();
+    private volatile CountDownLatch enCurso = new CountDownLatch(0);
+
+    private String apiBaseOriginal;
+    private int reintentosOriginales;
+
+    @BeforeEach
+    void preparar() throws IOException {
+        hilosServidor = Executors.newCachedThreadPool();
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.setExecutor(hilosServidor);
+        servidor.createContext("/", intercambio -> {
+            pedidos.incrementAndGet();
+            enCurso.countDown();
+            try {
+                Thread.sleep(retrasoMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String cuerpo = status == 200
+                    ? "{\"id\": \"pi_prueba\", \"object\": \"payment_intent\", \"status\": \"succeeded\"}"
+                    : "{\"error\": {\"type\": \"" + (status >= 500 ? "api_error" : "invalid_request_error")
+                            + "\", \"message\": \"Error simulado\"}}";
+            byte[] bytes = cuerpo.getBytes(StandardCharsets.UTF_8);
+            intercambio.getResponseHeaders().add("Content-Type", "application/json");
+            intercambio.sendResponseHeaders(status, bytes.length);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(bytes);
+            } catch (IOException e) {
+                // El cliente cortó la conexión por timeout
+            }
+        });
+        servidor.start();
+
+        apiBaseOriginal = Stripe.getApiBase();
+        reintentosOriginales = Stripe.getMaxNetworkRetries();
+        Stripe.apiKey = "sk_test_prueba";
+        Stripe.setMaxNetworkRetries(0);
+        Stripe.overrideApiBase("http://127.0.0.1:" + servidor.getAddress().getPort());
+
+        executor = new StripeConfig().stripeClienteExecutor(CONCURRENCIA);
+        executor.initialize();
+        cliente = nuevoCliente(60000);
+    }
+
+    @AfterEach
+    void cerrar() {
+        executor.shutdown();
+        servidor.stop(0);
+        hilosServidor.shutdownNow();
+        Stripe.overrideApiBase(apiBaseOriginal);
+        Stripe.setMaxNetworkRetries(reintentosOriginales);
+    }
+
+    @Test
+    void devuelveLaRespuestaDeStripe() {
+        PaymentIntent paymentIntent = cliente.ejecutar(() -> PaymentIntent.retrieve("pi_prueba")).join();
+
+        assertEquals("pi_prueba", paymentIntent.getId());
+        assertEquals("succeeded", paymentIntent.getStatus());
+    }
+
+    @Test
+    void cortaLaLlamadaAlSuperarElTiempoMaximo() {
+        retrasoMs = 2000;
+
+        long inicio = System.nanoTime();
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> cliente.ejecutar(() -> PaymentIntent.retrieve("pi_prueba")).join());
+        long transcurridoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        assertInstanceOf(StripeNoDisponibleException.class, error.getCause());
+        assertTrue(transcurridoMs < 1500, "El timeout tardó " + transcurridoMs + " ms");
+    }
+
+    @Test
+    void rechazaDeInmediatoCuandoElPoolEstaLleno() throws Exception {
+        retrasoMs = 1000;
+        enCurso = new CountDownLatch(CONCURRENCIA);
+        cliente = nuevoCliente(60000);
+        ReflectionTestUtils.setField(cliente, "timeoutMs", 5000L);
+
+        CompletableFuture<?>[] ocupadas = new CompletableFuture<?>[CONCURRENCIA];
+        for (int i = 0; i < CONCURRENCIA; i++) {
+            ocupadas[i] = cliente.ejecutar(() -> PaymentIntent.retrieve("pi_prueba"));
+        }
+        assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<PaymentIntent> rechazada = cliente.ejecutar(() -> PaymentIntent.retrieve("pi_prueba"));
+        assertTrue(rechazada.isCompletedExceptionally());
+        CompletionException error = assertThrows(CompletionException.class, rechazada::join);
+        assertInstanceOf(StripeNoDisponibleException.class, error.getCause());
+        assertEquals(CONCURRENCIA, pedidos.get());
+
+        // Las que tenían cupo terminan bien
+        CompletableFuture.allOf(ocupadas).join();
+    }
+
+    @Test
+    void abreElCircuitoTrasFallosSeguidosDelServicio() {
+        status = 500;
+        for (int i = 0; i < FALLOS_PARA_ABRIR; i++) {
+            CompletionException error = assertThrows(CompletionException.class,
+                    () -> cliente.ejecutar(() -> PaymentIntent.retrieve("pi_prueba")).join());
+            assertInstanceOf(StripeException.class, error.getCause());
+        }
+
+        // Abierto: se rechaza sin llegar al servidor
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> cliente.ejecutar(() -> PaymentIntent.retrieve("pi_prueba")).join());
+        assertInstanceOf(StripeNoDisponibleException.class, error.getCause());
+        assertEquals(FALLOS_PARA_ABRIR, pedidos.get());
+    }
+
+    @Test
+    void losErrores4xxNoAbrenElCircuito() {
+        status = 400;
+        for (int i = 0; i < FALLOS_PARA_ABRIR + 2; i++) {
+            CompletionException error = assertThrows(CompletionException.class,
+                    () -> cliente.ejecutar(() -> PaymentIntent.retrieve("pi_prueba")).join());
+            assertInstanceOf(StripeException.class, error.getCause());
+        }
+
+        status = 200;
+        assertEquals("pi_prueba", cliente.ejecutar(() -> PaymentIntent.retrieve("pi_prueba")).join().getId());
+    }
+
+    @Test
+    void pasadaLaAperturaUnSoloFalloVuelveAAbrirElCircuito() throws Exception {
+        cliente = nuevoCliente(200);
+        status = 500;
+        for (int i = 0; i < FALLOS_PARA_ABRIR; i++) {
+            assertThrows(CompletionException.class, () -> cliente.ejecutar(() -> PaymentIntent.retrieve("pi_prueba")).join());
+        }
+        Thread.sleep(300);
+
+        // Primer intento después de la apertura: llega al servidor, falla y vuelve a abrir
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> cliente.ejecutar(() -> PaymentIntent.retrieve("pi_prueba")).join());
+        assertInstanceOf(StripeException.class, error.getCause());
+        error = assertThrows(CompletionException.class,
+                () -> cliente.ejecutar(() -> PaymentIntent.retrieve("pi_prueba")).join());
+        assertInstanceOf(StripeNoDisponibleException.class, error.getCause());
+        assertEquals(FALLOS_PARA_ABRIR + 1, pedidos.get());
+
+        // Con el servicio recuperado, pasada otra apertura las llamadas vuelven a pasar
+        Thread.sleep(300);
+        status = 200;
+        assertEquals("pi_prueba", cliente.ejecutar(() -> PaymentIntent.retrieve("pi_prueba")).join().getId());
+    }
+
+    private ClienteStripe nuevoCliente(long aperturaMs) {
+        ClienteStripe nuevo = new ClienteStripe();
+        ReflectionTestUtils.setField(nuevo, "executor", executor);
+        ReflectionTestUtils.setField(nuevo, "timeoutMs", TIMEOUT_MS);
+        ReflectionTestUtils.setField(nuevo, "fallosParaAbrir", FALLOS_PARA_ABRIR);
+        ReflectionTestUtils.setField(nuevo, "aperturaMs", aperturaMs);
+        ReflectionTestUtils.setField(nuevo, "meterRegistry", new SimpleMeterRegistry());
+        nuevo.registrarMetricas();
+        return nuevo;
+    }
+}
@@ -0,0 +1,70 @@
+package com.reservapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.reservapp.ClubesPrueba;
+import com.reservapp.entity.Club;
+
+/**
+ * Los listados de canchas y clubes cargan imágenes, servicios y configuraciones en la misma
+ * consulta: la cantidad de sentencias SQL no crece con la cantidad de canchas o clubes.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class ConsultasCanchasTest {
+
+    private static final int MUCHAS_CANCHAS = 500;
+
+    @Autowired
+    private CanchaService canchaService;
+
+    @Autowired
+    private CatalogoCanchas catalogoCanchas;
+
+    @Autowired
+    private IndiceBusquedaClubes indiceBusquedaClubes;
+
+    @Autowired
+    private ApplicationContext contexto;
+
+    private ClubesPrueba clubes;
+
+    @BeforeEach
+    void preparar() {
+        clubes = new ClubesPrueba(contexto);
+    }
+
+    @Test
+    void lasCanchasDeUnClubSeCarganConLasMismasConsultasConPocasOMuchasCanchas() {
+        Club chico = clubes.crearClub(2);
+        Club grande = clubes.crearClub(MUCHAS_CANCHAS);
+
+        assertEquals(clubes.contarSentencias(() -> canchaService.getCanchasByClub(chico.getId())),
+                clubes.contarSentencias(() -> canchaService.getCanchasByClub(grande.getId())));
+        assertEquals(
+                clubes.contarSentencias(() -> canchaService.getCanchasConConfiguracionPorPropietario(chico.getPropietario().getId())),
+                clubes.contarSentencias(() -> canchaService.getCanchasConConfiguracionPorPropietario(grande.getPropietario().getId())));
+    }
+
+    @Test
+    void elCatalogoYElIndiceDeBusquedaSeCarganConLasMismasConsultasAlCrecer() {
+        clubes.crearClub(2);
+        long catalogoAntes = clubes.contarSentencias(catalogoCanchas::recargar);
+        long indiceAntes = clubes.contarSentencias(indiceBusquedaClubes::reconstruir);
+
+        clubes.crearClub(MUCHAS_CANCHAS);
+        for (int i = 0; i < 20; i++) {
+            clubes.crearClub(1);
+        }
+
+        assertEquals(catalogoAntes, clubes.contarSentencias(catalogoCanchas::recargar));
+        assertEquals(indiceAntes, clubes.contarSentencias(indiceBusquedaClubes::reconstruir));
+    }
+}
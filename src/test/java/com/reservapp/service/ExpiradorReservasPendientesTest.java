@@ -0,0 +1,189 @@
+package com.reservapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.reservapp.DatosPrueba;
+import com.reservapp.entity.Cancha;
+import com.reservapp.entity.Club;
+import com.reservapp.entity.Reserva;
+import com.reservapp.entity.Usuario;
+import com.reservapp.repository.CanchaRepository;
+import com.reservapp.repository.ClubRepository;
+import com.reservapp.repository.ReservaRepository;
+import com.reservapp.repository.UsuarioRepository;
+import com.stripe.Stripe;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Al vencer una reserva pendiente su sesión de Checkout se cierra en Stripe; si Stripe falla o
+ * no entra en el cupo de cierres del ciclo, la reserva queda con el cierre pendiente y se
+ * reintenta en el ciclo siguiente.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class ExpiradorReservasPendientesTest {
+
+    @Autowired
+    private ExpiradorReservasPendientes expirador;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    @Autowired
+    private CanchaRepository canchaRepository;
+
+    private HttpServer servidor;
+    private String apiBaseOriginal;
+    private int reintentosOriginales;
+
+    // Respuesta del servidor que reemplaza a Stripe
+    private volatile int status;
+    private volatile String cuerpo;
+    private final List<String> pedidos = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void preparar() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/", intercambio -> {
+            pedidos.add(intercambio.getRequestMethod() + " " + intercambio.getRequestURI().getPath());
+            byte[] bytes = cuerpo.getBytes(StandardCharsets.UTF_8);
+            intercambio.getResponseHeaders().add("Content-Type", "application/json");
+            intercambio.sendResponseHeaders(status, bytes.length);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(bytes);
+            }
+        });
+        servidor.start();
+
+        apiBaseOriginal = Stripe.getApiBase();
+        reintentosOriginales = Stripe.getMaxNetworkRetries();
+        Stripe.setMaxNetworkRetries(0);
+        Stripe.overrideApiBase("http://127.0.0.1:" + servidor.getAddress().getPort());
+    }
+
+    @AfterEach
+    void cerrar() {
+        servidor.stop(0);
+        Stripe.overrideApiBase(apiBaseOriginal);
+        Stripe.setMaxNetworkRetries(reintentosOriginales);
+    }
+
+    @Test
+    void unCierreFallidoSeReintentaEnElCicloSiguiente() {
+        String sessionId = "cs_" + UUID.randomUUID();
+        Reserva reserva = crearReservaVencida(sessionId);
+
+        responder(500, "{\"error\": {\"type\": \"api_error\", \"message\": \"Error simulado\"}}");
+        expirador.vencerPendientes();
+
+        Reserva vencida = reservaRepository.findById(reserva.getId()).orElseThrow();
+        assertEquals(Reserva.EstadoReserva.CANCELADA, vencida.getEstado());
+        assertTrue(vencida.isCierreStripePendiente());
+
+        // Stripe vuelve a responder: la sesión sigue abierta y se expira
+        pedidos.clear();
+        responder(200, "{\"id\": \"" + sessionId + "\", \"object\": \"checkout.session\", \"status\": \"open\"}");
+        expirador.vencerPendientes();
+
+        assertFalse(reservaRepository.findById(reserva.getId()).orElseThrow().isCierreStripePendiente());
+        assertTrue(pedidos.contains("POST /v1/checkout/sessions/" + sessionId + "/expire"));
+    }
+
+    @Test
+    void unaSesionQueYaNoExisteNoQuedaPendiente() {
+        Reserva reserva = crearReservaVencida("cs_" + UUID.randomUUID());
+
+        responder(404, "{\"error\": {\"type\": \"invalid_request_error\", \"code\": \"resource_missing\", "
+                + "\"message\": \"No such checkout.session\"}}");
+        expirador.vencerPendientes();
+
+        Reserva vencida = reservaRepository.findById(reserva.getId()).orElseThrow();
+        assertEquals(Reserva.EstadoReserva.CANCELADA, vencida.getEstado());
+        assertFalse(vencida.isCierreStripePendiente());
+    }
+
+    @Test
+    void unaSesionYaExpiradaNoSeVuelveAExpirar() {
+        String sessionId = "cs_" + UUID.randomUUID();
+        Reserva reserva = crearReservaVencida(sessionId);
+
+        responder(200, "{\"id\": \"" + sessionId + "\", \"object\": \"checkout.session\", \"status\": \"expired\"}");
+        expirador.vencerPendientes();
+
+        assertFalse(reservaRepository.findById(reserva.getId()).orElseThrow().isCierreStripePendiente());
+        assertEquals(List.of("GET /v1/checkout/sessions/" + sessionId), pedidos);
+    }
+
+    @Test
+    void losCierresQueNoEntranEnElCicloQuedanParaElSiguiente() {
+        Reserva primera = crearReservaVencida("cs_" + UUID.randomUUID());
+        Reserva segunda = crearReservaVencida("cs_" + UUID.randomUUID());
+        responder(200, "{\"id\": \"cs_cerrada\", \"object\": \"checkout.session\", \"status\": \"expired\"}");
+
+        ReflectionTestUtils.setField(expirador, "cierresPorCiclo", 1);
+        try {
+            expirador.vencerPendientes();
+
+            // Las dos se liberan, pero solo una se cierra en Stripe en este ciclo
+            assertEquals(Reserva.EstadoReserva.CANCELADA, reservaRepository.findById(primera.getId()).orElseThrow().getEstado());
+            assertEquals(Reserva.EstadoReserva.CANCELADA, reservaRepository.findById(segunda.getId()).orElseThrow().getEstado());
+            assertEquals(1, pedidos.size());
+            assertEquals(1, List.of(primera, segunda).stream()
+                    .filter(reserva -> reservaRepository.findById(reserva.getId()).orElseThrow().isCierreStripePendiente())
+                    .count());
+
+            pedidos.clear();
+            expirador.vencerPendientes();
+
+            assertEquals(1, pedidos.size());
+            assertFalse(reservaRepository.findById(primera.getId()).orElseThrow().isCierreStripePendiente());
+            assertFalse(reservaRepository.findById(segunda.getId()).orElseThrow().isCierreStripePendiente());
+        } finally {
+            ReflectionTestUtils.setField(expirador, "cierresPorCiclo", 100);
+        }
+    }
+
+    private void responder(int status, String cuerpo) {
+        this.status = status;
+        this.cuerpo = cuerpo;
+    }
+
+    // Reserva pendiente con sesión de Checkout, creada hace más que el tiempo de bloqueo
+    private Reserva crearReservaVencida(String sessionId) {
+        Usuario propietario = usuarioRepository.save(DatosPrueba.usuario("CLUB"));
+        Usuario jugador = usuarioRepository.save(DatosPrueba.usuario("JUGADOR"));
+        Club club = clubRepository.save(new Club("Club Vencimientos", null, "Calle 1", null, null, null, null, propietario));
+        Cancha cancha = canchaRepository.save(new Cancha("Cancha 1", null, "Pádel", "Calle 1", 10000.0, null, List.of(), club));
+        LocalDateTime inicio = LocalDate.now().plusDays(3).atTime(18, 0);
+        Reserva reserva = new Reserva(jugador, cancha, inicio, inicio.plusHours(1), 10000.0);
+        reserva.setStripeSessionId(sessionId);
+        reserva.setFechaCreacion(LocalDateTime.now().minusHours(1));
+        return reservaRepository.save(reserva);
+    }
+}
@@ -0,0 +1,138 @@
+package com.reservapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.reservapp.entity.Club;
+import com.reservapp.repository.CanchaRepository;
+import com.reservapp.repository.ClubRepository;
+
+/**
+ * Normalización, coincidencia por prefijo de palabra y orden por puntaje del índice de búsqueda,
+ * con los repositorios simulados (sin base de datos).
+ */
+class IndiceBusquedaClubesTest {
+
+    private final ClubRepository clubRepository = mock(ClubRepository.class);
+    private final CanchaRepository canchaRepository = mock(CanchaRepository.class);
+    private final List<Club> clubes = new ArrayList<>();
+    private final List<CanchaRepository.TextoCancha> canchas = new ArrayList<>();
+
+    private IndiceBusquedaClubes indice;
+
+    @BeforeEach
+    void preparar() {
+        indice = new IndiceBusquedaClubes(mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(indice, "clubRepository", clubRepository);
+        ReflectionTestUtils.setField(indice, "canchaRepository", canchaRepository);
+        when(clubRepository.findActivosConServicios()).thenReturn(clubes);
+        when(canchaRepository.findTextos()).thenReturn(canchas);
+    }
+
+    @Test
+    void normalizarQuitaAcentosYPasaAMinusculas() {
+        assertEquals("futbol nandu", IndiceBusquedaClubes.normalizar("Fútbol Ñandú"));
+        assertEquals("padel", IndiceBusquedaClubes.normalizar("PÁDEL"));
+        assertEquals("pinguino", IndiceBusquedaClubes.normalizar("Pingüino"));
+    }
+
+    @Test
+    void palabrasSeparaPorSignosYNoRepite() {
+        assertEquals(List.of("club", "norte", "5"), List.copyOf(IndiceBusquedaClubes.palabras("Club-Norte, club NORTE (5)")));
+        assertEquals(List.of(), List.copyOf(IndiceBusquedaClubes.palabras(null)));
+    }
+
+    @Test
+    void cadaPalabraCoincideComoPalabraCompletaOComoPrefijo() {
+        club(1L, "Club Norte", "Av. Libertador 100, Rosario", null);
+        club(2L, "MegaClub", "Calle 9, Córdoba", null);
+        club(3L, "Club Sur", "Ruta 2, Rosario", null);
+        indice.reconstruir();
+
+        // "Club" no aparece dentro de "MegaClub": la coincidencia es desde el comienzo de la palabra
+        assertEquals(List.of(1L, 3L), ids(buscar("club")));
+        assertEquals(List.of(1L), ids(buscar("nor")));
+        assertEquals(List.of(2L), ids(buscar("megacl")));
+        // Sin acentos ni mayúsculas
+        assertEquals(List.of(2L), ids(buscar("CORDOBA")));
+    }
+
+    @Test
+    void todasLasPalabrasDebenCoincidir() {
+        club(1L, "Club Norte", "Rosario", null);
+        club(2L, "Club Sur", "Rosario", null);
+        indice.reconstruir();
+
+        assertEquals(List.of(2L), ids(buscar("club sur")));
+        assertEquals(List.of(), ids(buscar("club oeste")));
+    }
+
+    @Test
+    void losFiltrosPorCampoSoloBuscanEnSuCampo() {
+        club(1L, "Rosario Padel", "Córdoba", null);
+        club(2L, "Club Centro", "Rosario", null);
+        indice.reconstruir();
+
+        Map<IndiceBusquedaClubes.Campo, String> filtros = new EnumMap<>(IndiceBusquedaClubes.Campo.class);
+        filtros.put(IndiceBusquedaClubes.Campo.DIRECCION, "rosario");
+        assertEquals(List.of(2L), ids(indice.buscar(null, filtros)));
+    }
+
+    @Test
+    void ordenaPorPesoDelCampoYPorPalabraCompleta() {
+        club(1L, "Los Alamos", "Calle 1", "Club con cancha de tenis");
+        club(2L, "Tenis Club", "Calle 2", null);
+        club(3L, "Tenistas Unidos", "Calle 3", null);
+        club(4L, "Alamos", "Calle 4", null);
+        cancha(4L, "Cancha 1", "Tenis");
+        indice.reconstruir();
+
+        // Nombre completo (8 x 2) > nombre por prefijo (8) > deporte completo (4 x 2) a igual puntaje por nombre,
+        // y la descripción (1 x 2) queda última
+        assertEquals(List.of(2L, 4L, 3L, 1L), ids(buscar("tenis")));
+    }
+
+    @Test
+    void aIgualPuntajeOrdenaPorNombre() {
+        club(1L, "Zona Padel", "Calle 1", null);
+        club(2L, "Árbol Padel", "Calle 2", null);
+        club(3L, "Mitre Padel", "Calle 3", null);
+        indice.reconstruir();
+
+        assertEquals(List.of(2L, 3L, 1L), ids(buscar("padel")));
+    }
+
+    private List<IndiceBusquedaClubes.Documento> buscar(String texto) {
+        return indice.buscar(texto, Map.of());
+    }
+
+    private static List<Long> ids(List<IndiceBusquedaClubes.Documento> documentos) {
+        return documentos.stream().map(IndiceBusquedaClubes.Documento::getId).toList();
+    }
+
+    private void club(Long id, String nombre, String direccion, String descripcion) {
+        Club club = new Club(nombre, descripcion, direccion, null, null, null, null, null);
+        club.setId(id);
+        club.setActivo(true);
+        clubes.add(club);
+    }
+
+    private void cancha(Long clubId, String nombre, String deporte) {
+        canchas.add(new CanchaRepository.TextoCancha() {
+            public Long getClubId() { return clubId; }
+            public String getNombre() { return nombre; }
+            public String getDeporte() { return deporte; }
+        });
+    }
+}
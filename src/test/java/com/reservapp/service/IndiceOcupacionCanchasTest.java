@@ -0,0 +1,149 @@
+package com.reservapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.reservapp.entity.Cancha;
+import com.reservapp.entity.Reserva;
+import com.reservapp.repository.ReservaRepository;
+
+/**
+ * Solapamiento, altas, bajas y horizonte de los intervalos por cancha del índice de ocupación,
+ * con el repositorio simulado (sin base de datos).
+ */
+class IndiceOcupacionCanchasTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 7, 0, 0);
+    private static final long VENCE = Long.MAX_VALUE;
+
+    private final ReservaRepository reservaRepository = mock(ReservaRepository.class);
+    private IndiceOcupacionCanchas indice;
+
+    @BeforeEach
+    void preparar() {
+        indice = new IndiceOcupacionCanchas();
+        ReflectionTestUtils.setField(indice, "reservaRepository", reservaRepository);
+        ReflectionTestUtils.setField(indice, "ttlSegundos", 60L);
+    }
+
+    @Test
+    void seSolapaIncluyeLosExtremos() {
+        IndiceOcupacionCanchas.IntervalosCancha intervalos = intervalos(0, intervalo(1L, 10, 11));
+
+        assertTrue(intervalos.seSolapa(hora(11), hora(12)));
+        assertTrue(intervalos.seSolapa(hora(9), hora(10)));
+        assertTrue(intervalos.seSolapa(hora(10) + 60, hora(10) + 120));
+        assertFalse(intervalos.seSolapa(hora(11) + 1, hora(12)));
+        assertFalse(intervalos.seSolapa(hora(8), hora(10) - 1));
+    }
+
+    @Test
+    void seSolapaConUnaReservaLargaQueEmpiezaAntes() {
+        // La reserva de 8 a 20 h empieza antes que la de 12 h pero termina después:
+        // la consulta de 15 h la encuentra por el mayor fin acumulado
+        IndiceOcupacionCanchas.IntervalosCancha intervalos = intervalos(0,
+                intervalo(1L, 12, 13), intervalo(2L, 8, 20));
+
+        assertTrue(intervalos.seSolapa(hora(15), hora(16)));
+        assertFalse(intervalos.seSolapa(hora(21), hora(22)));
+    }
+
+    @Test
+    void conInsertaEnOrdenYReemplazaElMismoId() {
+        IndiceOcupacionCanchas.IntervalosCancha intervalos = intervalos(0, intervalo(1L, 10, 11))
+                .con(2L, hora(18), hora(19), hora(0))
+                .con(3L, hora(14), hora(15), hora(0));
+
+        assertTrue(intervalos.seSolapa(hora(14), hora(14)));
+        assertTrue(intervalos.seSolapa(hora(18), hora(18)));
+
+        // Volver a registrar la reserva 2 en otro horario la mueve, no la duplica
+        IndiceOcupacionCanchas.IntervalosCancha movida = intervalos.con(2L, hora(20), hora(21), hora(0));
+        assertFalse(movida.seSolapa(hora(18), hora(18)));
+        assertTrue(movida.seSolapa(hora(20), hora(20)));
+    }
+
+    @Test
+    void sinQuitaLaReservaYLasTerminadasYAvanzaElHorizonte() {
+        IndiceOcupacionCanchas.IntervalosCancha intervalos = intervalos(0,
+                intervalo(1L, 8, 9), intervalo(2L, 12, 13), intervalo(3L, 16, 17));
+
+        IndiceOcupacionCanchas.IntervalosCancha resultado = intervalos.sin(3L, hora(10));
+
+        assertEquals(hora(10), resultado.horizonte);
+        assertFalse(resultado.seSolapa(hora(8), hora(9)));
+        assertTrue(resultado.seSolapa(hora(12), hora(13)));
+        assertFalse(resultado.seSolapa(hora(16), hora(17)));
+        // Sin cambios devuelve la misma instancia
+        assertSame(resultado, resultado.sin(99L, hora(10)));
+    }
+
+    @Test
+    void conDescartaLasReservasTerminadasAntesDelHorizonte() {
+        IndiceOcupacionCanchas.IntervalosCancha intervalos = intervalos(hora(12))
+                .con(1L, hora(8), hora(9), hora(12));
+
+        assertFalse(intervalos.seSolapa(hora(8), hora(9)));
+    }
+
+    @Test
+    void lasConsultasAnterioresAlHorizonteVanALaBase() {
+        when(reservaRepository.findIntervalosActivosPorCanchaDesde(eq(1L), any())).thenReturn(List.of());
+        LocalDateTime ayer = LocalDateTime.now().minusDays(1);
+        LocalDateTime manana = LocalDateTime.now().plusDays(1);
+
+        assertTrue(indice.estaLibre(1L, manana, manana.plusHours(1)));
+        verify(reservaRepository, never()).existsReservaConflicto(any(), any(), any());
+
+        when(reservaRepository.existsReservaConflicto(1L, ayer, ayer.plusHours(1))).thenReturn(true);
+        assertFalse(indice.estaLibre(1L, ayer, ayer.plusHours(1)));
+    }
+
+    @Test
+    void registrarNoConsultaLaBaseSiLaCanchaNoEstaCargada() {
+        Cancha cancha = new Cancha();
+        cancha.setId(1L);
+        LocalDateTime inicio = LocalDateTime.now().plusDays(1);
+        Reserva reserva = new Reserva(null, cancha, inicio, inicio.plusHours(1), 10000.0);
+        reserva.setId(5L);
+
+        indice.registrar(reserva);
+
+        verifyNoInteractions(reservaRepository);
+    }
+
+    private static IndiceOcupacionCanchas.IntervalosCancha intervalos(long horizonte,
+            ReservaRepository.IntervaloReserva... intervalos) {
+        return IndiceOcupacionCanchas.IntervalosCancha.desde(horizonte, VENCE, List.of(intervalos));
+    }
+
+    private static long hora(int hora) {
+        return BASE.plusHours(hora).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static ReservaRepository.IntervaloReserva intervalo(Long id, int desde, int hasta) {
+        return new ReservaRepository.IntervaloReserva() {
+            public Long getId() { return id; }
+            public Long getCanchaId() { return 1L; }
+            public LocalDateTime getFechaHoraInicio() { return BASE.plusHours(desde); }
+            public LocalDateTime getFechaHoraFin() { return BASE.plusHours(hasta); }
+        };
+    }
+}
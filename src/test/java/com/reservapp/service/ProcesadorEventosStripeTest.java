@@ -0,0 +1,236 @@
+package com.reservapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.reservapp.DatosPrueba;
+import com.reservapp.entity.Cancha;
+import com.reservapp.entity.Club;
+import com.reservapp.entity.EventoStripe;
+import com.reservapp.entity.Reserva;
+import com.reservapp.entity.Usuario;
+import com.reservapp.repository.CanchaRepository;
+import com.reservapp.repository.ClubRepository;
+import com.reservapp.repository.EventoStripeRepository;
+import com.reservapp.repository.ReservaRepository;
+import com.reservapp.repository.UsuarioRepository;
+import com.stripe.Stripe;
+
+/**
+ * Reproduce eventos de Stripe guardados en src/test/resources/stripe, firmados como lo hace Stripe,
+ * a través de la bandeja de webhooks y del procesador, sin llamar a la API de Stripe.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class ProcesadorEventosStripeTest {
+
+    @Autowired
+    private WebhookStripeService webhookStripeService;
+
+    @Autowired
+    private ProcesadorEventosStripe procesadorEventosStripe;
+
+    @SpyBean
+    private EventoStripeRepository eventoStripeRepository;
+
+    @Autowired
+    private ExpiradorReservasPendientes expirador;
+
+    @Autowired
+    private IndiceOcupacionCanchas indiceOcupacion;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    @Autowired
+    private CanchaRepository canchaRepository;
+
+    @Value("${stripe.webhook.secret}")
+    private String secretoWebhook;
+
+    @Test
+    void elPagoExitosoConfirmaLaReservaPendiente() throws Exception {
+        Reserva reserva = crearReserva(Reserva.EstadoReserva.PENDIENTE);
+        String paymentIntent = "pi_" + UUID.randomUUID();
+
+        recibir("payment_intent.succeeded", Map.of("reserva", reserva.getId().toString(), "paymentIntent", paymentIntent));
+        procesadorEventosStripe.procesarPendientes();
+
+        Reserva actualizada = reservaRepository.findById(reserva.getId()).orElseThrow();
+        assertEquals(Reserva.EstadoReserva.CONFIRMADA, actualizada.getEstado());
+        assertEquals(Reserva.EstadoPago.PAGADO, actualizada.getEstadoPago());
+        assertEquals(paymentIntent, actualizada.getStripePaymentIntentId());
+    }
+
+    @Test
+    void unPagoTardioSobreUnaReservaCanceladaQuedaEnRevisionHastaElReembolso() throws Exception {
+        Reserva reserva = crearReserva(Reserva.EstadoReserva.CANCELADA);
+        String paymentIntent = "pi_" + UUID.randomUUID();
+
+        String evento = recibir("checkout.session.completed", Map.of("reserva", reserva.getId().toString(),
+                "paymentIntent", paymentIntent, "session", "cs_" + UUID.randomUUID()));
+        procesadorEventosStripe.procesarPendientes();
+
+        Reserva enRevision = reservaRepository.findById(reserva.getId()).orElseThrow();
+        assertEquals(Reserva.EstadoReserva.CANCELADA, enRevision.getEstado());
+        assertEquals(Reserva.EstadoPago.REVISION, enRevision.getEstadoPago());
+        assertEquals(ProcesadorEventosStripe.PAGO_EN_REVISION,
+                eventoStripeRepository.findById(evento).orElseThrow().getUltimoError());
+
+        // El reembolso manual llega sin metadata y se asocia por el PaymentIntent
+        recibir("charge.refunded", Map.of("paymentIntent", paymentIntent));
+        procesadorEventosStripe.procesarPendientes();
+
+        Reserva reembolsada = reservaRepository.findById(reserva.getId()).orElseThrow();
+        assertEquals(Reserva.EstadoReserva.CANCELADA, reembolsada.getEstado());
+        assertEquals(Reserva.EstadoPago.REEMBOLSADO, reembolsada.getEstadoPago());
+    }
+
+    @Test
+    void unEventoReenviadoSeGuardaUnaSolaVez() throws Exception {
+        Reserva reserva = crearReserva(Reserva.EstadoReserva.PENDIENTE);
+        String payload = fixture("payment_intent.succeeded", Map.of("evento", "evt_" + UUID.randomUUID(),
+                "reserva", reserva.getId().toString(), "paymentIntent", "pi_" + UUID.randomUUID()));
+
+        assertTrue(webhookStripeService.recibirEvento(payload, firmar(payload)));
+        assertFalse(webhookStripeService.recibirEvento(payload, firmar(payload)));
+    }
+
+    @Test
+    void unEventoReclamadoPorOtraInstanciaNoSeProcesaHastaQueVenceElReclamo() throws Exception {
+        Reserva reserva = crearReserva(Reserva.EstadoReserva.PENDIENTE);
+        String evento = recibir("payment_intent.succeeded",
+                Map.of("reserva", reserva.getId().toString(), "paymentIntent", "pi_" + UUID.randomUUID()));
+
+        LocalDateTime ahora = LocalDateTime.now();
+        assertEquals(1, eventoStripeRepository.reclamar(List.of(evento), "otra-instancia", ahora.plusMinutes(5), ahora));
+        assertEquals(0, eventoStripeRepository.reclamar(List.of(evento), "esta-instancia", ahora.plusMinutes(5), ahora));
+
+        procesadorEventosStripe.procesarPendientes();
+        assertEquals(EventoStripe.EstadoEvento.PENDIENTE, eventoStripeRepository.findById(evento).orElseThrow().getEstado());
+        assertEquals(Reserva.EstadoReserva.PENDIENTE, reservaRepository.findById(reserva.getId()).orElseThrow().getEstado());
+
+        // La otra instancia se cayó: al vencer su reclamo el evento vuelve a estar disponible
+        EventoStripe reclamado = eventoStripeRepository.findById(evento).orElseThrow();
+        reclamado.setReclamadoHasta(ahora.minusSeconds(1));
+        eventoStripeRepository.save(reclamado);
+
+        procesadorEventosStripe.procesarPendientes();
+        assertEquals(EventoStripe.EstadoEvento.PROCESADO, eventoStripeRepository.findById(evento).orElseThrow().getEstado());
+        assertEquals(Reserva.EstadoReserva.CONFIRMADA, reservaRepository.findById(reserva.getId()).orElseThrow().getEstado());
+    }
+
+    @Test
+    void elExpiradorNoCancelaUnaReservaMientrasSeAplicaSuPago() throws Exception {
+        Reserva reserva = crearReserva(Reserva.EstadoReserva.PENDIENTE);
+        reserva.setFechaCreacion(LocalDateTime.now().minusHours(1));
+        reservaRepository.save(reserva);
+        Long canchaId = reserva.getCancha().getId();
+        // Carga la cancha en el índice con la reserva pendiente ocupando su turno
+        assertFalse(indiceOcupacion.estaLibre(canchaId, reserva.getFechaHoraInicio(), reserva.getFechaHoraFin()));
+        recibir("payment_intent.succeeded", Map.of("reserva", reserva.getId().toString(), "paymentIntent", "pi_" + UUID.randomUUID()));
+
+        // El procesador se detiene con la reserva ya leída y marcada como pagada, antes del commit
+        CountDownLatch aplicando = new CountDownLatch(1);
+        CountDownLatch continuar = new CountDownLatch(1);
+        // El espía de un repositorio delega en el repositorio real a través de su respuesta por defecto
+        Answer<?> real = mockingDetails(eventoStripeRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocacion -> {
+            aplicando.countDown();
+            continuar.await(5, TimeUnit.SECONDS);
+            return real.answer(invocacion);
+        }).when(eventoStripeRepository).saveAll(anyIterable());
+
+        CompletableFuture<Void> pago = CompletableFuture.runAsync(procesadorEventosStripe::procesarPendientes);
+        assertTrue(aplicando.await(5, TimeUnit.SECONDS));
+        long vencidasAntes = expirador.getReservasVencidas();
+        CompletableFuture<Void> vencimiento = CompletableFuture.runAsync(expirador::vencerPendientes);
+        Thread.sleep(500);
+        continuar.countDown();
+        pago.get(10, TimeUnit.SECONDS);
+        vencimiento.get(10, TimeUnit.SECONDS);
+
+        // El expirador esperó el commit del pago y ya no encontró la reserva pendiente
+        Reserva actualizada = reservaRepository.findById(reserva.getId()).orElseThrow();
+        assertEquals(Reserva.EstadoReserva.CONFIRMADA, actualizada.getEstado());
+        assertEquals(Reserva.EstadoPago.PAGADO, actualizada.getEstadoPago());
+        assertEquals(vencidasAntes, expirador.getReservasVencidas());
+        assertFalse(indiceOcupacion.estaLibre(canchaId, reserva.getFechaHoraInicio(), reserva.getFechaHoraFin()));
+    }
+
+    private Reserva crearReserva(Reserva.EstadoReserva estado) {
+        Usuario propietario = usuarioRepository.save(DatosPrueba.usuario("CLUB"));
+        Usuario jugador = usuarioRepository.save(DatosPrueba.usuario("JUGADOR"));
+        Club club = clubRepository.save(new Club("Club Pagos", null, "Calle 1", null, null, null, null, propietario));
+        Cancha cancha = canchaRepository.save(new Cancha("Cancha 1", null, "Pádel", "Calle 1", 10000.0, null, List.of(), club));
+        LocalDateTime inicio = LocalDate.now().plusDays(3).atTime(18, 0);
+        Reserva reserva = new Reserva(jugador, cancha, inicio, inicio.plusHours(1), 10000.0);
+        reserva.setEstado(estado);
+        return reservaRepository.save(reserva);
+    }
+
+    // Recibe el evento firmado por la misma vía que el webhook y devuelve su ID
+    private String recibir(String tipo, Map<String, String> valores) throws Exception {
+        String evento = "evt_" + UUID.randomUUID();
+        Map<String, String> conEvento = new HashMap<>(valores);
+        conEvento.put("evento", evento);
+        String payload = fixture(tipo, conEvento);
+        assertTrue(webhookStripeService.recibirEvento(payload, firmar(payload)));
+        return evento;
+    }
+
+    private static String fixture(String tipo, Map<String, String> valores) throws IOException {
+        try (InputStream entrada = ProcesadorEventosStripeTest.class.getResourceAsStream("/stripe/" + tipo + ".json")) {
+            String payload = new String(entrada.readAllBytes(), StandardCharsets.UTF_8)
+                    .replace("{{apiVersion}}", Stripe.API_VERSION);
+            for (Map.Entry<String, String> valor : valores.entrySet()) {
+                payload = payload.replace("{{" + valor.getKey() + "}}", valor.getValue());
+            }
+            return payload;
+        }
+    }
+
+    // Misma firma que Stripe: HMAC-SHA256 de "timestamp.payload" con el secreto del webhook
+    private String firmar(String payload) throws Exception {
+        long timestamp = System.currentTimeMillis() / 1000;
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secretoWebhook.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String firma = HexFormat.of().formatHex(mac.doFinal((timestamp + "." + payload).getBytes(StandardCharsets.UTF_8)));
+        return "t=" + timestamp + ",v1=" + firma;
+    }
+}
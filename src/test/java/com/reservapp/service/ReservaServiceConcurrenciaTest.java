@@ -0,0 +1,199 @@
+package com.reservapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.reservapp.DatosPrueba;
+import com.reservapp.entity.Cancha;
+import com.reservapp.entity.Club;
+import com.reservapp.entity.Usuario;
+import com.reservapp.repository.CanchaRepository;
+import com.reservapp.repository.ClubRepository;
+import com.reservapp.repository.UsuarioRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Muchos jugadores reservan a la vez el mismo turno: en cada cancha solo una reserva se confirma
+ * y las demás se rechazan por conflicto. Las canchas usan bloqueos distintos, así una cancha
+ * demorada no frena las reservas de las otras.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class ReservaServiceConcurrenciaTest {
+
+    private static final int HILOS = 200;
+    private static final int CANCHAS = 8;
+    private static final String CONFLICTO = "Ya existe una reserva en ese horario";
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    @Autowired
+    private CanchaRepository canchaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Long> jugadores = new ArrayList<>();
+    private ExecutorService executor;
+    private Club club;
+
+    // Dentro del horario por defecto (9 a 22 h) y de la ventana de anticipación
+    private final LocalDateTime inicio = LocalDate.now().plusDays(2).atTime(10, 0);
+    private final LocalDateTime fin = inicio.plusHours(1);
+
+    @BeforeEach
+    void preparar() {
+        Usuario propietario = usuarioRepository.save(DatosPrueba.usuario("CLUB"));
+        club = clubRepository.save(new Club("Club Concurrencia", null, "Calle 1", null, null, null, null, propietario));
+        for (int i = 0; i < HILOS; i++) {
+            jugadores.add(usuarioRepository.save(DatosPrueba.usuario("JUGADOR")).getId());
+        }
+        executor = Executors.newFixedThreadPool(HILOS);
+    }
+
+    @AfterEach
+    void cerrar() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void soloUnaReservaGanaElMismoTurno() throws Exception {
+        Cancha cancha = crearCancha(1);
+        double conflictosAntes = conflictos();
+
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<String>> resultados = new ArrayList<>();
+        for (Long jugadorId : jugadores) {
+            resultados.add(executor.submit(() -> {
+                largada.await();
+                return reservar(jugadorId, cancha);
+            }));
+        }
+        largada.countDown();
+
+        int exitosas = 0;
+        for (Future<String> resultado : resultados) {
+            String error = resultado.get(60, TimeUnit.SECONDS);
+            if (error == null) {
+                exitosas++;
+            } else {
+                assertEquals(CONFLICTO, error);
+            }
+        }
+        assertEquals(1, exitosas);
+        assertEquals(HILOS - 1, conflictos() - conflictosAntes);
+        assertEquals(1, filas(cancha));
+    }
+
+    @Test
+    void unaCanchaDemoradaNoFrenaLasReservasDeLasDemas() throws Exception {
+        List<Cancha> canchas = new ArrayList<>();
+        for (int i = 1; i <= CANCHAS; i++) {
+            canchas.add(crearCancha(i));
+        }
+        Cancha demorada = canchas.get(0);
+
+        // Otra transacción retiene la fila de la primera cancha: su reserva queda esperando
+        // con el bloqueo de su cancha tomado
+        try (Connection conexion = dataSource.getConnection()) {
+            conexion.setAutoCommit(false);
+            try (PreparedStatement consulta = conexion.prepareStatement("SELECT id FROM canchas WHERE id = ? FOR UPDATE")) {
+                consulta.setLong(1, demorada.getId());
+                consulta.executeQuery().close();
+            }
+            Future<String> reservaDemorada = executor.submit(() -> reservar(jugadores.get(0), demorada));
+            Thread.sleep(200);
+
+            // El resto de los jugadores se reparte entre las demás canchas, todos al mismo turno
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<String>> resultados = new ArrayList<>();
+            for (int i = 1; i < HILOS; i++) {
+                Long jugadorId = jugadores.get(i);
+                Cancha cancha = canchas.get(1 + i % (CANCHAS - 1));
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    return reservar(jugadorId, cancha);
+                }));
+            }
+            largada.countDown();
+
+            int exitosas = 0;
+            for (Future<String> resultado : resultados) {
+                String error = resultado.get(5, TimeUnit.SECONDS);
+                if (error == null) {
+                    exitosas++;
+                } else {
+                    assertEquals(CONFLICTO, error);
+                }
+            }
+            assertEquals(CANCHAS - 1, exitosas);
+            assertFalse(reservaDemorada.isDone());
+
+            conexion.commit();
+            assertNull(reservaDemorada.get(10, TimeUnit.SECONDS));
+        }
+
+        for (Cancha cancha : canchas) {
+            assertEquals(1, filas(cancha));
+        }
+    }
+
+    private Cancha crearCancha(int numero) {
+        return canchaRepository.save(new Cancha("Cancha " + numero, null, "Pádel", "Calle 1", 10000.0, null, List.of(), club));
+    }
+
+    // Devuelve null si la reserva se creó, o el mensaje del rechazo
+    private String reservar(Long jugadorId, Cancha cancha) {
+        try {
+            reservaService.crearReserva(jugadorId, cancha.getId(), inicio, fin);
+            return null;
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    private double conflictos() {
+        return meterRegistry.get("reservas.conflictos").counter().count();
+    }
+
+    private int filas(Cancha cancha) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservas WHERE cancha_id = ?", Integer.class, cancha.getId());
+    }
+}
@@ -0,0 +1,86 @@
+package com.reservapp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.reservapp.ClubesPrueba;
+import com.reservapp.DatosPrueba;
+import com.reservapp.dto.PaginaReservas;
+import com.reservapp.dto.ReservaAdminDTO;
+import com.reservapp.entity.Cancha;
+import com.reservapp.entity.Club;
+import com.reservapp.entity.Reserva;
+import com.reservapp.entity.Usuario;
+import com.reservapp.repository.CanchaRepository;
+import com.reservapp.repository.ReservaRepository;
+import com.reservapp.repository.UsuarioRepository;
+
+/**
+ * El listado de administración filtra por el club copiado en cada reserva y se recorre
+ * por cursor de la más reciente a la más antigua.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class ReservasAdminPorClubTest {
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private CanchaRepository canchaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ApplicationContext contexto;
+
+    @Test
+    void lasPaginasTraenSoloLasReservasDelClubEnOrdenDeCreacion() {
+        ClubesPrueba clubes = new ClubesPrueba(contexto);
+        Club club = clubes.crearClub(3);
+        Club otro = clubes.crearClub(2);
+        Usuario jugador = usuarioRepository.save(DatosPrueba.usuario("JUGADOR"));
+
+        LocalDateTime creacion = LocalDateTime.now().minusDays(1);
+        List<Long> esperadas = new ArrayList<>();
+        int i = 0;
+        for (Cancha cancha : canchaRepository.findByClubId(club.getId())) {
+            for (Cancha otra : canchaRepository.findByClubId(otro.getId())) {
+                esperadas.add(0, reservar(jugador, cancha, creacion.plusMinutes(i++)).getId());
+                reservar(jugador, otra, creacion.plusMinutes(i++));
+            }
+        }
+
+        List<Long> listadas = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaReservas<ReservaAdminDTO> pagina =
+                    reservaService.getPaginaReservasAdminPorClub(club.getId(), cursor, 4, null, null, null);
+            pagina.getReservas().forEach(reserva -> listadas.add(reserva.getId()));
+            cursor = pagina.getSiguienteCursor();
+        } while (cursor != null);
+
+        assertEquals(esperadas, listadas);
+    }
+
+    private Reserva reservar(Usuario jugador, Cancha cancha, LocalDateTime creacion) {
+        LocalDateTime inicio = LocalDate.now().plusDays(5).atTime(18, 0);
+        Reserva reserva = new Reserva(jugador, cancha, inicio, inicio.plusHours(1), 10000.0);
+        reserva.setFechaCreacion(creacion);
+        return reservaRepository.save(reserva);
+    }
+}